@@ -0,0 +1,32 @@
+package io.jenkins.plugins.echarts;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs all JMH benchmarks of this plugin. Use {@code mvn test -Pbenchmark} to start the benchmarks. A subset of the
+ * benchmarks can be selected using the system property {@code benchmark.include} (a regular expression). The results
+ * are stored in JSON format in {@code target/jmh-report.json} (or in the file specified by the system property {@code
+ * benchmark.result}), so they can be published and compared with the results of previous runs.
+ */
+class BenchmarkRunner {
+    @Test
+    void runBenchmarks() throws RunnerException {
+        var benchmarks = System.getProperty("benchmark.include",
+                BenchmarkRunner.class.getPackageName() + ".*Benchmark");
+        var options = new OptionsBuilder()
+                .include(benchmarks)
+                .warmupIterations(2)
+                .measurementIterations(5)
+                .forks(1)
+                .shouldFailOnError(true)
+                .resultFormat(ResultFormatType.JSON)
+                .result(System.getProperty("benchmark.result", "target/jmh-report.json"))
+                .build();
+
+        new Runner(options).run();
+    }
+}
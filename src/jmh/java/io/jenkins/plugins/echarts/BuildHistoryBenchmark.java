@@ -0,0 +1,118 @@
+package io.jenkins.plugins.echarts;
+
+import edu.hm.hafner.echarts.BuildResult;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import hudson.model.Job;
+import hudson.model.Run;
+
+import io.jenkins.plugins.echarts.GenericBuildActionIterator.BuildActionIterable;
+import io.jenkins.plugins.util.BuildAction;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Measures the navigation in the build history of a job: the selection of the latest action using the {@link
+ * ActionSelector} and the iteration of the build history using the {@link BuildActionIterator} and the {@link
+ * GenericBuildActionIterator}. The synthetic history contains up to 100,000 builds: in a dense history every build
+ * contains an action, in a sparse history only every 20th build contains an action.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BuildHistoryBenchmark {
+    private static final int SPARSE_DISTANCE = 20;
+    private static final int LIMITED_BUILDS = 50;
+
+    @Param({"100", "10000", "100000"})
+    public int builds;
+
+    @Param({"dense", "sparse"})
+    public String distribution;
+
+    private Run<?, ?> lastBuild;
+    private Optional<BenchmarkAction> latestAction = Optional.empty();
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void createHistory() {
+        Job<?, ?> job = mock(Job.class, withSettings().stubOnly());
+        int distance = "sparse".equals(distribution) ? SPARSE_DISTANCE : 1;
+
+        Run<?, ?> previous = null;
+        for (int number = 1; number <= builds; number++) {
+            Run<?, ?> run = mock(Run.class, withSettings().stubOnly());
+            doReturn(job).when(run).getParent();
+            doReturn(number).when(run).getNumber();
+            doReturn("#" + number).when(run).getDisplayName();
+            doReturn(number * 60_000L).when(run).getTimeInMillis();
+            doReturn(previous).when(run).getPreviousBuild();
+
+            if (number % distance == 0) {
+                BenchmarkAction action = mock(BenchmarkAction.class, withSettings().stubOnly());
+                doReturn(run).when(action).getOwner();
+                doReturn(List.of(action)).when(run).getActions(BenchmarkAction.class);
+                latestAction = Optional.of(action);
+            }
+            else {
+                doReturn(List.of()).when(run).getActions(BenchmarkAction.class);
+            }
+            previous = run;
+        }
+        lastBuild = previous;
+    }
+
+    @Benchmark
+    public Optional<BenchmarkAction> selectLatestAction() {
+        return new ActionSelector<>(BenchmarkAction.class).apply(lastBuild);
+    }
+
+    @Benchmark
+    public void iterateCompleteHistory(final Blackhole blackhole) {
+        var iterator = new BuildActionIterator<>(BenchmarkAction.class, latestAction);
+        while (iterator.hasNext()) {
+            blackhole.consume(iterator.next());
+        }
+    }
+
+    @Benchmark
+    public void iterateLimitedHistory(final Blackhole blackhole) {
+        var iterable = new BuildActionIterable<>(BenchmarkAction.class, latestAction, a -> true,
+                BenchmarkAction::getResult, HistoryLimits.ofBuilds(LIMITED_BUILDS));
+        for (BuildResult<Integer> result : iterable) {
+            blackhole.consume(result);
+        }
+    }
+
+    @Benchmark
+    public void iterateEveryTenthBuild(final Blackhole blackhole) {
+        var iterable = new BuildActionIterable<>(BenchmarkAction.class, latestAction, a -> true,
+                BenchmarkAction::getResult, HistoryLimits.unlimited().everyNthBuild(10));
+        for (BuildResult<Integer> result : iterable) {
+            blackhole.consume(result);
+        }
+    }
+
+    /**
+     * The action that is attached to the builds of the synthetic history.
+     */
+    public abstract static class BenchmarkAction extends BuildAction<Integer> {
+        private static final long serialVersionUID = 3295437281829620862L;
+
+        BenchmarkAction(final Run<?, ?> owner, final Integer result) {
+            super(owner, result);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package io.jenkins.plugins.echarts;
+
+import edu.hm.hafner.echarts.line.LinesChartModel;
+
+import java.util.concurrent.TimeUnit;
+import tools.jackson.databind.ObjectMapper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares the serialization of trend models using a new {@link ObjectMapper} for each model with the serialization
+ * using the shared writer of {@link ChartModelWriter}. The models are {@link LinesChartModel} instances with the
+ * specified number of builds and series.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ChartModelWriterBenchmark {
+    @Param({"50", "1000"})
+    public int builds;
+
+    @Param({"5", "20"})
+    public int series;
+
+    private LinesChartModel model;
+
+    @Setup
+    public void createModel() {
+        model = TrendModelFixture.create(builds, series);
+    }
+
+    @Benchmark
+    public String serializeWithNewObjectMapper() {
+        return new ObjectMapper().writeValueAsString(model);
+    }
+
+    @Benchmark
+    public String serializeWithSharedWriter() {
+        return ChartModelWriter.toJson(model);
+    }
+}
@@ -0,0 +1,66 @@
+package io.jenkins.plugins.echarts;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the evaluation of the JSON configuration of a trend chart. The helpers {@code getStringFromJson} and
+ * {@code getIntegerFromJson} of {@link AsyncTrendJobAction} delegate to {@link TrendChartConfiguration}, so the
+ * configuration is parsed only once. The baseline parses the JSON string again for each property (as the helpers did
+ * before). Since the cache of {@link TrendChartConfiguration} is bounded, a sequence of distinct configurations
+ * measures the cost of a cache miss.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TrendChartConfigurationBenchmark {
+    private static final String CONFIGURATION
+            = "{\"numberOfBuilds\":50,\"numberOfDays\":0,\"buildAsDomain\":\"true\",\"chartType\":\"aggregated\"}";
+    private static final int DISTINCT_CONFIGURATIONS = 1024;
+
+    private final String[] distinctConfigurations = new String[DISTINCT_CONFIGURATIONS];
+    private int position;
+
+    @Setup
+    public void createConfigurations() {
+        for (int i = 0; i < DISTINCT_CONFIGURATIONS; i++) {
+            distinctConfigurations[i] = "{\"numberOfBuilds\":" + i + ",\"chartType\":\"aggregated\"}";
+        }
+    }
+
+    @Benchmark
+    public void parsePerProperty(final Blackhole blackhole) {
+        var mapper = ChartModelWriter.getObjectMapper();
+        blackhole.consume(mapper.readTree(CONFIGURATION).path("numberOfBuilds").asInt(50));
+        blackhole.consume(mapper.readTree(CONFIGURATION).path("numberOfDays").asInt(0));
+        blackhole.consume(mapper.readTree(CONFIGURATION).path("buildAsDomain").asBoolean(true));
+        blackhole.consume(mapper.readTree(CONFIGURATION).path("chartType").asString("row"));
+    }
+
+    @Benchmark
+    public void parseCachedConfiguration(final Blackhole blackhole) {
+        evaluate(blackhole, CONFIGURATION);
+    }
+
+    @Benchmark
+    public void parseDistinctConfigurations(final Blackhole blackhole) {
+        position = (position + 1) % DISTINCT_CONFIGURATIONS;
+        evaluate(blackhole, distinctConfigurations[position]);
+    }
+
+    private void evaluate(final Blackhole blackhole, final String json) {
+        var configuration = TrendChartConfiguration.parse(json);
+        blackhole.consume(configuration.getNumberOfBuilds(50));
+        blackhole.consume(configuration.getNumberOfDays(0));
+        blackhole.consume(configuration.isBuildAsDomain(true));
+        blackhole.consume(configuration.getChartType("row"));
+    }
+}
@@ -0,0 +1,55 @@
+package io.jenkins.plugins.echarts;
+
+import edu.hm.hafner.echarts.line.LineSeries;
+import edu.hm.hafner.echarts.line.LineSeries.FilledMode;
+import edu.hm.hafner.echarts.line.LineSeries.StackedMode;
+import edu.hm.hafner.echarts.line.LinesChartModel;
+import edu.hm.hafner.echarts.line.LinesDataSet;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Creates trend models for the benchmarks. The models are real {@link LinesChartModel} instances, built from a {@link
+ * LinesDataSet} in the same way as the trend charts of the plugins: a data set that contains the values of each build
+ * and a {@link LineSeries} for each data set ID.
+ */
+public final class TrendModelFixture {
+    /**
+     * Creates a new model with the specified number of builds and series.
+     *
+     * @param builds
+     *         the number of builds
+     * @param seriesCount
+     *         the number of series
+     *
+     * @return the model
+     */
+    public static LinesChartModel create(final int builds, final int seriesCount) {
+        var dataSet = new LinesDataSet();
+        for (int build = 1; build <= builds; build++) {
+            Map<String, Integer> values = new HashMap<>();
+            for (int i = 0; i < seriesCount; i++) {
+                values.put(getSeriesId(i), (build * 31 + i * 17) % 100);
+            }
+            dataSet.add("#" + build, values, build);
+        }
+
+        var model = new LinesChartModel(dataSet);
+        for (int i = 0; i < seriesCount; i++) {
+            var series = new LineSeries("Series " + i, JenkinsPalette.chartColor(i).normal(),
+                    StackedMode.STACKED, FilledMode.LINES);
+            series.addAll(dataSet.getSeries(getSeriesId(i)));
+            model.addSeries(series);
+        }
+        return model;
+    }
+
+    private static String getSeriesId(final int index) {
+        return "series-" + index;
+    }
+
+    private TrendModelFixture() {
+        // prevents instantiation
+    }
+}
@@ -1,5 +1,7 @@
 package io.jenkins.plugins.echarts;
 
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
 import java.util.Optional;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -11,11 +13,13 @@ import io.jenkins.plugins.util.BuildAction;
 /**
  * Selects a specific action from the all actions that are attached to the given build. The action is selected by a
  * generic predicate that works on the expected concrete action type. If the baseline build does not contain the action
- * then previous builds will be inspected until the action is found.
+ * then previous builds will be inspected until the action is found. If the {@link TrendIndex} is enabled, then builds
+ * that do not contain an action of the selected type are skipped without loading them.
  *
  * @param <T>
  *         the type of the action to select
  */
+@SuppressWarnings("OptionalUsedAsFieldOrParameterType")
 public class ActionSelector<T extends BuildAction<?>> implements Function<Run<?, ?>, Optional<T>> {
     private final Class<T> actionType;
     private final Predicate<? super T> predicate;
@@ -46,17 +50,67 @@ public class ActionSelector<T extends BuildAction<?>> implements Function<Run<?,
 
     @Override
     public Optional<T> apply(final Run<?, ?> baseline) {
-        for (Run<?, ?> run = baseline; run != null; run = run.getPreviousBuild()) {
-            Optional<T> action = run.getActions(actionType)
-                    .stream()
-                    .filter(predicate)
-                    .findAny();
-            if (action.isPresent()) {
-                return action;
+        if (baseline == null) {
+            return Optional.empty();
+        }
+
+        var metrics = TrendMetrics.getInstance().current(actionType);
+        long start = metrics.start();
+        try {
+            var index = TrendIndex.forJob(baseline.getParent());
+            for (Run<?, ?> run = baseline; run != null; run = getPreviousCandidate(run, index)) {
+                metrics.increment(TrendMetrics.Counter.RUNS_VISITED);
+                Optional<T> action = selectAction(run, index);
+                if (action.isPresent()) {
+                    return action;
+                }
             }
+
+            return Optional.empty();
+        }
+        finally {
+            metrics.stop(TrendMetrics.Timing.HISTORY_WALK, start);
         }
+    }
 
-        return Optional.empty();
+    private Optional<T> selectAction(final Run<?, ?> run, final Optional<TrendIndex> index) {
+        index.filter(trendIndex -> !trendIndex.contains(run.getNumber()))
+                .ifPresent(trendIndex -> trendIndex.record(run));
+
+        return SharedBuildHistory.getActions(run, actionType)
+                .stream()
+                .filter(predicate)
+                .findAny();
+    }
+
+    /**
+     * Returns the previous build that might contain the action. If the specified build is part of the {@link
+     * TrendIndex} then all previous builds that do not contain an action of the selected type will be skipped without
+     * loading them from disk. Otherwise, the previous build will be returned.
+     *
+     * @param run
+     *         the build to start from
+     * @param index
+     *         the optional index of the job
+     *
+     * @return the previous build, or {@code null} if there is no such build
+     */
+    @CheckForNull
+    private Run<?, ?> getPreviousCandidate(final Run<?, ?> run, final Optional<TrendIndex> index) {
+        if (index.isPresent()) {
+            int previous = index.get().findPreviousCandidate(run.getNumber(), actionType);
+            if (previous == TrendIndex.NO_BUILD) {
+                return null;
+            }
+            if (previous != TrendIndex.UNKNOWN) {
+                Run<?, ?> candidate = run.getParent().getBuildByNumber(previous);
+                if (candidate != null) {
+                    return candidate;
+                }
+                index.get().remove(previous); // the index is outdated
+            }
+        }
+        return run.getPreviousBuild();
     }
 
     /**
@@ -70,4 +124,17 @@ public class ActionSelector<T extends BuildAction<?>> implements Function<Run<?,
     public final Optional<T> findFirst(final Run<?, ?> baseline) {
         return apply(baseline);
     }
+
+    /**
+     * Searches in the build history for the first action that matches the specified predicate. The search starts with
+     * the build before the specified build.
+     *
+     * @param build
+     *         the build to start the search from (this build will not be inspected)
+     *
+     * @return the action, if found
+     */
+    public final Optional<T> findPrevious(final Run<?, ?> build) {
+        return apply(getPreviousCandidate(build, TrendIndex.forJob(build.getParent())));
+    }
 }
@@ -2,7 +2,12 @@ package io.jenkins.plugins.echarts;
 
 import edu.hm.hafner.echarts.LinesChartModel;
 
+import java.io.IOException;
+
+import org.kohsuke.stapler.StaplerRequest2;
+import org.kohsuke.stapler.StaplerResponse2;
 import org.kohsuke.stapler.bind.JavaScriptMethod;
+import org.kohsuke.stapler.verb.GET;
 
 /**
  * Provides the trend chart for a job. The trend chart model will be rendered by ECharts: the model of the chart will be
@@ -29,6 +34,52 @@ public interface AsyncConfigurableTrendChart {
     // Called by jelly view
     String getConfigurableBuildTrendModel(String configuration);
 
+    /**
+     * Returns an incremental update of the UI model for an ECharts chart that shows the build trend. The returned
+     * model contains only the results of builds that are newer than the specified build, so a client that already
+     * shows the trend up to this build can append the new results to the existing series. This default
+     * implementation returns the complete model, clients need to skip the builds they already know.
+     *
+     * @param configuration
+     *         JSON configuration of the chart (number of builds, etc.). It is up to an individual plugin to correctly
+     *         create this configuration in the trend configuration dialog.
+     * @param lastBuild
+     *         the number of the newest build that is already shown in the client
+     *
+     * @return the UI model as JSON
+     * @see HistoryLimits#newerThan(int)
+     */
+    @JavaScriptMethod
+    @SuppressWarnings("unused")
+    // Called by jelly view
+    default String getConfigurableBuildTrendModelDelta(final String configuration, final int lastBuild) {
+        return getConfigurableBuildTrendModel(configuration);
+    }
+
+    /**
+     * Writes the UI model for an ECharts chart that shows the build trend directly to the HTTP response (URL {@code
+     * configurableTrendModel} relative to the URL of the action). The JSON configuration of the chart is read from
+     * the request parameter {@code configuration}. In contrast to {@link #getConfigurableBuildTrendModel(String)},
+     * implementations can stream large models to the client without creating the JSON representation as a {@link
+     * String} first. The response will be compressed if the client accepts gzip encoding. This default implementation
+     * writes the result of {@link #getConfigurableBuildTrendModel(String)}. If the client already has a copy of this
+     * result (sent in the header {@code If-None-Match}), then the status {@code 304 Not Modified} is returned instead.
+     *
+     * @param request
+     *         the HTTP request
+     * @param response
+     *         the HTTP response
+     *
+     * @throws IOException
+     *         if the response could not be written
+     */
+    @GET
+    default void doConfigurableTrendModel(final StaplerRequest2 request, final StaplerResponse2 response)
+            throws IOException {
+        TrendModelResponse.writeIfModified(request, response, this,
+                getConfigurableBuildTrendModel(TrendModelResponse.getConfiguration(request)));
+    }
+
     /**
      * Returns whether the trend report should be shown.
      *
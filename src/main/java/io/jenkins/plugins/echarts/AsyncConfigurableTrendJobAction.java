@@ -2,10 +2,16 @@ package io.jenkins.plugins.echarts;
 
 import edu.hm.hafner.echarts.ChartModelConfiguration;
 import edu.hm.hafner.echarts.LinesChartModel;
+import edu.hm.hafner.echarts.line.LinesDataSet;
 
-import tools.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.Map;
+import java.util.function.Function;
 
+import org.kohsuke.stapler.StaplerRequest2;
+import org.kohsuke.stapler.StaplerResponse2;
 import org.kohsuke.stapler.bind.JavaScriptMethod;
+import org.kohsuke.stapler.verb.GET;
 import hudson.model.Job;
 
 import io.jenkins.plugins.util.BuildAction;
@@ -50,7 +56,77 @@ public abstract class AsyncConfigurableTrendJobAction<T extends BuildAction<?>>
     @JavaScriptMethod
     @Override
     public String getConfigurableBuildTrendModel(final String configuration) {
-        return new ObjectMapper().writeValueAsString(createChartModel(configuration));
+        var parsed = TrendChartConfiguration.parse(configuration);
+        var limits = HistoryLimits.fromConfiguration(parsed);
+
+        return TrendMetrics.callWith(this, () -> TrendModelCache.getInstance().computeIfAbsent(getOwner(), this, parsed,
+                () -> TrendMetrics.toJson(() -> createResponseModel(configuration, parsed, limits))));
+    }
+
+    @JavaScriptMethod
+    @Override
+    public String getConfigurableBuildTrendModelDelta(final String configuration, final int lastBuild) {
+        var limits = HistoryLimits.fromJson(configuration).newerThan(lastBuild);
+
+        return TrendMetrics.callWith(this,
+                () -> TrendMetrics.toJson(() -> createLimitedChartModel(configuration, limits)));
+    }
+
+    @Override
+    @GET
+    public void doConfigurableTrendModel(final StaplerRequest2 request, final StaplerResponse2 response)
+            throws IOException {
+        var configuration = TrendModelResponse.getConfiguration(request);
+        var parsed = TrendChartConfiguration.parse(configuration);
+        if (TrendModelResponse.isNotModified(request, response,
+                TrendModelCache.getInstance().getEntityTag(getOwner(), this, parsed))) {
+            return;
+        }
+        var limits = HistoryLimits.fromConfiguration(parsed);
+        var cached = TrendModelCache.getInstance().getIfPresent(getOwner(), this, parsed);
+
+        TrendModelResponse.write(request, response, this, cached,
+                () -> createResponseModel(configuration, parsed, limits));
+    }
+
+    private Object createResponseModel(final String configuration, final TrendChartConfiguration parsed,
+            final HistoryLimits limits) {
+        return TrendColumnarEncoding.encode(
+                TrendDownsampler.downsample(createLimitedChartModel(configuration, limits), parsed), parsed);
+    }
+
+    private LinesChartModel createLimitedChartModel(final String configuration, final HistoryLimits limits) {
+        return HistoryLimits.callWith(limits, () -> createChartModel(configuration));
+    }
+
+    /**
+     * Creates the data set of a trend chart that shows the aggregated results per day. The data set is created from
+     * the persisted {@link TrendRollups} of the job, so only the builds that are newer than the last recorded build
+     * need to be visited. Plugins can use this method in {@link #createChartModel(String)} if the configuration
+     * uses dates on the domain axis. The values of the builds of a day are aggregated as selected by the property
+     * {@code aggregation} of the configuration, see {@link TrendRollups.Aggregation}.
+     *
+     * @param configuration
+     *         JSON configuration of the chart (number of builds, etc.)
+     * @param seriesKey
+     *         a key that identifies the values function, e.g., the name of the chart. Several charts of this action
+     *         that use different values functions need different keys. Since the rollups are persisted, the key
+     *         should also be changed whenever the values function is changed.
+     * @param valuesFunction
+     *         the function that computes the values of the series for a build action
+     *
+     * @return the data set of the chart
+     */
+    protected LinesDataSet createRollupDataSet(final String configuration, final String seriesKey,
+            final Function<T, Map<String, Integer>> valuesFunction) {
+        var rollups = TrendRollups.forJob(getOwner());
+        var id = TrendRollups.createId(getBuildActionClass(), getUrlName(), seriesKey);
+        rollups.update(id, getBuildActionClass(), getLatestAction(), a -> getUrlName().equals(a.getUrlName()),
+                valuesFunction);
+
+        var parsed = TrendChartConfiguration.parse(configuration);
+        return rollups.createDataSet(id, HistoryLimits.fromConfiguration(parsed),
+                TrendRollups.Aggregation.fromConfiguration(parsed));
     }
 
     /**
@@ -2,7 +2,12 @@ package io.jenkins.plugins.echarts;
 
 import edu.hm.hafner.echarts.LinesChartModel;
 
+import java.io.IOException;
+
+import org.kohsuke.stapler.StaplerRequest2;
+import org.kohsuke.stapler.StaplerResponse2;
 import org.kohsuke.stapler.bind.JavaScriptMethod;
+import org.kohsuke.stapler.verb.GET;
 
 /**
  * Provides the trend chart for a job. The trend chart model will be rendered by ECharts: the model of the chart will be
@@ -25,6 +30,27 @@ public interface AsyncTrendChart {
     // Called by jelly view
     String getBuildTrendModel();
 
+    /**
+     * Writes the UI model for an ECharts chart that shows the build trend directly to the HTTP response (URL {@code
+     * trendModel} relative to the URL of the action). In contrast to {@link #getBuildTrendModel()}, implementations
+     * can stream large models to the client without creating the JSON representation as a {@link String} first. The
+     * response will be compressed if the client accepts gzip encoding. This default implementation writes the result
+     * of {@link #getBuildTrendModel()}. If the client already has a copy of this result (sent in the header {@code
+     * If-None-Match}), then the status {@code 304 Not Modified} is returned instead.
+     *
+     * @param request
+     *         the HTTP request
+     * @param response
+     *         the HTTP response
+     *
+     * @throws IOException
+     *         if the response could not be written
+     */
+    @GET
+    default void doTrendModel(final StaplerRequest2 request, final StaplerResponse2 response) throws IOException {
+        TrendModelResponse.writeIfModified(request, response, this, getBuildTrendModel());
+    }
+
     /**
      * Returns whether the trend report should be shown.
      *
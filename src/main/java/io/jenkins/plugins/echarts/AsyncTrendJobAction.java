@@ -2,15 +2,14 @@ package io.jenkins.plugins.echarts;
 
 import edu.hm.hafner.echarts.BuildResult;
 import edu.hm.hafner.echarts.LinesChartModel;
-import edu.umd.cs.findbugs.annotations.CheckForNull;
 
+import java.io.IOException;
 import java.util.Iterator;
-import tools.jackson.core.JacksonException;
-import tools.jackson.databind.JsonNode;
-import tools.jackson.databind.ObjectMapper;
-import tools.jackson.databind.node.ObjectNode;
 
+import org.kohsuke.stapler.StaplerRequest2;
+import org.kohsuke.stapler.StaplerResponse2;
 import org.kohsuke.stapler.bind.JavaScriptMethod;
+import org.kohsuke.stapler.verb.GET;
 import hudson.model.Job;
 
 import io.jenkins.plugins.util.BuildAction;
@@ -28,8 +27,6 @@ import io.jenkins.plugins.util.JobAction;
  * @author Ullrich Hafner
  */
 public abstract class AsyncTrendJobAction<T extends BuildAction<?>> extends JobAction<T> implements AsyncTrendChart {
-    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
-
     /**
      * Creates a new instance of {@link AsyncTrendJobAction}.
      *
@@ -46,29 +43,47 @@ public abstract class AsyncTrendJobAction<T extends BuildAction<?>> extends JobA
     @JavaScriptMethod
     @SuppressWarnings("unused") // Called by jelly view
     public String getBuildTrendModel() {
-        return OBJECT_MAPPER.writeValueAsString(createChartModel());
+        return TrendMetrics.callWith(this, () -> TrendModelCache.getInstance().computeIfAbsent(getOwner(), this,
+                TrendModelCache.EMPTY_CONFIGURATION, () -> TrendMetrics.toJson(this::createChartModel)));
+    }
+
+    @Override
+    @GET
+    public void doTrendModel(final StaplerRequest2 request, final StaplerResponse2 response) throws IOException {
+        var parsed = TrendChartConfiguration.parse(TrendModelCache.EMPTY_CONFIGURATION);
+        if (TrendModelResponse.isNotModified(request, response,
+                TrendModelCache.getInstance().getEntityTag(getOwner(), this, parsed))) {
+            return;
+        }
+        var cached = TrendModelCache.getInstance().getIfPresent(getOwner(), this, parsed);
+
+        TrendModelResponse.write(request, response, this, cached, this::createChartModel);
     }
 
     /**
      * This default implementation checks whether there are at least two build results available. Override if this
-     * behavior does not make sense in your job action.
+     * behavior does not make sense in your job action. The result is memorized per job in the {@link
+     * TrendVisibilityCache}, so the build history needs to be inspected only if the visibility is not known yet.
      *
      * @return {@code true} if there are at least two results, {@code false} otherwise
      */
     @Override
     @SuppressWarnings("unused") // Called by jelly view
     public boolean isTrendVisible() {
-        return hasAtLeastTwoResults();
+        return TrendVisibilityCache.getInstance().isVisible(getOwner(), this,
+                () -> TrendMetrics.time(this, TrendMetrics.Timing.VISIBILITY, this::hasAtLeastTwoResults));
     }
 
     private boolean hasAtLeastTwoResults() {
-        Iterable<? extends BuildResult<T>> results = createBuildHistory();
-        Iterator<? extends BuildResult<T>> iterator = results.iterator();
+        return HistoryLimits.callWith(HistoryLimits.ofBuilds(2), () -> {
+            Iterable<? extends BuildResult<T>> results = createBuildHistory();
+            Iterator<? extends BuildResult<T>> iterator = results.iterator();
 
-        if (iterator.hasNext()) {
-            iterator.next();
-        }
-        return iterator.hasNext();
+            if (iterator.hasNext()) {
+                iterator.next();
+            }
+            return iterator.hasNext();
+        });
     }
 
     /**
@@ -80,12 +95,39 @@ public abstract class AsyncTrendJobAction<T extends BuildAction<?>> extends JobA
      */
     protected abstract LinesChartModel createChartModel();
 
+    /**
+     * Creates a history of build results. This default implementation selects all actions of the build action type
+     * and stops as soon as the {@link HistoryLimits#current() active limits} of the chart configuration have been
+     * reached.
+     *
+     * @return the build history
+     * @see BuildActionIterator for details on how to construct such an iterator
+     */
     protected Iterable<? extends BuildResult<T>> createBuildHistory() {
-        return () -> new BuildActionIterator<>(getBuildActionClass(), getLatestAction());
+        return createBuildHistory(HistoryLimits.current());
+    }
+
+    /**
+     * Creates a history of build results that stops as soon as one of the specified limits has been reached. If a
+     * {@link BuildHistoryTraversal} is active, then the history will be registered with this traversal, so that the
+     * builds are visited only once for several trend charts.
+     *
+     * @param limits
+     *         the limits of the build history
+     *
+     * @return the build history
+     */
+    protected Iterable<? extends BuildResult<T>> createBuildHistory(final HistoryLimits limits) {
+        var traversal = BuildHistoryTraversal.current();
+        if (traversal.isPresent()) {
+            return traversal.get().register(this, getBuildActionClass(), getLatestAction(), a -> true, a -> a, limits);
+        }
+        return () -> new BuildActionIterator<>(getBuildActionClass(), getLatestAction(), a -> true, limits);
     }
 
     /**
-     * Returns the text value of the specified JSON property.
+     * Returns the text value of the specified JSON property. The JSON configuration is parsed only once, subsequent
+     * calls with the same configuration use the cached {@link TrendChartConfiguration}.
      *
      * @param json
      *         the JSON object to extract the property value from
@@ -95,23 +137,15 @@ public abstract class AsyncTrendJobAction<T extends BuildAction<?>> extends JobA
      *         the default value if the property is undefined or invalid
      *
      * @return the value of the property
+     * @see TrendChartConfiguration#getString(String, String)
      */
     protected String getStringFromJson(final String json, final String property, final String defaultValue) {
-        try {
-            var typeNode = getPropertyAsNode(json, property);
-            if (typeNode != null) {
-                return typeNode.asString(defaultValue);
-            }
-        }
-        catch (JacksonException exception) {
-            // ignore
-        }
-
-        return defaultValue;
+        return TrendChartConfiguration.parse(json).getString(property, defaultValue);
     }
 
     /**
-     * Returns the text value of the specified JSON property.
+     * Returns the integer value of the specified JSON property. The JSON configuration is parsed only once, subsequent
+     * calls with the same configuration use the cached {@link TrendChartConfiguration}.
      *
      * @param json
      *         the JSON object to extract the property value from
@@ -121,25 +155,9 @@ public abstract class AsyncTrendJobAction<T extends BuildAction<?>> extends JobA
      *         the default value if the property is undefined or invalid
      *
      * @return the value of the property
+     * @see TrendChartConfiguration#getInteger(String, int)
      */
     protected int getIntegerFromJson(final String json, final String property, final int defaultValue) {
-        try {
-            var typeNode = getPropertyAsNode(json, property);
-            if (typeNode != null) {
-                return typeNode.asInt(defaultValue);
-            }
-        }
-        catch (JacksonException exception) {
-            // ignore
-        }
-
-        return defaultValue;
-    }
-
-    @CheckForNull
-    private JsonNode getPropertyAsNode(final String json, final String property)
-            throws JacksonException {
-        var node = OBJECT_MAPPER.readValue(json, ObjectNode.class);
-        return node.get(property);
+        return TrendChartConfiguration.parse(json).getInteger(property, defaultValue);
     }
 }
@@ -3,7 +3,6 @@ package io.jenkins.plugins.echarts;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.Optional;
-import java.util.function.Function;
 import java.util.function.Predicate;
 
 import edu.hm.hafner.echarts.Build;
@@ -17,7 +16,7 @@ import io.jenkins.plugins.util.BuildAction;
  * Iterates over a collection of builds that contain results of a given generic type. These results are available via a
  * given subtype of {@link BuildAction} that has to be attached to each build of the selected job. A new iterator
  * starts from a baseline build where it selects the attached action of the given type. Then it moves back in the build
- * history until no more builds are available.
+ * history until no more builds are available or until one of the specified {@link HistoryLimits} has been reached.
  *
  * @param <T>
  *         type of the action that stores the result
@@ -27,7 +26,7 @@ import io.jenkins.plugins.util.BuildAction;
 @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
 public class BuildActionIterator<T extends BuildAction<?>> implements Iterator<BuildResult<T>> {
     private Optional<T> latestAction;
-    private final Function<Run<?, ?>, Optional<T>> actionSelector;
+    private final HistoryNavigator<T> navigator;
 
     /**
      * Creates a new iterator that selects the action of the given type {@code actionType}.
@@ -54,8 +53,26 @@ public class BuildActionIterator<T extends BuildAction<?>> implements Iterator<B
      */
     public BuildActionIterator(final Class<T> actionType, final Optional<T> baseline,
             final Predicate<? super T> filter) {
-        latestAction = baseline;
-        actionSelector = new ActionSelector<>(actionType, filter);
+        this(actionType, baseline, filter, HistoryLimits.unlimited());
+    }
+
+    /**
+     * Creates a new iterator that selects actions of the given type {@code actionType} and filters them using the
+     * specified {@link Predicate}. The iterator stops as soon as one of the specified limits has been reached.
+     *
+     * @param actionType
+     *         the type of the actions to select
+     * @param baseline
+     *         the baseline to start from
+     * @param filter
+     *         a predicate to filter the build actions of a build so that the selected action is unique
+     * @param limits
+     *         the limits of the build history
+     */
+    public BuildActionIterator(final Class<T> actionType, final Optional<T> baseline,
+            final Predicate<? super T> filter, final HistoryLimits limits) {
+        navigator = new HistoryNavigator<>(new ActionSelector<>(actionType, filter), limits);
+        latestAction = navigator.start(baseline);
     }
 
     @Override
@@ -72,7 +89,7 @@ public class BuildActionIterator<T extends BuildAction<?>> implements Iterator<B
 
         T buildAction = latestAction.get();
         Run<?, ?> run = buildAction.getOwner();
-        latestAction = actionSelector.apply(run.getPreviousBuild());
+        latestAction = navigator.next(buildAction);
 
         int buildTimeInSeconds = (int) (run.getTimeInMillis() / 1000);
         Build build = new Build(run.getNumber(), run.getDisplayName(), buildTimeInSeconds);
@@ -0,0 +1,357 @@
+package io.jenkins.plugins.echarts;
+
+import edu.hm.hafner.echarts.Build;
+import edu.hm.hafner.echarts.BuildResult;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import hudson.model.Run;
+
+import io.jenkins.plugins.util.BuildAction;
+
+/**
+ * Walks the build history of a job once and hands the matching results to several registered consumers. Each
+ * consumer is defined like a {@link GenericBuildActionIterator.BuildActionIterable}: by the type of the action, the
+ * latest action that is the starting point of the history, a predicate that selects the action, and a function that
+ * extracts the result from the action. So the trend charts of N actions that use the same action type cost one pass
+ * over the builds instead of N passes.
+ *
+ * <p>
+ * Consumers are registered using {@link #register(Class, Optional, Predicate, Function, HistoryLimits)}. The
+ * returned iterables are lazy: the results are created while the consumer is iterated, and the walk through the
+ * history is extended only if a consumer needs an older build than all consumers before. The builds that have been
+ * visited are shared by all consumers that use the same action type and the same starting point, so subsequent
+ * consumers just replay the walk. Each consumer stops as soon as one of its {@link HistoryLimits} has been reached or
+ * if the iteration is stopped by the caller (e.g., the {@code SeriesBuilder}).
+ * </p>
+ *
+ * <p>
+ * Since the visited builds are referenced until the traversal ends, only consumers with {@link
+ * HistoryLimits#isBounded() bounded} limits take part in the shared walk. All other consumers get the history of a
+ * {@link GenericBuildActionIterator} that walks the builds on its own.
+ * </p>
+ *
+ * <p>
+ * While a traversal is active for the current thread (see {@link #callWith(BuildHistoryTraversal, Supplier)}), the
+ * default implementations of {@code createBuildHistory} in {@link AsyncTrendJobAction} and {@link
+ * TrendChartJobAction} register their history with the active traversal. So only the charts whose models are actually
+ * computed take part in the walk.
+ * </p>
+ */
+@SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+public final class BuildHistoryTraversal {
+    private static final ThreadLocal<BuildHistoryTraversal> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Returns the traversal that is active for the current thread.
+     *
+     * @return the active traversal, or an empty result if no traversal is active
+     */
+    public static Optional<BuildHistoryTraversal> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    /**
+     * Activates the specified traversal for the current thread while the given supplier is invoked.
+     *
+     * @param traversal
+     *         the traversal to activate
+     * @param supplier
+     *         the supplier to invoke
+     * @param <V>
+     *         the type of the result
+     *
+     * @return the result of the supplier
+     */
+    static <V> V callWith(final BuildHistoryTraversal traversal, final Supplier<V> supplier) {
+        var previous = CURRENT.get();
+        CURRENT.set(traversal);
+        try {
+            return supplier.get();
+        }
+        finally {
+            if (previous == null) {
+                CURRENT.remove();
+            }
+            else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    private final Map<WalkKey, Walk> walks = new HashMap<>();
+    private final Map<Object, Map<HistoryLimits, Iterable<?>>> registrations = new IdentityHashMap<>();
+
+    /**
+     * Registers a new consumer of the build history.
+     *
+     * @param actionType
+     *         the type of the action to select
+     * @param latestAction
+     *         the latest action that will be used as starting point for the sequence of results
+     * @param predicate
+     *         the predicate that selects the action (if there are multiple actions of the same type)
+     * @param function
+     *         the function that extracts the specific results from the action
+     * @param limits
+     *         the limits of the build history of this consumer
+     * @param <A>
+     *         the type of the action
+     * @param <R>
+     *         the type of the result
+     *
+     * @return the results of the consumer, starting with the latest action
+     */
+    public <A extends BuildAction<?>, R> Iterable<BuildResult<R>> register(final Class<A> actionType,
+            final Optional<A> latestAction, final Predicate<? super A> predicate, final Function<A, R> function,
+            final HistoryLimits limits) {
+        if (!limits.isBounded()) {
+            return () -> new GenericBuildActionIterator<A, R>(actionType, latestAction, predicate::test, function,
+                    limits);
+        }
+        return new HistoryConsumer<>(actionType, latestAction, predicate, function, limits);
+    }
+
+    /**
+     * Registers a new consumer of the build history for the specified owner. If the owner already has registered a
+     * consumer with the same limits, then the results of this consumer will be returned.
+     *
+     * @param owner
+     *         the owner of the consumer (typically a trend action)
+     * @param actionType
+     *         the type of the action to select
+     * @param latestAction
+     *         the latest action that will be used as starting point for the sequence of results
+     * @param predicate
+     *         the predicate that selects the action (if there are multiple actions of the same type)
+     * @param function
+     *         the function that extracts the specific results from the action
+     * @param limits
+     *         the limits of the build history of this consumer
+     * @param <A>
+     *         the type of the action
+     * @param <R>
+     *         the type of the result
+     *
+     * @return the results of the consumer, starting with the latest action
+     */
+    @SuppressWarnings("unchecked")
+    <A extends BuildAction<?>, R> Iterable<BuildResult<R>> register(final Object owner, final Class<A> actionType,
+            final Optional<A> latestAction, final Predicate<? super A> predicate, final Function<A, R> function,
+            final HistoryLimits limits) {
+        return (Iterable<BuildResult<R>>) registrations.computeIfAbsent(owner, key -> new HashMap<>())
+                .computeIfAbsent(limits, key -> register(actionType, latestAction, predicate, function, limits));
+    }
+
+    private Walk getWalk(final Class<?> actionType, final Run<?, ?> start) {
+        return walks.computeIfAbsent(new WalkKey(actionType, start.getNumber()), key -> new Walk(actionType, start));
+    }
+
+    private record WalkKey(Class<?> actionType, int start) {
+    }
+
+    /**
+     * The builds that might contain an action of a given type, starting with a given build. The walk is extended on
+     * demand: a build is visited only once, even if several consumers need it.
+     */
+    private static final class Walk {
+        private final Class<?> actionType;
+        private final List<Run<?, ?>> runs = new ArrayList<>();
+        private final Optional<TrendIndex> index;
+        private boolean exhausted;
+
+        Walk(final Class<?> actionType, final Run<?, ?> start) {
+            this.actionType = actionType;
+            runs.add(start);
+            index = TrendIndex.forJob(start.getParent());
+        }
+
+        /**
+         * Returns the build at the specified position of the walk.
+         *
+         * @param position
+         *         the position of the build, 0 is the starting point
+         *
+         * @return the build at the position, or {@code null} if the history contains no more builds
+         */
+        @CheckForNull
+        Run<?, ?> get(final int position) {
+            while (position >= runs.size() && !exhausted) {
+                var previous = getPreviousCandidate(runs.get(runs.size() - 1));
+                if (previous == null) {
+                    exhausted = true;
+                }
+                else {
+                    runs.add(previous);
+                }
+            }
+            return position < runs.size() ? runs.get(position) : null;
+        }
+
+        /**
+         * Returns the previous build that might contain an action of the type of this walk. If the {@link TrendIndex}
+         * is enabled, then all builds that contain no such action will be skipped without loading them.
+         *
+         * @param run
+         *         the build to start from
+         *
+         * @return the previous build, or {@code null} if there is no such build
+         */
+        @CheckForNull
+        private Run<?, ?> getPreviousCandidate(final Run<?, ?> run) {
+            if (index.isPresent()) {
+                var trendIndex = index.get();
+                if (!trendIndex.contains(run.getNumber())) {
+                    trendIndex.record(run);
+                }
+                int previous = trendIndex.findPreviousCandidate(run.getNumber(), actionType);
+                if (previous == TrendIndex.NO_BUILD) {
+                    return null;
+                }
+                if (previous != TrendIndex.UNKNOWN) {
+                    Run<?, ?> build = run.getParent().getBuildByNumber(previous);
+                    if (build != null) {
+                        return build;
+                    }
+                    trendIndex.remove(previous); // the index is outdated
+                }
+            }
+            return run.getPreviousBuild();
+        }
+    }
+
+    /**
+     * A consumer of the build history that creates the results of a single trend while it is iterated.
+     *
+     * @param <A>
+     *         the type of the action
+     * @param <R>
+     *         the type of the result
+     */
+    private final class HistoryConsumer<A extends BuildAction<?>, R> implements Iterable<BuildResult<R>> {
+        private final Class<A> actionType;
+        private final Optional<A> latestAction;
+        private final Predicate<? super A> predicate;
+        private final Function<A, R> function;
+        private final HistoryLimits limits;
+        private final TrendMetrics.ActionMetrics metrics;
+
+        HistoryConsumer(final Class<A> actionType, final Optional<A> latestAction,
+                final Predicate<? super A> predicate, final Function<A, R> function, final HistoryLimits limits) {
+            this.actionType = actionType;
+            this.latestAction = latestAction;
+            this.predicate = predicate;
+            this.function = function;
+            this.limits = limits;
+            metrics = TrendMetrics.getInstance().current(actionType);
+        }
+
+        @Override
+        public Iterator<BuildResult<R>> iterator() {
+            if (latestAction.isEmpty() || limits.isKnown(latestAction.get().getOwner())) {
+                return Collections.emptyIterator();
+            }
+            return new ResultIterator(getWalk(actionType, latestAction.get().getOwner()));
+        }
+
+        private Optional<A> selectAction(final Run<?, ?> run) {
+            if (run.getNumber() == latestAction.orElseThrow().getOwner().getNumber()) {
+                return latestAction;
+            }
+            return SharedBuildHistory.getActions(run, actionType)
+                    .stream()
+                    .filter(predicate)
+                    .findAny();
+        }
+
+        private BuildResult<R> createResult(final Run<?, ?> run, final A action) {
+            int buildTimeInSeconds = (int) (run.getTimeInMillis() / 1000);
+            Build build = new Build(run.getNumber(), run.getDisplayName(), buildTimeInSeconds);
+
+            return new BuildResult<>(build, function.apply(action));
+        }
+
+        /**
+         * Creates the results of the consumer on demand, while the shared walk is extended if required.
+         */
+        private final class ResultIterator implements Iterator<BuildResult<R>> {
+            private final Walk walk;
+            private int position;
+            @CheckForNull
+            private Run<?, ?> first;
+            private int matches;
+            private int count;
+            private boolean done;
+            @CheckForNull
+            private BuildResult<R> next;
+
+            ResultIterator(final Walk walk) {
+                this.walk = walk;
+            }
+
+            @Override
+            public boolean hasNext() {
+                if (next == null && !done) {
+                    next = advance();
+                }
+                return next != null;
+            }
+
+            @Override
+            public BuildResult<R> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("There are no more results in the build history");
+                }
+                var result = next;
+                next = null;
+                return result;
+            }
+
+            @CheckForNull
+            private BuildResult<R> advance() {
+                long start = metrics.start();
+                try {
+                    while (!done) {
+                        var run = walk.get(position++);
+                        if (run == null || limits.isKnown(run)) {
+                            done = true;
+                            return null;
+                        }
+                        metrics.increment(TrendMetrics.Counter.RUNS_VISITED);
+
+                        var action = selectAction(run);
+                        if (action.isPresent()) {
+                            if (first == null) {
+                                first = run;
+                            }
+                            else if (limits.isOutOfRange(first, run)) {
+                                done = true;
+                                return null;
+                            }
+                            if (matches++ % limits.getStep() == 0) {
+                                done = limits.isBuildCountReached(++count);
+                                return createResult(run, action.get());
+                            }
+                        }
+                    }
+                    return null;
+                }
+                finally {
+                    metrics.stop(TrendMetrics.Timing.HISTORY_WALK, start);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package io.jenkins.plugins.echarts;
+
+import java.io.OutputStream;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectWriter;
+
+/**
+ * Converts the models of the charts (e.g., {@code LinesChartModel}, {@code PieChartModel}, or {@code LinesDataSet})
+ * to JSON. All trend actions share the same thread-safe {@link ObjectWriter} instance, so the serializers of the model
+ * classes need to be created only once.
+ */
+public final class ChartModelWriter {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final ObjectWriter OBJECT_WRITER = OBJECT_MAPPER.writer();
+
+    /**
+     * Returns the shared {@link ObjectMapper} that should be used to parse JSON configurations.
+     *
+     * @return the shared object mapper
+     */
+    static ObjectMapper getObjectMapper() {
+        return OBJECT_MAPPER;
+    }
+
+    /**
+     * Converts the specified model to a JSON string.
+     *
+     * @param model
+     *         the model to convert
+     *
+     * @return the JSON representation of the model
+     * @throws JacksonException
+     *         if the model cannot be serialized
+     */
+    public static String toJson(final Object model) {
+        return OBJECT_WRITER.writeValueAsString(model);
+    }
+
+    /**
+     * Writes the JSON representation of the specified model to the given output stream. The stream will not be
+     * buffered in memory.
+     *
+     * @param output
+     *         the stream to write the JSON representation to
+     * @param model
+     *         the model to convert
+     *
+     * @throws JacksonException
+     *         if the model cannot be serialized
+     */
+    public static void write(final OutputStream output, final Object model) {
+        OBJECT_WRITER.writeValue(output, model);
+    }
+
+    private ChartModelWriter() {
+        // prevents instantiation
+    }
+}
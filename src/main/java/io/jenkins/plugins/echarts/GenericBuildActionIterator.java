@@ -18,7 +18,7 @@ import io.jenkins.plugins.util.BuildAction;
  * Iterates over a collection of builds that contain results of a given generic type. These results are available via a
  * given subtype of {@link BuildAction} that has to be attached to each build of the selected job. A new iterator starts
  * from a baseline build where it selects the attached action of the given type. Then it moves back in the build history
- * until no more builds are available.
+ * until no more builds are available or until one of the specified {@link HistoryLimits} has been reached.
  *
  * @param <A>
  *         the type of the action
@@ -29,15 +29,20 @@ import io.jenkins.plugins.util.BuildAction;
  */
 @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
 public class GenericBuildActionIterator<A extends BuildAction<?>, R> implements Iterator<BuildResult<R>> {
-    private final ActionSelector<A> actionSelector;
+    private final HistoryNavigator<A> navigator;
     private Optional<A> latestAction;
     private final Function<A, R> function;
 
     GenericBuildActionIterator(final Class<A> actionType, final Optional<A> latestAction,
             final Predicate<A> predicate, final Function<A, R> function) {
-        this.latestAction = latestAction;
+        this(actionType, latestAction, predicate, function, HistoryLimits.unlimited());
+    }
+
+    GenericBuildActionIterator(final Class<A> actionType, final Optional<A> latestAction,
+            final Predicate<A> predicate, final Function<A, R> function, final HistoryLimits limits) {
         this.function = function;
-        actionSelector = new ActionSelector<>(actionType, predicate);
+        navigator = new HistoryNavigator<>(new ActionSelector<>(actionType, predicate), limits);
+        this.latestAction = navigator.start(latestAction);
     }
 
     @Override
@@ -54,7 +59,7 @@ public class GenericBuildActionIterator<A extends BuildAction<?>, R> implements
 
         A buildAction = latestAction.get();
         Run<?, ?> run = buildAction.getOwner();
-        latestAction = actionSelector.apply(run.getPreviousBuild());
+        latestAction = navigator.next(buildAction);
 
         int buildTimeInSeconds = (int) (run.getTimeInMillis() / 1000);
         Build build = new Build(run.getNumber(), run.getDisplayName(), buildTimeInSeconds);
@@ -77,6 +82,8 @@ public class GenericBuildActionIterator<A extends BuildAction<?>, R> implements
         private final Optional<A> latestAction;
         private final Predicate<A> filter;
         private final Function<A, R> function;
+        private final HistoryLimits limits;
+        private final boolean parallel;
 
         /**
          * Creates a new instance of {@link BuildActionIterable}.
@@ -109,16 +116,58 @@ public class GenericBuildActionIterator<A extends BuildAction<?>, R> implements
          */
         public BuildActionIterable(final Class<A> actionType, final Optional<A> latestAction,
                 final Predicate<A> filter, final Function<A, R> function) {
+            this(actionType, latestAction, filter, function, HistoryLimits.unlimited());
+        }
+
+        /**
+         * Creates a new instance of {@link BuildActionIterable}.
+         *
+         * @param actionType
+         *         the type of the action to select
+         * @param latestAction
+         *         the latest action that will be used as starting point for the sequence of results
+         * @param filter
+         *         filter that selects the action (if there are multiple actions of the same type)
+         * @param function
+         *         the supplier that extracts the specific results from the action
+         * @param limits
+         *         the limits of the build history
+         */
+        public BuildActionIterable(final Class<A> actionType, final Optional<A> latestAction,
+                final Predicate<A> filter, final Function<A, R> function, final HistoryLimits limits) {
+            this(actionType, latestAction, filter, function, limits, false);
+        }
+
+        private BuildActionIterable(final Class<A> actionType, final Optional<A> latestAction,
+                final Predicate<A> filter, final Function<A, R> function, final HistoryLimits limits,
+                final boolean parallel) {
             this.actionType = actionType;
             this.latestAction = latestAction;
             this.filter = filter;
             this.function = function;
+            this.limits = limits;
+            this.parallel = parallel;
+        }
+
+        /**
+         * Returns an iterable that evaluates the function that extracts the results on a bounded thread pool. The
+         * builds are still visited sequentially and the results are returned in the order of the build history. Use
+         * this mode if the extraction of a result is expensive, e.g., if a result file needs to be read.
+         *
+         * @return an iterable that extracts the results in parallel
+         * @see ParallelBuildActionIterator
+         */
+        public BuildActionIterable<A, R> inParallel() {
+            return new BuildActionIterable<>(actionType, latestAction, filter, function, limits, true);
         }
 
         @NonNull
         @Override
         public Iterator<BuildResult<R>> iterator() {
-            return new GenericBuildActionIterator<>(actionType, latestAction, filter, function);
+            if (parallel) {
+                return new ParallelBuildActionIterator<>(actionType, latestAction, filter, function, limits);
+            }
+            return new GenericBuildActionIterator<>(actionType, latestAction, filter, function, limits);
         }
     }
 }
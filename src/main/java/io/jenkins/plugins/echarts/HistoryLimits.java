@@ -0,0 +1,307 @@
+package io.jenkins.plugins.echarts;
+
+import edu.hm.hafner.echarts.ChartModelConfiguration;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import hudson.model.Run;
+
+/**
+ * Limits the number of builds that will be visited by a {@link BuildActionIterator} or {@link
+ * GenericBuildActionIterator}. The limits are derived from a {@link ChartModelConfiguration}: an iterator stops
+ * walking the build history as soon as the maximum number of builds has been returned or if the next build is older
+ * than the maximum number of days. Additionally, an iterator can be configured to return only every n-th build or to
+ * stop at a build that is already known by the client (incremental updates).
+ */
+public final class HistoryLimits {
+    private static final HistoryLimits UNLIMITED = new HistoryLimits(0, 0, 1, 0);
+    private static final ThreadLocal<HistoryLimits> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Returns limits that do not restrict the build history at all.
+     *
+     * @return unlimited history
+     */
+    public static HistoryLimits unlimited() {
+        return UNLIMITED;
+    }
+
+    /**
+     * Returns limits that restrict the build history to the specified number of builds.
+     *
+     * @param maximumBuilds
+     *         the maximum number of builds to return
+     *
+     * @return the limits
+     */
+    public static HistoryLimits ofBuilds(final int maximumBuilds) {
+        return new HistoryLimits(maximumBuilds, 0, 1, 0);
+    }
+
+    /**
+     * Returns limits that use the build count and number of days of the specified configuration.
+     *
+     * @param configuration
+     *         the configuration of the chart
+     *
+     * @return the limits
+     */
+    public static HistoryLimits fromConfiguration(final ChartModelConfiguration configuration) {
+        return new HistoryLimits(
+                configuration.isBuildCountDefined() ? configuration.getBuildCount() : 0,
+                configuration.isDayCountDefined() ? configuration.getNumberOfDays() : 0, 1, 0);
+    }
+
+    /**
+     * Returns limits that use the build count and number of days of the specified JSON configuration. Only properties
+     * that are explicitly set in the configuration will be used as limits, since plugins might use different default
+     * values.
+     *
+     * @param configuration
+     *         JSON configuration of the chart
+     *
+     * @return the limits
+     */
+    public static HistoryLimits fromJson(@CheckForNull final String configuration) {
+        return fromConfiguration(TrendChartConfiguration.parse(configuration));
+    }
+
+    /**
+     * Returns limits that use the build count and number of days of the specified parsed configuration. Only
+     * properties that are explicitly set in the configuration will be used as limits, since plugins might use
+     * different default values.
+     *
+     * @param configuration
+     *         the parsed configuration of the chart
+     *
+     * @return the limits
+     */
+    public static HistoryLimits fromConfiguration(final TrendChartConfiguration configuration) {
+        return createLimits(getLimit(configuration, "numberOfBuilds", 1), getLimit(configuration, "numberOfDays", 0));
+    }
+
+    private static int getLimit(final TrendChartConfiguration configuration, final String property,
+            final int unlimitedBoundary) {
+        int limit = configuration.getInteger(property, 0);
+        return limit > unlimitedBoundary ? limit : 0;
+    }
+
+    static HistoryLimits createLimits(final int maximumBuilds, final int maximumDays) {
+        if (maximumBuilds == 0 && maximumDays == 0) {
+            return UNLIMITED;
+        }
+        return new HistoryLimits(maximumBuilds, maximumDays, 1, 0);
+    }
+
+    /**
+     * Returns the limits that are active for the current thread. These limits will be used by the default
+     * implementations of {@code createBuildHistory()} in {@link AsyncTrendJobAction} and {@link TrendChartJobAction}.
+     *
+     * @return the active limits, or {@link #unlimited()} if no limits are active
+     */
+    public static HistoryLimits current() {
+        var limits = CURRENT.get();
+        return limits == null ? UNLIMITED : limits;
+    }
+
+    /**
+     * Activates the specified limits for the current thread while the given supplier is invoked.
+     *
+     * @param limits
+     *         the limits to activate
+     * @param supplier
+     *         the supplier to invoke
+     * @param <V>
+     *         the type of the result
+     *
+     * @return the result of the supplier
+     */
+    static <V> V callWith(final HistoryLimits limits, final Supplier<V> supplier) {
+        var previous = CURRENT.get();
+        CURRENT.set(limits);
+        try {
+            return supplier.get();
+        }
+        finally {
+            if (previous == null) {
+                CURRENT.remove();
+            }
+            else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    private final int maximumBuilds;
+    private final int maximumDays;
+    private final int step;
+    private final int lastKnownBuild;
+
+    private HistoryLimits(final int maximumBuilds, final int maximumDays, final int step, final int lastKnownBuild) {
+        this.maximumBuilds = Math.max(0, maximumBuilds);
+        this.maximumDays = Math.max(0, maximumDays);
+        this.step = Math.max(1, step);
+        this.lastKnownBuild = Math.max(0, lastKnownBuild);
+    }
+
+    /**
+     * Returns a copy of these limits that selects only every n-th build.
+     *
+     * @param n
+     *         the step width, i.e. the number of builds to advance in each step
+     *
+     * @return the limits
+     */
+    public HistoryLimits everyNthBuild(final int n) {
+        return new HistoryLimits(maximumBuilds, maximumDays, n, lastKnownBuild);
+    }
+
+    /**
+     * Returns a copy of these limits that stops at the specified build. I.e., only builds that are newer than the
+     * specified build will be visited. This is useful to create incremental updates for a client that already has the
+     * results up to the specified build.
+     *
+     * @param buildNumber
+     *         the number of the newest build that is already known, use 0 to visit all builds
+     *
+     * @return the limits
+     */
+    public HistoryLimits newerThan(final int buildNumber) {
+        return new HistoryLimits(maximumBuilds, maximumDays, step, buildNumber);
+    }
+
+    /**
+     * Returns the maximum number of builds to return. A value of 0 indicates that the number of builds is not limited.
+     *
+     * @return the maximum number of builds
+     */
+    public int getMaximumBuilds() {
+        return maximumBuilds;
+    }
+
+    /**
+     * Returns the maximum number of days to look into the past. A value of 0 indicates that the number of days is not
+     * limited.
+     *
+     * @return the maximum number of days
+     */
+    public int getMaximumDays() {
+        return maximumDays;
+    }
+
+    /**
+     * Returns the step width, i.e. the number of builds to advance in each step.
+     *
+     * @return the step width
+     */
+    public int getStep() {
+        return step;
+    }
+
+    /**
+     * Returns the number of the newest build that is already known. Only builds that are newer than this build will be
+     * visited. A value of 0 indicates that all builds will be visited.
+     *
+     * @return the number of the newest known build
+     */
+    public int getLastKnownBuild() {
+        return lastKnownBuild;
+    }
+
+    /**
+     * Returns whether the history should be visited without any limits.
+     *
+     * @return {@code true} if the history is not limited, {@code false} otherwise
+     */
+    public boolean isUnlimited() {
+        return maximumBuilds == 0 && maximumDays == 0 && step == 1 && lastKnownBuild == 0;
+    }
+
+    /**
+     * Returns whether the history ends at some point: i.e., whether the number of builds, the number of days, or the
+     * newest known build is limited. Note that a history that only uses a step width is not bounded.
+     *
+     * @return {@code true} if the history is bounded, {@code false} otherwise
+     */
+    boolean isBounded() {
+        return maximumBuilds > 0 || maximumDays > 0 || lastKnownBuild > 0;
+    }
+
+    /**
+     * Returns whether the specified build is already known, i.e. whether this build and all older builds should not
+     * be visited anymore.
+     *
+     * @param run
+     *         the build to check
+     *
+     * @return {@code true} if the build is already known, {@code false} otherwise
+     */
+    boolean isKnown(final Run<?, ?> run) {
+        return lastKnownBuild > 0 && run.getNumber() <= lastKnownBuild;
+    }
+
+    /**
+     * Returns whether the maximum number of builds has been reached.
+     *
+     * @param count
+     *         the number of builds that have been returned so far
+     *
+     * @return {@code true} if no more builds should be returned, {@code false} otherwise
+     */
+    boolean isBuildCountReached(final int count) {
+        return maximumBuilds > 0 && count >= maximumBuilds;
+    }
+
+    /**
+     * Returns whether the specified build is older than the maximum number of days (measured from the first build of
+     * the history).
+     *
+     * @param first
+     *         the first (i.e. newest) build of the history
+     * @param current
+     *         the build to check
+     *
+     * @return {@code true} if the build is out of range and no more builds should be returned, {@code false}
+     *         otherwise
+     */
+    boolean isOutOfRange(final Run<?, ?> first, final Run<?, ?> current) {
+        if (maximumDays == 0) {
+            return false;
+        }
+        return ChronoUnit.DAYS.between(toDate(current), toDate(first)) > maximumDays;
+    }
+
+    private LocalDate toDate(final Run<?, ?> run) {
+        return LocalDate.ofInstant(Instant.ofEpochMilli(run.getTimeInMillis()), ZoneId.systemDefault());
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        var that = (HistoryLimits) o;
+        return maximumBuilds == that.maximumBuilds && maximumDays == that.maximumDays && step == that.step
+                && lastKnownBuild == that.lastKnownBuild;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(maximumBuilds, maximumDays, step, lastKnownBuild);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("HistoryLimits{builds=%d, days=%d, step=%d, newerThan=%d}",
+                maximumBuilds, maximumDays, step, lastKnownBuild);
+    }
+}
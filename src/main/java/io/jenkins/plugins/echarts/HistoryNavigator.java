@@ -0,0 +1,75 @@
+package io.jenkins.plugins.echarts;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import java.util.Optional;
+
+import hudson.model.Run;
+
+import io.jenkins.plugins.util.BuildAction;
+
+/**
+ * Navigates from an action to the matching action of a previous build while respecting the given {@link
+ * HistoryLimits}. As soon as a limit has been reached, no more builds will be loaded.
+ *
+ * @param <A>
+ *         the type of the action
+ */
+@SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+class HistoryNavigator<A extends BuildAction<?>> {
+    private final ActionSelector<A> actionSelector;
+    private final HistoryLimits limits;
+
+    @CheckForNull
+    private Run<?, ?> first;
+    private int count;
+
+    HistoryNavigator(final ActionSelector<A> actionSelector, final HistoryLimits limits) {
+        this.actionSelector = actionSelector;
+        this.limits = limits;
+    }
+
+    /**
+     * Returns the action of the previous build that should be visited after the build of the specified action.
+     *
+     * @param current
+     *         the action that has been returned most recently
+     *
+     * @return the next action, or an empty result if there are no more builds or a limit has been reached
+     */
+    Optional<A> next(final A current) {
+        Run<?, ?> run = current.getOwner();
+        if (first == null) {
+            first = run;
+        }
+        count++;
+        if (limits.isBuildCountReached(count)) {
+            return Optional.empty();
+        }
+
+        Optional<A> next = actionSelector.findPrevious(run);
+        for (int skipped = 1; skipped < limits.getStep() && next.isPresent(); skipped++) {
+            next = actionSelector.findPrevious(next.get().getOwner());
+        }
+        if (next.isPresent() && isOutOfLimits(next.get().getOwner())) {
+            return Optional.empty();
+        }
+        return next;
+    }
+
+    private boolean isOutOfLimits(final Run<?, ?> run) {
+        return limits.isKnown(run) || limits.isOutOfRange(first, run);
+    }
+
+    /**
+     * Returns the specified latest action if its build is within the limits, i.e. if it is not already known.
+     *
+     * @param latestAction
+     *         the latest action that is the starting point of the history
+     *
+     * @return the latest action, or an empty result if the build of the action is already known
+     */
+    Optional<A> start(final Optional<A> latestAction) {
+        return latestAction.filter(action -> !limits.isKnown(action.getOwner()));
+    }
+}
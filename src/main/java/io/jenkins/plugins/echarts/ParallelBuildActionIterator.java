@@ -0,0 +1,222 @@
+package io.jenkins.plugins.echarts;
+
+import edu.hm.hafner.echarts.Build;
+import edu.hm.hafner.echarts.BuildResult;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.springframework.security.core.context.SecurityContextHolder;
+import hudson.model.Run;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import jenkins.util.SystemProperties;
+
+import io.jenkins.plugins.util.BuildAction;
+
+/**
+ * Iterates over a collection of builds like {@link GenericBuildActionIterator}, but evaluates the function that
+ * extracts the results from the actions on a bounded thread pool. The walk through the build history is still
+ * performed in the calling thread (so the active {@link HistoryLimits} and {@link SharedBuildHistory} scopes are
+ * respected), only the extraction of the results is executed in parallel. The results are returned in the order of the
+ * build history.
+ *
+ * <p>
+ * The iterator submits only a small number of extractions ahead of the consumer, so an iterator that is not consumed
+ * completely does not waste much work. If the calling thread is interrupted or an extraction fails, then all pending
+ * extractions are cancelled. Consumers that stop the iteration early should {@link #close()} the iterator. Since the
+ * iterator is typically consumed by library code that does not know about this class (e.g., the {@code
+ * SeriesBuilder}), all iterators that have been created while a model is computed are closed automatically when the
+ * computation ends, see {@link #closeAfter(Supplier)}. This includes computations that fail.
+ * </p>
+ *
+ * <p>
+ * Note that a disconnected client does not cancel the extractions: neither Jetty nor Stapler interrupt the request
+ * thread if the client closes the connection, and the disconnect is only noticed when the response is written, i.e.
+ * after the model has been computed. So the work of an aborted request is bounded by the window of submitted
+ * extractions and by the limits of the history, but it is not cancelled early.
+ * </p>
+ *
+ * <p>
+ * The number of threads of the pool that is shared by all trend charts can be configured using the system property
+ * {@code io.jenkins.plugins.echarts.ParallelBuildActionIterator.threads}.
+ * </p>
+ *
+ * @param <A>
+ *         the type of the action
+ * @param <R>
+ *         the type of the result
+ */
+@SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+final class ParallelBuildActionIterator<A extends BuildAction<?>, R>
+        implements Iterator<BuildResult<R>>, AutoCloseable {
+    private static final int THREADS = Math.max(1, SystemProperties.getInteger(
+            ParallelBuildActionIterator.class.getName() + ".threads",
+            Math.max(2, Runtime.getRuntime().availableProcessors() / 2)));
+    private static final int EXTRACTIONS_PER_THREAD = 2;
+    private static final ThreadLocal<List<ParallelBuildActionIterator<?, ?>>> OPEN = new ThreadLocal<>();
+
+    /**
+     * Invokes the specified supplier and closes all parallel iterators that have been created by the supplier in the
+     * current thread afterward. So the pending extractions of iterators that have not been consumed completely (e.g.,
+     * since the consumer stopped early or failed) are cancelled as soon as the computation ends.
+     *
+     * @param supplier
+     *         the supplier to invoke
+     * @param <V>
+     *         the type of the result
+     *
+     * @return the result of the supplier
+     */
+    static <V> V closeAfter(final Supplier<V> supplier) {
+        var previous = OPEN.get();
+        List<ParallelBuildActionIterator<?, ?>> iterators = new ArrayList<>();
+        OPEN.set(iterators);
+        try {
+            return supplier.get();
+        }
+        finally {
+            iterators.forEach(ParallelBuildActionIterator::close);
+            if (previous == null) {
+                OPEN.remove();
+            }
+            else {
+                OPEN.set(previous);
+            }
+        }
+    }
+
+    private final HistoryNavigator<A> navigator;
+    private final Function<A, R> function;
+    private final ExecutorService executor;
+    private final int window;
+
+    private final Deque<Future<BuildResult<R>>> pending = new ArrayDeque<>();
+    private Optional<A> nextAction;
+
+    ParallelBuildActionIterator(final Class<A> actionType, final Optional<A> latestAction,
+            final Predicate<A> predicate, final Function<A, R> function, final HistoryLimits limits) {
+        this(actionType, latestAction, predicate, function, limits, Pool.EXECUTOR, THREADS * EXTRACTIONS_PER_THREAD);
+    }
+
+    ParallelBuildActionIterator(final Class<A> actionType, final Optional<A> latestAction,
+            final Predicate<A> predicate, final Function<A, R> function, final HistoryLimits limits,
+            final ExecutorService executor, final int window) {
+        this.function = function;
+        this.executor = executor;
+        this.window = Math.max(1, window);
+
+        navigator = new HistoryNavigator<>(new ActionSelector<>(actionType, predicate), limits);
+        nextAction = navigator.start(latestAction);
+
+        var open = OPEN.get();
+        if (open != null) {
+            open.add(this);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !pending.isEmpty() || nextAction.isPresent();
+    }
+
+    @Override
+    public BuildResult<R> next() {
+        submitExtractions();
+        if (pending.isEmpty()) {
+            throw new NoSuchElementException(
+                    "There is no action available anymore. Use hasNext() before calling next().");
+        }
+
+        try {
+            return pending.removeFirst().get();
+        }
+        catch (InterruptedException exception) {
+            close();
+            Thread.currentThread().interrupt();
+
+            throw new CancellationException("Extraction of the build history results has been interrupted");
+        }
+        catch (ExecutionException exception) {
+            close();
+
+            if (exception.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (exception.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Extraction of the build history results failed", exception.getCause());
+        }
+    }
+
+    /**
+     * Walks the build history until the number of pending extractions reaches the size of the window.
+     */
+    private void submitExtractions() {
+        while (pending.size() < window && nextAction.isPresent()) {
+            A action = nextAction.get();
+            nextAction = navigator.next(action);
+
+            pending.addLast(submit(action));
+        }
+    }
+
+    private Future<BuildResult<R>> submit(final A action) {
+        Run<?, ?> run = action.getOwner();
+        int buildTimeInSeconds = (int) (run.getTimeInMillis() / 1000);
+        Build build = new Build(run.getNumber(), run.getDisplayName(), buildTimeInSeconds);
+
+        var context = SecurityContextHolder.getContext();
+        return executor.submit(() -> {
+            var previous = SecurityContextHolder.getContext();
+            SecurityContextHolder.setContext(context);
+            try {
+                return new BuildResult<>(build, function.apply(action));
+            }
+            finally {
+                SecurityContextHolder.setContext(previous);
+            }
+        });
+    }
+
+    /**
+     * Cancels all pending extractions and stops the walk through the build history.
+     */
+    @Override
+    public void close() {
+        pending.forEach(future -> future.cancel(true));
+        pending.clear();
+        nextAction = Optional.empty();
+    }
+
+    /**
+     * Holds the thread pool that is shared by all parallel iterators. The pool is created on first use, idle threads
+     * are terminated after a minute.
+     */
+    private static final class Pool {
+        private static final ExecutorService EXECUTOR = createExecutor();
+
+        private static ExecutorService createExecutor() {
+            var executor = new ThreadPoolExecutor(THREADS, THREADS, 1, TimeUnit.MINUTES, new LinkedBlockingQueue<>(),
+                    new NamingThreadFactory(new DaemonThreadFactory(), "ECharts build history extraction"));
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+    }
+}
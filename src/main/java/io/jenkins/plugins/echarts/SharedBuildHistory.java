@@ -0,0 +1,86 @@
+package io.jenkins.plugins.echarts;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import hudson.model.Action;
+import hudson.model.Run;
+
+/**
+ * Shares the visited part of a build history between several trend charts of the same job. While a scope is active
+ * (see {@link #callWith(Supplier)}), the actions of a given type are obtained from a build only once: all subsequent
+ * trend charts that use the same action type reuse the memorized actions. Additionally, the builds are referenced
+ * strongly while the scope is active, so that builds that have been loaded by the first chart are not unloaded before
+ * the remaining charts have been computed.
+ */
+final class SharedBuildHistory {
+    private static final ThreadLocal<SharedBuildHistory> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Invokes the given supplier within a new shared build history scope. If a scope is already active, then the
+     * active scope will be used.
+     *
+     * @param supplier
+     *         the supplier to invoke
+     * @param <V>
+     *         the type of the result
+     *
+     * @return the result of the supplier
+     */
+    static <V> V callWith(final Supplier<V> supplier) {
+        if (CURRENT.get() != null) {
+            return supplier.get();
+        }
+
+        CURRENT.set(new SharedBuildHistory());
+        try {
+            return supplier.get();
+        }
+        finally {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * Returns the actions of the specified type that are attached to the given build. If a shared build history scope
+     * is active, then the actions are memorized in this scope.
+     *
+     * @param run
+     *         the build to get the actions from
+     * @param actionType
+     *         the type of the actions
+     * @param <T>
+     *         the type of the actions
+     *
+     * @return the actions of the specified type
+     */
+    static <T extends Action> List<T> getActions(final Run<?, ?> run, final Class<T> actionType) {
+        var history = CURRENT.get();
+        if (history == null) {
+            return loadActions(run, actionType);
+        }
+        return history.getMemorizedActions(run, actionType);
+    }
+
+    private static <T extends Action> List<T> loadActions(final Run<?, ?> run, final Class<T> actionType) {
+        TrendMetrics.getInstance().current(actionType).increment(TrendMetrics.Counter.ACTION_LOOKUPS);
+
+        return run.getActions(actionType);
+    }
+
+    private final Map<Key, List<? extends Action>> actions = new HashMap<>();
+
+    @SuppressWarnings("unchecked")
+    private <T extends Action> List<T> getMemorizedActions(final Run<?, ?> run, final Class<T> actionType) {
+        return (List<T>) actions.computeIfAbsent(new Key(run, actionType), key -> loadActions(run, actionType));
+    }
+
+    private SharedBuildHistory() {
+        // use callWith to create a new scope
+    }
+
+    private record Key(Run<?, ?> run, Class<?> actionType) {
+    }
+}
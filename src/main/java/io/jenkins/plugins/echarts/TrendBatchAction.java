@@ -0,0 +1,346 @@
+package io.jenkins.plugins.echarts;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+
+import org.kohsuke.stapler.StaplerRequest2;
+import org.kohsuke.stapler.StaplerResponse2;
+import org.kohsuke.stapler.verb.POST;
+import hudson.Extension;
+import hudson.model.Action;
+import hudson.model.Item;
+import hudson.model.Job;
+import jenkins.model.TransientActionFactory;
+
+/**
+ * Provides the models of several trend charts of a job with a single HTTP request. A job page that shows the trend
+ * charts of several plugins posts the list of charts (URL name of the action and JSON configuration of the chart) to
+ * the URL {@code echarts-trends/models} of the job. The models are computed within the scope of a single {@link
+ * BuildHistoryTraversal}: each chart whose model is not cached registers its history when the model is computed, so
+ * charts that use the same action type visit the builds only once. Additionally, the models are computed within a
+ * {@link SharedBuildHistory} scope, so the actions of the visited builds are obtained only once if several trend
+ * actions use the same action type.
+ * The response is a JSON array that contains the models in the order of the request. If a model cannot be created
+ * (e.g., since the action does not exist), then the corresponding element is {@code null}.
+ *
+ * <p>
+ * Example request body: {@code [{"urlName":"junit","configuration":"{\"numberOfBuilds\":50}"}]}. If the optional
+ * property {@code lastBuild} is set for a configurable chart, then only the results of newer builds will be returned
+ * (see {@link AsyncConfigurableTrendChart#getConfigurableBuildTrendModelDelta(String, int)}).
+ * </p>
+ *
+ * <p>
+ * Alternatively, the request body can be a JSON object that contains the array of charts in the property {@code
+ * charts} and the colors of the browser theme in the property {@code palette} (see {@link TrendPalette}). Then the CSS
+ * variables in the models are replaced with the colors of the theme on the server. If the models contain no
+ * unresolved variables afterward, then the response header {@value #COLORS_HEADER} is set to {@value
+ * #COLORS_RESOLVED}, so the browser can parse the response directly.
+ * Example request body: {@code {"palette":{"--red":"#e6001f"},"charts":[{"urlName":"junit"}]}}.
+ * </p>
+ */
+@SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+public final class TrendBatchAction implements Action {
+    static final String URL_NAME = "echarts-trends";
+    static final String COLORS_HEADER = "X-ECharts-Colors";
+    static final String COLORS_RESOLVED = "resolved";
+
+    private static final Logger LOGGER = Logger.getLogger(TrendBatchAction.class.getName());
+    private static final String NO_MODEL = "null";
+
+    private final Job<?, ?> owner;
+
+    TrendBatchAction(final Job<?, ?> owner) {
+        this.owner = owner;
+    }
+
+    public Job<?, ?> getOwner() {
+        return owner;
+    }
+
+    @CheckForNull
+    @Override
+    public String getIconFileName() {
+        return null; // invisible
+    }
+
+    @CheckForNull
+    @Override
+    public String getDisplayName() {
+        return null; // invisible
+    }
+
+    @Override
+    public String getUrlName() {
+        return URL_NAME;
+    }
+
+    /**
+     * Returns the URL (relative to the root URL of Jenkins) that provides the models of the trend charts of the
+     * specified owner. Batch requests are available for jobs only: for other owners of trend charts (e.g., builds) an
+     * empty string is returned so that the charts are loaded one by one.
+     *
+     * @param owner
+     *         the owner of the trend chart action
+     *
+     * @return the URL of the batch request, or an empty string if the owner is not a job
+     */
+    public static String getModelsUrl(@CheckForNull final Object owner) {
+        if (owner instanceof Job<?, ?> job) {
+            return job.getUrl() + URL_NAME + "/models";
+        }
+        return "";
+    }
+
+    /**
+     * Writes the models of all requested trend charts as a JSON array to the response.
+     *
+     * @param request
+     *         the HTTP request, the body contains the JSON array of the requested charts
+     * @param response
+     *         the HTTP response
+     *
+     * @throws IOException
+     *         if the request could not be read or the response could not be written
+     */
+    @POST
+    public void doModels(final StaplerRequest2 request, final StaplerResponse2 response) throws IOException {
+        owner.checkPermission(Item.READ);
+
+        List<ChartRequest> charts;
+        TrendPalette palette;
+        try {
+            var body = ChartModelWriter.getObjectMapper().readTree(request.getReader());
+            if (body != null && body.isObject()) {
+                charts = parseRequests(body.get("charts"));
+                palette = TrendPalette.fromJson(body.get("palette"));
+            }
+            else {
+                charts = parseRequests(body);
+                palette = TrendPalette.NONE;
+            }
+        }
+        catch (JacksonException exception) {
+            response.setStatus(StaplerResponse2.SC_BAD_REQUEST);
+            return;
+        }
+
+        var models = SharedBuildHistory.callWith(() -> createModels(charts, palette));
+
+        response.setContentType(TrendModelResponse.CONTENT_TYPE);
+        response.setHeader("Cache-Control", "no-cache");
+        if (!palette.isEmpty() && models.stream().noneMatch(TrendPalette::hasVariables)) {
+            response.setHeader(COLORS_HEADER, COLORS_RESOLVED);
+        }
+        try (var writer = response.getCompressedWriter(request)) {
+            writer.write('[');
+            for (int i = 0; i < models.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(models.get(i));
+            }
+            writer.write(']');
+        }
+    }
+
+    static List<ChartRequest> parseRequests(@CheckForNull final JsonNode body) {
+        List<ChartRequest> charts = new ArrayList<>();
+        if (body == null || !body.isArray()) {
+            return charts;
+        }
+        for (JsonNode chart : body) {
+            var urlName = chart.get("urlName");
+            if (urlName != null && urlName.isString()) {
+                charts.add(new ChartRequest(urlName.asString(), getConfiguration(chart.get("configuration")),
+                        getLastBuild(chart.get("lastBuild"))));
+            }
+        }
+        return charts;
+    }
+
+    private static int getLastBuild(@CheckForNull final JsonNode lastBuild) {
+        if (lastBuild == null) {
+            return 0;
+        }
+        return Math.max(0, lastBuild.asInt(0));
+    }
+
+    @CheckForNull
+    private static String getConfiguration(@CheckForNull final JsonNode configuration) {
+        if (configuration == null || configuration.isNull()) {
+            return null;
+        }
+        if (configuration.isString()) {
+            return configuration.asString();
+        }
+        return ChartModelWriter.toJson(configuration);
+    }
+
+    List<String> createModels(final List<ChartRequest> charts) {
+        return createModels(charts, TrendPalette.NONE);
+    }
+
+    List<String> createModels(final List<ChartRequest> charts, final TrendPalette palette) {
+        var allActions = owner.getAllActions();
+        Map<ChartRequest, Optional<Action>> actions = new LinkedHashMap<>();
+        for (ChartRequest chart : charts) {
+            actions.computeIfAbsent(chart.normalize(), key -> findAction(allActions, key.urlName()));
+        }
+
+        return BuildHistoryTraversal.callWith(new BuildHistoryTraversal(), () -> {
+            Map<ChartRequest, String> models = new HashMap<>();
+            List<String> result = new ArrayList<>();
+            for (ChartRequest chart : charts) {
+                result.add(models.computeIfAbsent(chart.normalize(),
+                        key -> createModel(key, actions.get(key), palette)));
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Returns the configuration that is used by the specified action to create the model of a requested chart. This
+     * is the same configuration that is used if the model is requested using the endpoints of the action: a chart
+     * that is not configurable (or that has been requested without configuration) uses the default configuration.
+     *
+     * @param action
+     *         the action that provides the trend chart
+     * @param configuration
+     *         the requested JSON configuration of the chart
+     *
+     * @return the JSON configuration of the model
+     */
+    static String getModelConfiguration(final Action action, @CheckForNull final String configuration) {
+        if (isConfigurable(action, configuration) && configuration != null) {
+            return configuration;
+        }
+        return TrendModelCache.EMPTY_CONFIGURATION;
+    }
+
+    private static boolean isConfigurable(final Action action, @CheckForNull final String configuration) {
+        return action instanceof AsyncConfigurableTrendChart
+                && (configuration != null || !(action instanceof AsyncTrendChart));
+    }
+
+    /**
+     * Returns whether the models of the specified action are stored in the {@link TrendModelCache}. Only the models of
+     * these actions are invalidated when a build completes, so only their variants can be cached as well.
+     *
+     * @param action
+     *         the action to check
+     *
+     * @return {@code true} if the models of the action are cached, {@code false} otherwise
+     */
+    private boolean isCachedAction(final Action action) {
+        return action instanceof AsyncTrendJobAction || action instanceof AsyncConfigurableTrendJobAction
+                || action instanceof TrendChartJobAction;
+    }
+
+    private String createModel(final ChartRequest chart, final Optional<Action> action, final TrendPalette palette) {
+        try {
+            return action.map(a -> createModel(a, chart, palette)).orElse(NO_MODEL);
+        }
+        catch (RuntimeException exception) { // a broken chart should not break the other charts
+            LOGGER.log(Level.WARNING, "Can't create trend model for " + chart.urlName() + " of " + owner.getFullName(),
+                    exception);
+
+            return NO_MODEL;
+        }
+    }
+
+    private String createModel(final Action action, final ChartRequest chart, final TrendPalette palette) {
+        if (palette.isEmpty()) {
+            return createModel(action, chart);
+        }
+        if (chart.isDelta(action) || !isCachedAction(action)) {
+            return palette.resolve(createModel(action, chart));
+        }
+        return TrendModelCache.getInstance().computeVariantIfAbsent(owner, action,
+                TrendChartConfiguration.parse(getModelConfiguration(action, chart.configuration())),
+                palette.getVariant(),
+                () -> palette.resolve(createModel(action, chart)));
+    }
+
+    private String createModel(final Action action, final ChartRequest chart) {
+        var configuration = chart.configuration();
+        if (chart.isDelta(action)) {
+            return ((AsyncConfigurableTrendChart) action).getConfigurableBuildTrendModelDelta(configuration,
+                    chart.lastBuild());
+        }
+        if (isConfigurable(action, configuration)) {
+            return ((AsyncConfigurableTrendChart) action).getConfigurableBuildTrendModel(
+                    getModelConfiguration(action, configuration));
+        }
+        if (action instanceof AsyncTrendChart trendChart) {
+            return trendChart.getBuildTrendModel();
+        }
+        return NO_MODEL;
+    }
+
+    private Optional<Action> findAction(final List<Action> allActions, final String urlName) {
+        return allActions.stream()
+                .filter(action -> action instanceof AsyncTrendChart || action instanceof AsyncConfigurableTrendChart)
+                .filter(action -> urlName.equals(action.getUrlName()))
+                .findFirst();
+    }
+
+    /**
+     * A requested trend chart.
+     *
+     * @param urlName
+     *         the URL name of the action that provides the trend chart
+     * @param configuration
+     *         the JSON configuration of the chart, or {@code null} if the chart is not configurable
+     * @param lastBuild
+     *         the newest build that is already shown in the client (for incremental updates), or 0 to request the
+     *         complete model
+     */
+    record ChartRequest(String urlName, @CheckForNull String configuration, int lastBuild) {
+        ChartRequest(final String urlName, @CheckForNull final String configuration) {
+            this(urlName, configuration, 0);
+        }
+
+        ChartRequest normalize() {
+            if (configuration == null) {
+                return this;
+            }
+            return new ChartRequest(urlName, TrendChartConfiguration.parse(configuration).getNormalized(), lastBuild);
+        }
+
+        boolean isDelta(final Action action) {
+            return lastBuild > 0 && configuration != null && action instanceof AsyncConfigurableTrendChart;
+        }
+    }
+
+    /**
+     * Attaches the {@link TrendBatchAction} to all jobs.
+     */
+    @Extension
+    @SuppressWarnings("rawtypes")
+    public static class TrendBatchActionFactory extends TransientActionFactory<Job> {
+        @Override
+        public Class<Job> type() {
+            return Job.class;
+        }
+
+        @NonNull
+        @Override
+        public Collection<? extends Action> createFor(@NonNull final Job target) {
+            return Set.of(new TrendBatchAction(target));
+        }
+    }
+}
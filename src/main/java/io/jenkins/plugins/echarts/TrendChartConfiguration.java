@@ -0,0 +1,254 @@
+package io.jenkins.plugins.echarts;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.node.ObjectNode;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * An immutable view of the JSON configuration of a trend chart. The configuration is created in the client using a
+ * configuration dialog (or using the browser's local storage) and is sent with each request for a trend model. The
+ * JSON string is parsed only once: all properties are available using typed accessors afterward. Since most users
+ * send identical configurations, the parsed configurations are cached using the JSON string as key.
+ */
+public final class TrendChartConfiguration {
+    static final String EMPTY_JSON = "{}";
+
+    private static final TrendChartConfiguration EMPTY = new TrendChartConfiguration(EMPTY_JSON, Map.of());
+    private static final int MAXIMUM_CACHE_SIZE = 128;
+
+    private static final Map<String, TrendChartConfiguration> CACHE = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                private static final long serialVersionUID = -4216315637962880245L;
+
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<String, TrendChartConfiguration> eldest) {
+                    return size() > MAXIMUM_CACHE_SIZE;
+                }
+            });
+
+    /**
+     * Returns the parsed view of the specified JSON configuration. If the configuration is blank or not a valid JSON
+     * object, then an empty configuration will be returned, i.e. all accessors will return their default values.
+     *
+     * @param json
+     *         the JSON configuration of the chart
+     *
+     * @return the parsed configuration
+     */
+    public static TrendChartConfiguration parse(@CheckForNull final String json) {
+        if (StringUtils.isBlank(json) || EMPTY_JSON.equals(json)) {
+            return EMPTY;
+        }
+        var cached = CACHE.get(json);
+        if (cached != null) {
+            return cached;
+        }
+        var configuration = create(json);
+        CACHE.put(json, configuration);
+
+        return configuration;
+    }
+
+    private static TrendChartConfiguration create(final String json) {
+        try {
+            var node = ChartModelWriter.getObjectMapper().readValue(json, ObjectNode.class);
+            if (node == null) {
+                return new TrendChartConfiguration(StringUtils.strip(json), Map.of());
+            }
+            var properties = new TreeMap<String, JsonNode>();
+            node.properties().forEach(property -> properties.put(property.getKey(), property.getValue()));
+
+            return new TrendChartConfiguration(ChartModelWriter.toJson(properties), properties);
+        }
+        catch (JacksonException exception) {
+            return new TrendChartConfiguration(StringUtils.strip(json), Map.of());
+        }
+    }
+
+    private final String normalized;
+    private final Map<String, JsonNode> properties;
+
+    private TrendChartConfiguration(final String normalized, final Map<String, JsonNode> properties) {
+        this.normalized = normalized;
+        this.properties = properties;
+    }
+
+    /**
+     * Returns a normalized JSON representation of this configuration. Configurations that differ only in the order of
+     * the properties or in whitespace share the same normalized representation.
+     *
+     * @return the normalized configuration
+     */
+    public String getNormalized() {
+        return normalized;
+    }
+
+    /**
+     * Returns whether the specified property is defined in this configuration.
+     *
+     * @param property
+     *         the name of the property
+     *
+     * @return {@code true} if the property is defined, {@code false} otherwise
+     */
+    public boolean hasProperty(final String property) {
+        var node = properties.get(property);
+        return node != null && !node.isNull();
+    }
+
+    /**
+     * Returns the text value of the specified property.
+     *
+     * @param property
+     *         the name of the property
+     * @param defaultValue
+     *         the default value if the property is undefined or invalid
+     *
+     * @return the value of the property
+     */
+    public String getString(final String property, final String defaultValue) {
+        var node = properties.get(property);
+        if (node == null) {
+            return defaultValue;
+        }
+        return node.asString(defaultValue);
+    }
+
+    /**
+     * Returns the integer value of the specified property. Text values that represent an integer are converted.
+     *
+     * @param property
+     *         the name of the property
+     * @param defaultValue
+     *         the default value if the property is undefined or invalid
+     *
+     * @return the value of the property
+     */
+    public int getInteger(final String property, final int defaultValue) {
+        var node = properties.get(property);
+        if (node == null) {
+            return defaultValue;
+        }
+        return node.asInt(defaultValue);
+    }
+
+    /**
+     * Returns the boolean value of the specified property. The text values {@code "true"} and {@code "false"} are
+     * converted.
+     *
+     * @param property
+     *         the name of the property
+     * @param defaultValue
+     *         the default value if the property is undefined or invalid
+     *
+     * @return the value of the property
+     */
+    public boolean getBoolean(final String property, final boolean defaultValue) {
+        var node = properties.get(property);
+        if (node == null) {
+            return defaultValue;
+        }
+        return node.asBoolean(defaultValue);
+    }
+
+    /**
+     * Returns the number of builds that should be shown in the trend chart.
+     *
+     * @param defaultValue
+     *         the default value if the property is undefined or invalid
+     *
+     * @return the number of builds
+     */
+    public int getNumberOfBuilds(final int defaultValue) {
+        return getInteger("numberOfBuilds", defaultValue);
+    }
+
+    /**
+     * Returns the number of days that should be shown in the trend chart.
+     *
+     * @param defaultValue
+     *         the default value if the property is undefined or invalid
+     *
+     * @return the number of days
+     */
+    public int getNumberOfDays(final int defaultValue) {
+        return getInteger("numberOfDays", defaultValue);
+    }
+
+    /**
+     * Returns whether the builds (or the build dates) should be used as domain of the trend chart.
+     *
+     * @param defaultValue
+     *         the default value if the property is undefined or invalid
+     *
+     * @return {@code true} if the builds should be used as domain, {@code false} if the build dates should be used
+     */
+    public boolean isBuildAsDomain(final boolean defaultValue) {
+        return getBoolean("buildAsDomain", defaultValue);
+    }
+
+    /**
+     * Returns the type of the chart that should be rendered.
+     *
+     * @param defaultValue
+     *         the default value if the property is undefined or invalid
+     *
+     * @return the type of the chart
+     */
+    public String getChartType(final String defaultValue) {
+        return getString("chartType", defaultValue);
+    }
+
+    /**
+     * Returns the width of the chart (in pixels).
+     *
+     * @param defaultValue
+     *         the default value if the property is undefined or invalid
+     *
+     * @return the width of the chart
+     */
+    public int getWidth(final int defaultValue) {
+        return getInteger("width", defaultValue);
+    }
+
+    /**
+     * Returns the height of the chart (in pixels).
+     *
+     * @param defaultValue
+     *         the default value if the property is undefined or invalid
+     *
+     * @return the height of the chart
+     */
+    public int getHeight(final int defaultValue) {
+        return getInteger("height", defaultValue);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return normalized.equals(((TrendChartConfiguration) o).normalized);
+    }
+
+    @Override
+    public int hashCode() {
+        return normalized.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return normalized;
+    }
+}
@@ -3,12 +3,18 @@ package io.jenkins.plugins.echarts;
 import edu.hm.hafner.echarts.BuildResult;
 import edu.hm.hafner.echarts.ChartModelConfiguration;
 import edu.hm.hafner.echarts.line.LinesChartModel;
+import edu.hm.hafner.echarts.line.LinesDataSet;
 import edu.umd.cs.findbugs.annotations.NonNull;
 
+import java.io.IOException;
 import java.util.Iterator;
-import tools.jackson.databind.ObjectMapper;
+import java.util.Map;
+import java.util.function.Function;
 
+import org.kohsuke.stapler.StaplerRequest2;
+import org.kohsuke.stapler.StaplerResponse2;
 import org.kohsuke.stapler.bind.JavaScriptMethod;
+import org.kohsuke.stapler.verb.GET;
 import hudson.model.Job;
 
 import io.jenkins.plugins.util.BuildAction;
@@ -50,7 +56,77 @@ public abstract class TrendChartJobAction<T extends BuildAction<?>> extends JobA
     @JavaScriptMethod
     @Override
     public String getConfigurableBuildTrendModel(final String configuration) {
-        return new ObjectMapper().writeValueAsString(createChartModel(configuration));
+        var parsed = TrendChartConfiguration.parse(configuration);
+        var limits = HistoryLimits.fromConfiguration(parsed);
+
+        return TrendMetrics.callWith(this, () -> TrendModelCache.getInstance().computeIfAbsent(getOwner(), this, parsed,
+                () -> TrendMetrics.toJson(() -> createResponseModel(configuration, parsed, limits))));
+    }
+
+    @JavaScriptMethod
+    @Override
+    public String getConfigurableBuildTrendModelDelta(final String configuration, final int lastBuild) {
+        var limits = HistoryLimits.fromJson(configuration).newerThan(lastBuild);
+
+        return TrendMetrics.callWith(this,
+                () -> TrendMetrics.toJson(() -> createLimitedChartModel(configuration, limits)));
+    }
+
+    @Override
+    @GET
+    public void doConfigurableTrendModel(final StaplerRequest2 request, final StaplerResponse2 response)
+            throws IOException {
+        var configuration = TrendModelResponse.getConfiguration(request);
+        var parsed = TrendChartConfiguration.parse(configuration);
+        if (TrendModelResponse.isNotModified(request, response,
+                TrendModelCache.getInstance().getEntityTag(getOwner(), this, parsed))) {
+            return;
+        }
+        var limits = HistoryLimits.fromConfiguration(parsed);
+        var cached = TrendModelCache.getInstance().getIfPresent(getOwner(), this, parsed);
+
+        TrendModelResponse.write(request, response, this, cached,
+                () -> createResponseModel(configuration, parsed, limits));
+    }
+
+    private Object createResponseModel(final String configuration, final TrendChartConfiguration parsed,
+            final HistoryLimits limits) {
+        return TrendColumnarEncoding.encode(
+                TrendDownsampler.downsample(createLimitedChartModel(configuration, limits), parsed), parsed);
+    }
+
+    private LinesChartModel createLimitedChartModel(final String configuration, final HistoryLimits limits) {
+        return HistoryLimits.callWith(limits, () -> createChartModel(configuration));
+    }
+
+    /**
+     * Creates the data set of a trend chart that shows the aggregated results per day. The data set is created from
+     * the persisted {@link TrendRollups} of the job, so only the builds that are newer than the last recorded build
+     * need to be visited. Plugins can use this method in {@link #createChartModel(String)} if the configuration
+     * uses dates on the domain axis. The values of the builds of a day are aggregated as selected by the property
+     * {@code aggregation} of the configuration, see {@link TrendRollups.Aggregation}.
+     *
+     * @param configuration
+     *         JSON configuration of the chart (number of builds, etc.)
+     * @param seriesKey
+     *         a key that identifies the values function, e.g., the name of the chart. Several charts of this action
+     *         that use different values functions need different keys. Since the rollups are persisted, the key
+     *         should also be changed whenever the values function is changed.
+     * @param valuesFunction
+     *         the function that computes the values of the series for a build action
+     *
+     * @return the data set of the chart
+     */
+    protected LinesDataSet createRollupDataSet(final String configuration, final String seriesKey,
+            final Function<T, Map<String, Integer>> valuesFunction) {
+        var rollups = TrendRollups.forJob(getOwner());
+        var id = TrendRollups.createId(getBuildActionClass(), getUrlName(), seriesKey);
+        rollups.update(id, getBuildActionClass(), getLatestAction(), a -> getUrlName().equals(a.getUrlName()),
+                valuesFunction);
+
+        var parsed = TrendChartConfiguration.parse(configuration);
+        return rollups.createDataSet(id, HistoryLimits.fromConfiguration(parsed),
+                TrendRollups.Aggregation.fromConfiguration(parsed));
     }
 
     /**
@@ -67,36 +143,60 @@ public abstract class TrendChartJobAction<T extends BuildAction<?>> extends JobA
 
     /**
      * This default implementation checks whether there are at least two build results available. Override if this
-     * behavior does not make sense in your job action.
+     * behavior does not make sense in your job action. The result is memorized per job in the {@link
+     * TrendVisibilityCache}, so the build history needs to be inspected only if the visibility is not known yet.
      *
      * @return {@code true} if there are at least two results, {@code false} otherwise
      */
     @Override
     @SuppressWarnings("unused") // Called by jelly view
     public boolean isTrendVisible() {
-        return hasAtLeastTwoResults();
+        return TrendVisibilityCache.getInstance().isVisible(getOwner(), this,
+                () -> TrendMetrics.time(this, TrendMetrics.Timing.VISIBILITY, this::hasAtLeastTwoResults));
     }
 
     private boolean hasAtLeastTwoResults() {
-        Iterable<? extends BuildResult<T>> results = createBuildHistory();
-        Iterator<? extends BuildResult<T>> iterator = results.iterator();
+        return HistoryLimits.callWith(HistoryLimits.ofBuilds(2), () -> {
+            Iterable<? extends BuildResult<T>> results = createBuildHistory();
+            Iterator<? extends BuildResult<T>> iterator = results.iterator();
 
-        if (iterator.hasNext()) {
-            iterator.next();
-        }
-        return iterator.hasNext();
+            if (iterator.hasNext()) {
+                iterator.next();
+            }
+            return iterator.hasNext();
+        });
     }
 
     /**
      * Creates a history of build results. This default implementation selects all actions that share the same URL and
-     * returns these actions as value for the trend charts.
+     * returns these actions as value for the trend charts. The history stops as soon as the {@link
+     * HistoryLimits#current() active limits} of the chart configuration have been reached.
      *
      * @return the build history
      * @see GenericBuildActionIterator for details on how to construct such an iterator
      */
     protected Iterable<? extends BuildResult<T>> createBuildHistory() {
+        return createBuildHistory(HistoryLimits.current());
+    }
+
+    /**
+     * Creates a history of build results that stops as soon as one of the specified limits has been reached. If a
+     * {@link BuildHistoryTraversal} is active, then the history will be registered with this traversal, so that the
+     * builds are visited only once for several trend charts.
+     *
+     * @param limits
+     *         the limits of the build history
+     *
+     * @return the build history
+     */
+    protected Iterable<? extends BuildResult<T>> createBuildHistory(final HistoryLimits limits) {
+        var traversal = BuildHistoryTraversal.current();
+        if (traversal.isPresent()) {
+            return traversal.get().register(this, getBuildActionClass(), getLatestAction(),
+                    a -> getUrlName().equals(a.getUrlName()), a -> a, limits);
+        }
         return () -> new GenericBuildActionIterator<>(
                 getBuildActionClass(), getLatestAction(),
-                a -> getUrlName().equals(a.getUrlName()), a -> a);
+                a -> getUrlName().equals(a.getUrlName()), a -> a, limits);
     }
 }
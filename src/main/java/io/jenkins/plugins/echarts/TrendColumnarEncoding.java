@@ -0,0 +1,201 @@
+package io.jenkins.plugins.echarts;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Base64;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.node.ObjectNode;
+
+/**
+ * Encodes the JSON structure of a {@code LinesChartModel} in a compact columnar format. The default JSON
+ * representation of a trend chart stores the label of each build on the domain axis and the value of each point as
+ * a separate JSON number. For large build histories, the size of the model and the time to parse it in the browser
+ * are dominated by these arrays. The columnar format encodes each column of the model separately:
+ * <ul>
+ *     <li>the build numbers and the values of series that contain integers only are delta encoded:
+ *     {@code {"delta":[first, second - first, ...]}}</li>
+ *     <li>the values of series that contain floating point numbers are stored as base64 encoded array of little
+ *     endian 64-bit floats: {@code {"float64":"..."}}</li>
+ *     <li>the labels of the domain axis are shared with the build numbers if each label consists of a common prefix
+ *     and the build number: {@code {"prefix":"#"}}</li>
+ * </ul>
+ * All other properties of the model remain unchanged. Columns that cannot be encoded (e.g., since they contain
+ * {@code null} values) are stored as plain JSON arrays. The encoded model is marked with the property {@code
+ * "encoding":"columnar"}, the function {@code echartsJenkinsApi.decodeTrendModel} restores the default representation
+ * in the browser.
+ *
+ * <p>
+ * The client requests the columnar format using the property {@code encoding} of the chart configuration. Models that
+ * contain the results of an incremental update are not encoded.
+ * </p>
+ */
+final class TrendColumnarEncoding {
+    static final String PROPERTY = "encoding";
+    static final String COLUMNAR = "columnar";
+    /** The configuration that is sent by {@code echarts-api.js} if the user did not configure the chart. */
+    static final String CLIENT_CONFIGURATION = "{\"" + PROPERTY + "\":\"" + COLUMNAR + "\"}";
+
+    private static final String BUILD_NUMBERS = "buildNumbers";
+    private static final String DOMAIN_AXIS_LABELS = "domainAxisLabels";
+    private static final String SERIES = "series";
+    private static final String DATA = "data";
+    private static final String DELTA = "delta";
+    private static final String FLOAT64 = "float64";
+    private static final String PREFIX = "prefix";
+
+    /**
+     * Returns whether the specified configuration requests the columnar format.
+     *
+     * @param configuration
+     *         the configuration of the chart
+     *
+     * @return {@code true} if the model should be encoded, {@code false} otherwise
+     */
+    static boolean isEnabled(final TrendChartConfiguration configuration) {
+        return COLUMNAR.equals(configuration.getString(PROPERTY, ""));
+    }
+
+    /**
+     * Encodes the specified model if the configuration requests the columnar format.
+     *
+     * @param model
+     *         the model to encode (typically a {@code LinesChartModel} or the JSON tree of such a model)
+     * @param configuration
+     *         the configuration of the chart
+     *
+     * @return the encoded model (as JSON tree), or the specified model if no encoding has been requested
+     */
+    static Object encode(final Object model, final TrendChartConfiguration configuration) {
+        if (model == null || !isEnabled(configuration)) {
+            return model;
+        }
+
+        JsonNode tree = ChartModelWriter.getObjectMapper().valueToTree(model);
+        if (!(tree instanceof ObjectNode modelNode)) {
+            return model;
+        }
+
+        var buildNumbers = modelNode.get(BUILD_NUMBERS);
+        var labels = modelNode.get(DOMAIN_AXIS_LABELS);
+        if (isArray(labels) && isArray(buildNumbers)) {
+            var prefix = getCommonPrefix(labels, buildNumbers);
+            if (prefix != null) {
+                modelNode.putObject(DOMAIN_AXIS_LABELS).put(PREFIX, prefix);
+            }
+        }
+        encodeColumn(modelNode, BUILD_NUMBERS);
+
+        var series = modelNode.get(SERIES);
+        if (isArray(series)) {
+            for (JsonNode line : series) {
+                if (line instanceof ObjectNode lineNode) {
+                    encodeColumn(lineNode, DATA);
+                }
+            }
+        }
+        modelNode.put(PROPERTY, COLUMNAR);
+
+        return modelNode;
+    }
+
+    private static boolean isArray(final JsonNode node) {
+        return node != null && node.isArray();
+    }
+
+    /**
+     * Returns the prefix that is shared by all labels, if each label consists of this prefix and the corresponding
+     * build number.
+     *
+     * @param labels
+     *         the labels of the domain axis
+     * @param buildNumbers
+     *         the build numbers
+     *
+     * @return the common prefix, or {@code null} if the labels cannot be derived from the build numbers
+     */
+    @CheckForNull
+    static String getCommonPrefix(final JsonNode labels, final JsonNode buildNumbers) {
+        if (labels.size() != buildNumbers.size() || labels.size() == 0) {
+            return null;
+        }
+
+        String prefix = null;
+        for (int i = 0; i < labels.size(); i++) {
+            var label = labels.get(i);
+            var build = buildNumbers.get(i);
+            if (!label.isString() || !build.isIntegralNumber()) {
+                return null;
+            }
+            var number = String.valueOf(build.asLong());
+            var text = label.asString();
+            if (!text.endsWith(number)) {
+                return null;
+            }
+            var candidate = text.substring(0, text.length() - number.length());
+            if (prefix == null) {
+                prefix = candidate;
+            }
+            else if (!prefix.equals(candidate)) {
+                return null;
+            }
+        }
+        return prefix;
+    }
+
+    private static void encodeColumn(final ObjectNode node, final String property) {
+        var values = node.get(property);
+        if (!isArray(values) || values.size() == 0) {
+            return;
+        }
+
+        var column = ChartModelWriter.getObjectMapper().createObjectNode();
+        if (isIntegral(values)) {
+            var deltas = column.putArray(DELTA);
+            long previous = 0;
+            for (JsonNode value : values) {
+                long current = value.asLong();
+                deltas.add(current - previous);
+                previous = current;
+            }
+        }
+        else if (isNumeric(values)) {
+            column.put(FLOAT64, toBase64(values));
+        }
+        else {
+            return; // leave the plain values
+        }
+        node.set(property, column);
+    }
+
+    private static boolean isIntegral(final JsonNode values) {
+        for (JsonNode value : values) {
+            if (!value.isIntegralNumber()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isNumeric(final JsonNode values) {
+        for (JsonNode value : values) {
+            if (!value.isNumber()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static String toBase64(final JsonNode values) {
+        var buffer = ByteBuffer.allocate(values.size() * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        for (JsonNode value : values) {
+            buffer.putDouble(value.asDouble());
+        }
+        return Base64.getEncoder().encodeToString(buffer.array());
+    }
+
+    private TrendColumnarEncoding() {
+        // prevents instantiation
+    }
+}
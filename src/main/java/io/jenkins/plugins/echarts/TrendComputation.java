@@ -0,0 +1,191 @@
+package io.jenkins.plugins.echarts;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import jenkins.util.SystemProperties;
+
+/**
+ * Computes the models of trend charts and coalesces concurrent identical requests: if a model with the same key (job,
+ * action, latest build, and configuration) is already being computed, then the request waits for the computation in
+ * progress instead of walking the build history again. So if a popular job page is opened by many users right after
+ * a build has been completed, the model of each chart is computed only once.
+ *
+ * <p>
+ * The model is computed in the thread of the first request (the leader), all other requests wait for its result. So
+ * the context of the request is available to the computation without any propagation: the current Stapler request,
+ * the locale, the security context, the {@link HistoryLimits}, and the {@link BuildHistoryTraversal} are all bound to
+ * the requesting thread. The number of requests that walk build histories at the same time is bounded independently
+ * of the number of HTTP request threads: a leader waits until a permit is available. If the leader is interrupted
+ * while waiting, then one of the waiting requests takes over the computation. A request waits for the result of the
+ * leader only for a limited time: if the leader is stuck (e.g., due to a slow file system), then the waiting request
+ * computes the model in its own thread (again bounded by the number of permits) instead of blocking its HTTP request
+ * thread indefinitely.
+ * </p>
+ *
+ * <p>
+ * The number of concurrent computations can be configured using the system property {@code
+ * io.jenkins.plugins.echarts.TrendComputation.threads}, the time a request waits for the result of the leader
+ * (in milliseconds) using the system property {@code io.jenkins.plugins.echarts.TrendComputation.followerTimeout}.
+ * </p>
+ */
+final class TrendComputation {
+    private static final int THREADS = Math.max(1, SystemProperties.getInteger(
+            TrendComputation.class.getName() + ".threads",
+            Math.max(2, Runtime.getRuntime().availableProcessors() / 2)));
+    private static final Duration FOLLOWER_TIMEOUT = Duration.ofMillis(Math.max(1, SystemProperties.getLong(
+            TrendComputation.class.getName() + ".followerTimeout", 10_000L)));
+
+    private static final TrendComputation INSTANCE = new TrendComputation(THREADS, FOLLOWER_TIMEOUT);
+
+    /**
+     * Returns the computation that is shared by all trend chart actions.
+     *
+     * @return the shared computation
+     */
+    static TrendComputation getInstance() {
+        return INSTANCE;
+    }
+
+    private final Semaphore permits;
+    private final Duration followerTimeout;
+    private final Map<Object, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+    TrendComputation(final int concurrentComputations) {
+        this(concurrentComputations, FOLLOWER_TIMEOUT);
+    }
+
+    TrendComputation(final int concurrentComputations, final Duration followerTimeout) {
+        permits = new Semaphore(Math.max(1, concurrentComputations));
+        this.followerTimeout = followerTimeout;
+    }
+
+    /**
+     * Returns the result of the specified computation. If a computation with the same key is already in progress,
+     * then the result of that computation is returned. Otherwise, or if the computation in progress does not finish in
+     * time, the computation is invoked in the calling thread.
+     *
+     * @param key
+     *         the key that identifies identical computations
+     * @param action
+     *         the action that renders the trend chart, used to tag the metrics of the computation
+     * @param computation
+     *         the computation of the model
+     *
+     * @return the result of the computation
+     */
+    String compute(final Object key, final Object action, final Supplier<String> computation) {
+        if (BuildHistoryTraversal.current().isPresent()) {
+            return computation.get();
+        }
+
+        while (true) {
+            var created = new CompletableFuture<String>();
+            var existing = inFlight.putIfAbsent(key, created);
+            if (existing == null) {
+                return lead(key, action, computation, created);
+            }
+            try {
+                var result = await(existing);
+                if (result != null) {
+                    return result;
+                }
+                // the leader has been interrupted before computing the model: try to take over
+            }
+            catch (TimeoutException exception) {
+                return computeAlone(action, computation); // the leader is stuck: do not wait any longer
+            }
+        }
+    }
+
+    /**
+     * Returns the number of computations that are currently in progress.
+     *
+     * @return the number of computations in progress
+     */
+    int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    private String lead(final Object key, final Object action, final Supplier<String> computation,
+            final CompletableFuture<String> future) {
+        try {
+            acquirePermit();
+        }
+        catch (CancellationException exception) {
+            inFlight.remove(key, future);
+            future.cancel(false);
+
+            throw exception;
+        }
+        try {
+            var result = TrendMetrics.callWith(action, computation);
+            inFlight.remove(key, future);
+            future.complete(result);
+            return result;
+        }
+        catch (RuntimeException | Error exception) {
+            inFlight.remove(key, future);
+            future.completeExceptionally(exception);
+            throw exception;
+        }
+        finally {
+            permits.release();
+        }
+    }
+
+    private String computeAlone(final Object action, final Supplier<String> computation) {
+        acquirePermit();
+        try {
+            return TrendMetrics.callWith(action, computation);
+        }
+        finally {
+            permits.release();
+        }
+    }
+
+    private void acquirePermit() {
+        try {
+            permits.acquire();
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+
+            throw new CancellationException("Waiting for the computation of the trend model has been interrupted");
+        }
+    }
+
+    @CheckForNull
+    private String await(final CompletableFuture<String> future) throws TimeoutException {
+        try {
+            return future.get(followerTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        catch (CancellationException exception) {
+            return null;
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt(); // the computation continues for the other requests
+
+            throw new CancellationException("Waiting for the trend model has been interrupted");
+        }
+        catch (ExecutionException exception) {
+            if (exception.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (exception.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Computation of the trend model failed", exception.getCause());
+        }
+    }
+}
@@ -0,0 +1,375 @@
+package io.jenkins.plugins.echarts;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.node.ArrayNode;
+import tools.jackson.databind.node.ObjectNode;
+
+/**
+ * Reduces the number of points of a trend chart model, so that the size of the model and the time to render the chart
+ * do not grow with the build history. The downsampling is applied to the JSON structure of a {@code LinesChartModel}:
+ * the domain axis labels, the build numbers, and the values of all series are reduced to the same selected points.
+ * The points are selected for each series separately, the chart shows the union of these points. So a spike in one
+ * series remains visible even if it is compensated by another series. Since the series share most of the selected
+ * points (e.g., the first and the last point or the points of correlated series), the budget is allocated based on
+ * the union: each series gets as many points as possible while the union still fits into the chart, but at least
+ * {@value #MINIMUM_SHARE} points. If the union of these minimal selections still contains more points than the chart
+ * can show (i.e., if the chart contains a lot of series), then the most significant points are kept: the points that
+ * deviate the most from the line between their selected neighbors.
+ *
+ * <p>
+ * Note that the downsampling is applied to the complete model: it reduces the size of the model and the time to render
+ * the chart in the browser, but not the time to compute the model on the server.
+ * </p>
+ *
+ * <p>
+ * The strategy is selected using the property {@code downsampling} of the chart configuration:
+ * </p>
+ * <ul>
+ *     <li>{@code lttb}: Largest-Triangle-Three-Buckets, keeps the visual shape of the trend</li>
+ *     <li>{@code minmax}: keeps the minimum and the maximum of each bucket, so that all spikes remain visible</li>
+ * </ul>
+ *
+ * <p>
+ * The number of points is derived from the width of the chart in the configuration: one point for every {@value
+ * #PIXELS_PER_POINT} pixels. The first and the last point are always kept.
+ * </p>
+ */
+final class TrendDownsampler {
+    static final String PROPERTY = "downsampling";
+    static final int PIXELS_PER_POINT = 2;
+
+    private static final int DEFAULT_WIDTH = 500;
+    private static final int MINIMUM_POINTS = 10;
+    private static final int MINIMUM_SHARE = 4;
+
+    private static final String BUILD_NUMBERS = "buildNumbers";
+    private static final String DOMAIN_AXIS_LABELS = "domainAxisLabels";
+    private static final String SERIES = "series";
+    private static final String DATA = "data";
+
+    /**
+     * The available downsampling strategies.
+     */
+    enum Strategy {
+        NONE,
+        LTTB,
+        MIN_MAX;
+
+        static Strategy fromConfiguration(final TrendChartConfiguration configuration) {
+            return switch (configuration.getString(PROPERTY, "").toLowerCase(Locale.ENGLISH)) {
+                case "lttb" -> LTTB;
+                case "minmax", "min-max", "min_max" -> MIN_MAX;
+                default -> NONE;
+            };
+        }
+    }
+
+    /**
+     * Returns whether the specified configuration requests downsampling.
+     *
+     * @param configuration
+     *         the configuration of the chart
+     *
+     * @return {@code true} if the model should be downsampled, {@code false} otherwise
+     */
+    static boolean isEnabled(final TrendChartConfiguration configuration) {
+        return Strategy.fromConfiguration(configuration) != Strategy.NONE;
+    }
+
+    /**
+     * Returns the number of points that should be shown in the chart.
+     *
+     * @param configuration
+     *         the configuration of the chart
+     *
+     * @return the number of points
+     */
+    static int getTargetPoints(final TrendChartConfiguration configuration) {
+        return Math.max(MINIMUM_POINTS, configuration.getWidth(DEFAULT_WIDTH) / PIXELS_PER_POINT);
+    }
+
+    /**
+     * Downsamples the specified model if the configuration requests downsampling and the model contains more points
+     * than the chart can show.
+     *
+     * @param model
+     *         the model to downsample (typically a {@code LinesChartModel})
+     * @param configuration
+     *         the configuration of the chart
+     *
+     * @return the downsampled model (as JSON tree), or the specified model if no downsampling is required
+     */
+    static Object downsample(final Object model, final TrendChartConfiguration configuration) {
+        var strategy = Strategy.fromConfiguration(configuration);
+        if (strategy == Strategy.NONE || model == null) {
+            return model;
+        }
+
+        JsonNode tree = ChartModelWriter.getObjectMapper().valueToTree(model);
+        if (!(tree instanceof ObjectNode modelNode) || !hasPoints(modelNode)) {
+            return model;
+        }
+
+        int points = modelNode.get(BUILD_NUMBERS).size();
+        int target = getTargetPoints(configuration);
+        if (points <= target) {
+            return model;
+        }
+
+        var selected = select(getSeriesValues(modelNode.get(SERIES), points), points, target, strategy);
+
+        select(modelNode, BUILD_NUMBERS, selected);
+        select(modelNode, DOMAIN_AXIS_LABELS, selected);
+        for (JsonNode series : modelNode.get(SERIES)) {
+            if (series instanceof ObjectNode seriesNode) {
+                select(seriesNode, DATA, selected);
+            }
+        }
+        return modelNode;
+    }
+
+    private static boolean hasPoints(final ObjectNode model) {
+        var buildNumbers = model.get(BUILD_NUMBERS);
+        var series = model.get(SERIES);
+        return buildNumbers != null && buildNumbers.isArray() && series != null && series.isArray();
+    }
+
+    private static List<double[]> getSeriesValues(final JsonNode series, final int points) {
+        List<double[]> values = new ArrayList<>();
+        for (JsonNode line : series) {
+            var data = line.get(DATA);
+            if (data != null && data.isArray()) {
+                var lineValues = new double[points];
+                for (int i = 0; i < points && i < data.size(); i++) {
+                    lineValues[i] = data.get(i).asDouble(0);
+                }
+                values.add(lineValues);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Selects the points of all series. Each series gets the largest share of points so that the union of the points
+     * of all series does not exceed the target. If even the minimal share of each series exceeds the target, then the
+     * most significant points of the union are selected.
+     *
+     * @param series
+     *         the values of each series
+     * @param points
+     *         the number of points of the model
+     * @param target
+     *         the maximum number of points to select
+     * @param strategy
+     *         the downsampling strategy
+     *
+     * @return the indices of the selected points in ascending order
+     */
+    static int[] select(final List<double[]> series, final int points, final int target, final Strategy strategy) {
+        if (series.isEmpty()) {
+            return lttb(new double[points], target); // no values: select evenly distributed points
+        }
+
+        int minimumShare = Math.max(MINIMUM_SHARE, target / series.size());
+        var union = selectUnion(series, minimumShare, strategy);
+        if (union.size() > target) {
+            return selectMostSignificant(series, minimumShare, target, strategy);
+        }
+
+        int low = minimumShare;
+        int high = points;
+        while (low < high) { // find the largest share whose union still fits into the target
+            int share = (low + high + 1) >>> 1;
+            var candidate = selectUnion(series, share, strategy);
+            if (candidate.size() <= target) {
+                low = share;
+                union = candidate;
+            }
+            else {
+                high = share - 1;
+            }
+        }
+        return union.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int[] select(final double[] values, final int share, final Strategy strategy) {
+        return strategy == Strategy.LTTB ? lttb(values, share) : minMax(values, share);
+    }
+
+    private static SortedSet<Integer> selectUnion(final List<double[]> series, final int share,
+            final Strategy strategy) {
+        var union = new TreeSet<Integer>();
+        for (double[] values : series) {
+            for (int index : select(values, share, strategy)) {
+                union.add(index);
+            }
+        }
+        return union;
+    }
+
+    /**
+     * Selects the most significant points of the union of the points of all series. The significance of a point is
+     * the area of the triangle that is formed with its selected neighbors in the same series, the first and the last
+     * point are always kept. If a point is selected in several series, then the largest area is used.
+     */
+    private static int[] selectMostSignificant(final List<double[]> series, final int share, final int target,
+            final Strategy strategy) {
+        Map<Integer, Double> significance = new HashMap<>();
+        for (double[] values : series) {
+            var selected = select(values, share, strategy);
+            for (int i = 0; i < selected.length; i++) {
+                double area = i == 0 || i == selected.length - 1 ? Double.POSITIVE_INFINITY
+                        : getArea(values, selected[i - 1], selected[i], selected[i + 1]);
+                significance.merge(selected[i], area, Math::max);
+            }
+        }
+        return significance.entrySet().stream()
+                .sorted((a, b) -> {
+                    int comparison = Double.compare(b.getValue(), a.getValue());
+                    return comparison == 0 ? Integer.compare(a.getKey(), b.getKey()) : comparison;
+                })
+                .limit(target)
+                .mapToInt(Map.Entry::getKey)
+                .sorted()
+                .toArray();
+    }
+
+    private static double getArea(final double[] values, final int previous, final int current, final int next) {
+        return Math.abs((previous - next) * (values[current] - values[previous])
+                - (previous - current) * (values[next] - values[previous])) / 2;
+    }
+
+    private static void select(final ObjectNode node, final String property, final int[] selected) {
+        var values = node.get(property);
+        if (values == null || !values.isArray()) {
+            return;
+        }
+
+        ArrayNode reduced = ChartModelWriter.getObjectMapper().createArrayNode();
+        for (int index : selected) {
+            if (index < values.size()) {
+                reduced.add(values.get(index));
+            }
+        }
+        node.set(property, reduced);
+    }
+
+    /**
+     * Selects the points using the Largest-Triangle-Three-Buckets algorithm. The x-coordinate of each point is its
+     * index.
+     *
+     * @param values
+     *         the values of the points
+     * @param threshold
+     *         the number of points to select
+     *
+     * @return the indices of the selected points in ascending order
+     */
+    static int[] lttb(final double[] values, final int threshold) {
+        int length = values.length;
+        if (threshold >= length || threshold < 3) {
+            return allIndices(length);
+        }
+
+        var selected = new int[threshold];
+        double bucketSize = (double) (length - 2) / (threshold - 2);
+
+        int previous = 0;
+        selected[0] = 0;
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            int nextStart = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min((int) Math.floor((bucket + 2) * bucketSize) + 1, length);
+            double averageX = 0;
+            double averageY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                averageX += i;
+                averageY += values[i];
+            }
+            int nextSize = Math.max(1, nextEnd - nextStart);
+            averageX /= nextSize;
+            averageY /= nextSize;
+
+            int start = (int) Math.floor(bucket * bucketSize) + 1;
+            int end = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            double maximumArea = -1;
+            int maximumIndex = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs((previous - averageX) * (values[i] - values[previous])
+                        - (previous - i) * (averageY - values[previous]));
+                if (area > maximumArea) {
+                    maximumArea = area;
+                    maximumIndex = i;
+                }
+            }
+            selected[bucket + 1] = maximumIndex;
+            previous = maximumIndex;
+        }
+        selected[threshold - 1] = length - 1;
+
+        return selected;
+    }
+
+    /**
+     * Selects the points with the minimum and the maximum value of each bucket. The number of buckets is half of the
+     * threshold, so that the number of selected points does not exceed the threshold.
+     *
+     * @param values
+     *         the values of the points
+     * @param threshold
+     *         the maximum number of points to select
+     *
+     * @return the indices of the selected points in ascending order
+     */
+    static int[] minMax(final double[] values, final int threshold) {
+        int length = values.length;
+        if (threshold >= length || threshold < 4) {
+            return allIndices(length);
+        }
+
+        var selected = new TreeSet<Integer>();
+        selected.add(0);
+        selected.add(length - 1);
+
+        int buckets = (threshold - 2) / 2;
+        double bucketSize = (double) (length - 2) / buckets;
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            int start = (int) Math.floor(bucket * bucketSize) + 1;
+            int end = Math.min((int) Math.floor((bucket + 1) * bucketSize) + 1, length - 1);
+            if (start >= end) {
+                continue;
+            }
+            int minimum = start;
+            int maximum = start;
+            for (int i = start + 1; i < end; i++) {
+                if (values[i] < values[minimum]) {
+                    minimum = i;
+                }
+                if (values[i] > values[maximum]) {
+                    maximum = i;
+                }
+            }
+            selected.add(minimum);
+            selected.add(maximum);
+        }
+        return selected.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int[] allIndices(final int length) {
+        var indices = new int[length];
+        for (int i = 0; i < length; i++) {
+            indices[i] = i;
+        }
+        return indices;
+    }
+
+    private TrendDownsampler() {
+        // prevents instantiation
+    }
+}
@@ -0,0 +1,477 @@
+package io.jenkins.plugins.echarts;
+
+import edu.hm.hafner.echarts.Build;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import hudson.Extension;
+import hudson.model.Item;
+import hudson.model.Job;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.model.listeners.ItemListener;
+import hudson.model.listeners.RunListener;
+import jenkins.util.SystemProperties;
+import jenkins.util.Timer;
+
+import io.jenkins.plugins.util.BuildAction;
+
+/**
+ * A compact index of the build history of a job that is stored next to the job in the file {@value #FILE_NAME}. For
+ * each build the index stores the build number, the timestamp, the display name, the number of the previous build, and
+ * the types of the {@link BuildAction build actions} that are attached to the build. Using this index, an {@link
+ * ActionSelector} can skip builds that do not contain the requested action without loading these builds from disk.
+ * Builds that are not part of the index are still visited in the usual way and will be added to the index afterward.
+ * For each action type, the index additionally keeps the sorted numbers of the builds that contain such an action.
+ * So the previous build with a given action type is found with a single lookup, even if the job contains thousands
+ * of builds without this action (e.g., if static analysis runs only nightly while the tests run for each commit).
+ *
+ * <p>
+ * The index of a job is dropped if the job is deleted, renamed, or moved: a pending save of the dropped index is
+ * skipped, so the index is never written into the previous directory of the job. The index is loaded again from the
+ * new directory of the job when it is used the next time.
+ * </p>
+ *
+ * <p>
+ * The index is disabled by default. It can be enabled using the system property {@code
+ * io.jenkins.plugins.echarts.TrendIndex.enabled}.
+ * </p>
+ */
+public final class TrendIndex {
+    static final String FILE_NAME = "echarts-trend-index.bin";
+
+    /** Indicates that the index does not contain information about a build. */
+    static final int UNKNOWN = -1;
+    /** Indicates that there is no previous build. */
+    static final int NO_BUILD = 0;
+
+    private static final Logger LOGGER = Logger.getLogger(TrendIndex.class.getName());
+
+    private static final int MAGIC = 0x45435449; // ECTI
+    private static final int VERSION = 1;
+    private static final long SAVE_DELAY = 10;
+
+    private static final boolean ENABLED = SystemProperties.getBoolean(TrendIndex.class.getName() + ".enabled");
+    private static final Map<Job<?, ?>, TrendIndex> INDICES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Returns the index of the specified job. If the index is disabled, then an empty result is returned.
+     *
+     * @param job
+     *         the job to get the index for
+     *
+     * @return the index of the job, or an empty result if the index is disabled
+     */
+    public static Optional<TrendIndex> forJob(@CheckForNull final Job<?, ?> job) {
+        if (!ENABLED || job == null) {
+            return Optional.empty();
+        }
+        return Optional.of(INDICES.computeIfAbsent(job, TrendIndex::load));
+    }
+
+    /**
+     * Drops the index of the specified job and of all jobs that are nested in the specified item.
+     *
+     * @param fullName
+     *         the (current) full name of the item
+     */
+    static void drop(final String fullName) {
+        var prefix = fullName + '/';
+        List<TrendIndex> dropped = new ArrayList<>();
+        synchronized (INDICES) {
+            var iterator = INDICES.entrySet().iterator();
+            while (iterator.hasNext()) {
+                var entry = iterator.next();
+                var name = entry.getKey().getFullName();
+                if (name.equals(fullName) || name.startsWith(prefix)) {
+                    dropped.add(entry.getValue());
+                    iterator.remove();
+                }
+            }
+        }
+        dropped.forEach(TrendIndex::discard);
+    }
+
+    private static TrendIndex load(final Job<?, ?> job) {
+        var index = new TrendIndex(job.getRootDir().toPath().resolve(FILE_NAME));
+        index.read();
+        return index;
+    }
+
+    private final Path file;
+    private final NavigableMap<Integer, IndexedBuild> builds = new TreeMap<>();
+    private final Map<String, NavigableSet<Integer>> buildsByActionType = new HashMap<>();
+    /** Builds that are referenced as previous build of an indexed build, but that are not indexed themselves. */
+    private final NavigableSet<Integer> unindexedBuilds = new TreeSet<>();
+    private boolean dirty;
+    private boolean saveScheduled;
+    private boolean discarded;
+
+    TrendIndex(final Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Returns the number of the nearest build before the specified build that might contain an action of the
+     * specified type. All indexed builds that do not contain such an action are skipped: the result is either the
+     * previous build that contains such an action or the previous build that is not indexed yet, whichever is newer.
+     *
+     * @param number
+     *         the number of the build to start from
+     * @param actionType
+     *         the type of the action
+     *
+     * @return the number of the previous candidate build, {@link #NO_BUILD} if there is no such build, or {@link
+     *         #UNKNOWN} if the start build is not part of the index or if its previous build cannot be resolved
+     */
+    synchronized int findPreviousCandidate(final int number, final Class<?> actionType) {
+        var start = builds.get(number);
+        if (start == null || isUnresolved(start.previous)) {
+            return UNKNOWN;
+        }
+
+        int candidate = NO_BUILD;
+        var withAction = buildsByActionType.get(actionType.getName());
+        if (withAction != null) {
+            candidate = Objects.requireNonNullElse(withAction.lower(number), NO_BUILD);
+        }
+        var unindexed = unindexedBuilds.lower(number);
+        if (unindexed != null) {
+            candidate = Math.max(candidate, unindexed);
+        }
+        return candidate;
+    }
+
+    private boolean isUnresolved(final int previous) {
+        return previous > NO_BUILD && !builds.containsKey(previous) && !unindexedBuilds.contains(previous);
+    }
+
+    /**
+     * Returns whether the specified build is part of this index.
+     *
+     * @param number
+     *         the number of the build
+     *
+     * @return {@code true} if the build is part of the index, {@code false} otherwise
+     */
+    synchronized boolean contains(final int number) {
+        return builds.containsKey(number);
+    }
+
+    /**
+     * Returns the properties of the specified build.
+     *
+     * @param number
+     *         the number of the build
+     *
+     * @return the build, or an empty result if the build is not part of the index
+     */
+    public synchronized Optional<Build> getBuild(final int number) {
+        var build = builds.get(number);
+        if (build == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new Build(build.number, build.displayName, (int) (build.timestamp / 1000)));
+    }
+
+    /**
+     * Returns the number of builds in this index.
+     *
+     * @return the number of builds
+     */
+    public synchronized int size() {
+        return builds.size();
+    }
+
+    /**
+     * Adds the specified build to the index. Builds that are still running will be ignored.
+     *
+     * @param run
+     *         the build to add
+     */
+    public void record(final Run<?, ?> run) {
+        if (run.isBuilding()) {
+            return;
+        }
+
+        Set<String> actionTypes = new LinkedHashSet<>();
+        for (BuildAction<?> action : run.getActions(BuildAction.class)) {
+            for (Class<?> type = action.getClass(); type != null && !BuildAction.class.equals(type);
+                    type = type.getSuperclass()) {
+                actionTypes.add(type.getName());
+            }
+        }
+        Run<?, ?> previousBuild = run.getPreviousBuild();
+        int previous = previousBuild == null ? NO_BUILD : previousBuild.getNumber();
+
+        add(new IndexedBuild(run.getNumber(), run.getTimeInMillis(), run.getDisplayName(), previous, actionTypes));
+    }
+
+    synchronized void add(final IndexedBuild build) {
+        index(build);
+        markDirty();
+    }
+
+    private void index(final IndexedBuild build) {
+        var replaced = builds.put(build.number, build);
+        if (replaced != null) {
+            unindexActionTypes(replaced);
+        }
+        for (String type : build.actionTypes) {
+            buildsByActionType.computeIfAbsent(type, key -> new TreeSet<>()).add(build.number);
+        }
+        unindexedBuilds.remove(build.number);
+        if (build.previous > NO_BUILD && !builds.containsKey(build.previous)) {
+            unindexedBuilds.add(build.previous);
+        }
+    }
+
+    private void unindexActionTypes(final IndexedBuild build) {
+        for (String type : build.actionTypes) {
+            var withAction = buildsByActionType.get(type);
+            if (withAction != null) {
+                withAction.remove(build.number);
+                if (withAction.isEmpty()) {
+                    buildsByActionType.remove(type);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes the specified build from the index. The successor of the removed build will be linked to the
+     * predecessor of the removed build. If the predecessor is not known, then the successor remains linked to the
+     * removed build, so that {@link #findPreviousCandidate(int, Class)} falls back to the build history of the job.
+     *
+     * @param number
+     *         the number of the build to remove
+     */
+    public void remove(final int number) {
+        remove(number, UNKNOWN);
+    }
+
+    /**
+     * Removes the specified build from the index. The successor of the removed build will be linked to the
+     * predecessor of the removed build.
+     *
+     * @param number
+     *         the number of the build to remove
+     * @param previous
+     *         the number of the build before the removed build, {@link #NO_BUILD} if there is no such build, or
+     *         {@link #UNKNOWN} if the previous build is not known (only used if the removed build is not indexed)
+     */
+    public synchronized void remove(final int number, final int previous) {
+        unindexedBuilds.remove(number); // a build that does not exist anymore should not be a candidate
+        var removed = builds.remove(number);
+        if (removed != null) {
+            unindexActionTypes(removed);
+        }
+        int predecessor = removed == null ? previous : removed.previous;
+        if (predecessor == UNKNOWN) {
+            if (removed != null) {
+                markDirty();
+            }
+            return;
+        }
+
+        boolean relinked = false;
+        for (IndexedBuild build : builds.tailMap(number, false).values()) {
+            if (build.previous == number) {
+                build.previous = predecessor;
+                relinked = true;
+                break;
+            }
+        }
+        if (relinked && predecessor > NO_BUILD && !builds.containsKey(predecessor)) {
+            unindexedBuilds.add(predecessor); // the predecessor is still part of the history of the job
+        }
+        if (removed != null || relinked) {
+            markDirty();
+        }
+    }
+
+    private void markDirty() {
+        dirty = true;
+        if (!saveScheduled) {
+            saveScheduled = true;
+            Timer.get().schedule(this::save, SAVE_DELAY, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Discards this index: pending changes will not be written anymore.
+     */
+    synchronized void discard() {
+        discarded = true;
+    }
+
+    void save() {
+        List<IndexedBuild> snapshot;
+        synchronized (this) {
+            saveScheduled = false;
+            if (!dirty || discarded) {
+                return;
+            }
+            dirty = false;
+            snapshot = new ArrayList<>(builds.values());
+        }
+
+        try {
+            write(snapshot);
+        }
+        catch (IOException exception) {
+            LOGGER.log(Level.WARNING, "Can't write trend index " + file, exception);
+        }
+    }
+
+    private void write(final List<IndexedBuild> snapshot) throws IOException {
+        Map<String, Integer> types = new HashMap<>();
+        List<String> typeNames = new ArrayList<>();
+        for (IndexedBuild build : snapshot) {
+            for (String type : build.actionTypes) {
+                types.computeIfAbsent(type, name -> {
+                    typeNames.add(name);
+                    return typeNames.size() - 1;
+                });
+            }
+        }
+
+        var temporary = file.resolveSibling(FILE_NAME + ".tmp");
+        try (var output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeInt(typeNames.size());
+            for (String typeName : typeNames) {
+                output.writeUTF(typeName);
+            }
+            output.writeInt(snapshot.size());
+            for (IndexedBuild build : snapshot) {
+                output.writeInt(build.number);
+                output.writeLong(build.timestamp);
+                output.writeUTF(build.displayName);
+                output.writeInt(build.previous);
+                output.writeShort(build.actionTypes.size());
+                for (String type : build.actionTypes) {
+                    output.writeShort(types.get(type));
+                }
+            }
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    synchronized void read() {
+        if (!Files.exists(file)) {
+            return;
+        }
+
+        try (var input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                LOGGER.log(Level.INFO, "Ignoring trend index with unsupported format " + file);
+                return;
+            }
+            int typeCount = input.readInt();
+            List<String> typeNames = new ArrayList<>(typeCount);
+            for (int i = 0; i < typeCount; i++) {
+                typeNames.add(input.readUTF());
+            }
+            int buildCount = input.readInt();
+            for (int i = 0; i < buildCount; i++) {
+                int number = input.readInt();
+                long timestamp = input.readLong();
+                var displayName = input.readUTF();
+                int previous = input.readInt();
+                int actionCount = input.readShort();
+                Set<String> actionTypes = new LinkedHashSet<>();
+                for (int j = 0; j < actionCount; j++) {
+                    actionTypes.add(typeNames.get(input.readShort()));
+                }
+                index(new IndexedBuild(number, timestamp, displayName, previous, actionTypes));
+            }
+        }
+        catch (IOException | IndexOutOfBoundsException exception) {
+            LOGGER.log(Level.WARNING, "Ignoring corrupt trend index " + file, exception);
+            builds.clear();
+            buildsByActionType.clear();
+            unindexedBuilds.clear();
+        }
+    }
+
+    /**
+     * The properties of a build that are stored in the index.
+     */
+    static final class IndexedBuild {
+        private final int number;
+        private final long timestamp;
+        private final String displayName;
+        private final Set<String> actionTypes;
+        private int previous;
+
+        IndexedBuild(final int number, final long timestamp, final String displayName, final int previous,
+                final Set<String> actionTypes) {
+            this.number = number;
+            this.timestamp = timestamp;
+            this.displayName = displayName;
+            this.previous = previous;
+            this.actionTypes = actionTypes;
+        }
+    }
+
+    /**
+     * Updates the index of a job if a new build has been completed or an existing build has been deleted.
+     */
+    @Extension
+    public static class IndexUpdater extends RunListener<Run<?, ?>> {
+        @Override
+        public void onCompleted(final Run<?, ?> run, final TaskListener listener) {
+            forJob(run.getParent()).ifPresent(index -> index.record(run));
+        }
+
+        @Override
+        public void onDeleted(final Run<?, ?> run) {
+            Run<?, ?> previousBuild = run.getPreviousBuild();
+            int previous = previousBuild == null ? NO_BUILD : previousBuild.getNumber();
+            forJob(run.getParent()).ifPresent(index -> index.remove(run.getNumber(), previous));
+        }
+    }
+
+    /**
+     * Drops the index of a job if the job has been deleted, renamed, or moved.
+     */
+    @Extension
+    public static class IndexRemover extends ItemListener {
+        @Override
+        public void onDeleted(final Item item) {
+            drop(item.getFullName());
+        }
+
+        @Override
+        public void onLocationChanged(final Item item, final String oldFullName, final String newFullName) {
+            drop(newFullName); // the job instances keep their identity, only their names change
+        }
+    }
+}
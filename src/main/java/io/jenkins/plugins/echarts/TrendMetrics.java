@@ -0,0 +1,512 @@
+package io.jenkins.plugins.echarts;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import jenkins.util.SystemProperties;
+
+/**
+ * Collects performance metrics of the trend charts: timers for the walk through the build history, the creation of
+ * the models, and the serialization of the models, as well as counters for the visited builds, the builds whose
+ * actions have been loaded, the size of the serialized models, and the hits and misses of the {@link
+ * TrendModelCache}. All metrics are tagged with the class of the trend action that requested the model.
+ *
+ * <p>
+ * The trend actions activate the tag of the action for the current thread using {@link #callWith(Object, Supplier)}.
+ * Code that walks the build history outside such a scope (e.g., a plugin that uses a {@link BuildActionIterator}
+ * directly) is tagged with the type of the build action instead. The metrics are shown on the management page
+ * {@link TrendMetricsLink} and are available as JSON from the URL {@code manage/echarts-metrics/json}.
+ * </p>
+ *
+ * <p>
+ * The metrics can be disabled using the system property {@code io.jenkins.plugins.echarts.TrendMetrics.disabled}.
+ * </p>
+ */
+public final class TrendMetrics {
+    private static final TrendMetrics INSTANCE = new TrendMetrics(
+            !SystemProperties.getBoolean(TrendMetrics.class.getName() + ".disabled"), System::nanoTime);
+    private static final ThreadLocal<String> CURRENT_TAG = new ThreadLocal<>();
+
+    /**
+     * Returns the metrics that are shared by all trend chart actions.
+     *
+     * @return the shared metrics
+     */
+    public static TrendMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Tags all metrics that are recorded by the current thread while the given supplier is invoked with the class of
+     * the specified trend action.
+     *
+     * @param action
+     *         the trend action that requests a model
+     * @param supplier
+     *         the supplier to invoke
+     * @param <V>
+     *         the type of the result
+     *
+     * @return the result of the supplier
+     */
+    public static <V> V callWith(final Object action, final Supplier<V> supplier) {
+        var previous = CURRENT_TAG.get();
+        CURRENT_TAG.set(action.getClass().getName());
+        try {
+            return supplier.get();
+        }
+        finally {
+            if (previous == null) {
+                CURRENT_TAG.remove();
+            }
+            else {
+                CURRENT_TAG.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Invokes the specified supplier for the given trend action and records the elapsed time.
+     *
+     * @param action
+     *         the trend action
+     * @param timing
+     *         the timer to record the elapsed time for
+     * @param supplier
+     *         the supplier to invoke
+     * @param <V>
+     *         the type of the result
+     *
+     * @return the result of the supplier
+     */
+    public static <V> V time(final Object action, final Timing timing, final Supplier<V> supplier) {
+        return callWith(action, () -> getInstance().forAction(action.getClass()).time(timing, supplier));
+    }
+
+    /**
+     * Creates the model using the specified supplier and converts it to JSON. The time to create and to serialize the
+     * model as well as the size of the JSON representation are recorded for the active trend action.
+     *
+     * @param modelSupplier
+     *         supplies the model
+     *
+     * @return the JSON representation of the model
+     */
+    public static String toJson(final Supplier<?> modelSupplier) {
+        var metrics = getInstance().current(ChartModelWriter.class);
+        var model = metrics.time(Timing.MODEL_CREATION, () -> ParallelBuildActionIterator.closeAfter(modelSupplier));
+        var json = metrics.time(Timing.SERIALIZATION, () -> ChartModelWriter.toJson(model));
+        metrics.increment(Counter.PAYLOAD_BYTES, getUtf8Length(json));
+
+        return json;
+    }
+
+    /**
+     * Returns the number of bytes of the UTF-8 representation of the specified text, without encoding the text.
+     *
+     * @param text
+     *         the text
+     *
+     * @return the number of UTF-8 bytes
+     */
+    static long getUtf8Length(final CharSequence text) {
+        long length = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                length++;
+            }
+            else if (c < 0x800) {
+                length += 2;
+            }
+            else if (Character.isHighSurrogate(c) && i + 1 < text.length()
+                    && Character.isLowSurrogate(text.charAt(i + 1))) {
+                length += 4;
+                i++;
+            }
+            else if (Character.isSurrogate(c)) {
+                length++; // an unpaired surrogate is replaced by '?'
+            }
+            else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    private final boolean enabled;
+    private final LongSupplier clock;
+    private final Map<String, ActionMetrics> metricsByAction = new ConcurrentHashMap<>();
+    private final ActionMetrics disabledMetrics;
+
+    TrendMetrics(final boolean enabled, final LongSupplier clock) {
+        this.enabled = enabled;
+        this.clock = clock;
+
+        disabledMetrics = new ActionMetrics("disabled", false, clock);
+    }
+
+    /**
+     * Returns whether metrics are recorded.
+     *
+     * @return {@code true} if metrics are recorded, {@code false} otherwise
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the metrics of the specified action class.
+     *
+     * @param type
+     *         the class of the action
+     *
+     * @return the metrics of the action
+     */
+    public ActionMetrics forAction(final Class<?> type) {
+        return forTag(type.getName());
+    }
+
+    /**
+     * Returns the metrics of the trend action that is active for the current thread.
+     *
+     * @param fallbackType
+     *         the type that is used as tag if no trend action is active
+     *
+     * @return the metrics of the active action
+     */
+    ActionMetrics current(final Class<?> fallbackType) {
+        var tag = CURRENT_TAG.get();
+        if (tag == null) {
+            return forAction(fallbackType);
+        }
+        return forTag(tag);
+    }
+
+    private ActionMetrics forTag(final String tag) {
+        if (!enabled) {
+            return disabledMetrics;
+        }
+        return metricsByAction.computeIfAbsent(tag, key -> new ActionMetrics(key, true, clock));
+    }
+
+    /**
+     * Returns the metrics of all actions that have recorded values so far.
+     *
+     * @return the metrics, sorted by the name of the action class
+     */
+    public List<ActionMetrics> getMetrics() {
+        var metrics = new ArrayList<>(metricsByAction.values());
+        metrics.sort(Comparator.comparing(ActionMetrics::getAction));
+        return metrics;
+    }
+
+    /**
+     * Returns a map representation of all metrics that can be converted to JSON.
+     *
+     * @return the metrics as map
+     */
+    Map<String, Object> toMap() {
+        List<Map<String, Object>> actions = new ArrayList<>();
+        getMetrics().forEach(metrics -> actions.add(metrics.toMap()));
+
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("enabled", enabled);
+        map.put("actions", actions);
+        return map;
+    }
+
+    /**
+     * Removes all recorded metrics.
+     */
+    public void reset() {
+        metricsByAction.clear();
+    }
+
+    /**
+     * The timers that are recorded for each action.
+     */
+    public enum Timing {
+        /** The walk through the build history, i.e. the selection of the actions of the builds. */
+        HISTORY_WALK,
+        /** The creation of a model, including the walk through the build history. */
+        MODEL_CREATION,
+        /** The serialization of a model to JSON. */
+        SERIALIZATION,
+        /** The evaluation whether a trend chart is visible. */
+        VISIBILITY;
+
+        /**
+         * Returns the ID of this timer that is used in the JSON representation.
+         *
+         * @return the ID
+         */
+        public String getId() {
+            return toCamelCase(name());
+        }
+    }
+
+    /**
+     * The counters that are recorded for each action.
+     */
+    public enum Counter {
+        /** The number of builds that have been visited during the walk through the build history. */
+        RUNS_VISITED,
+        /**
+         * The number of times the actions of a given type have been obtained from a build. This is not the number of
+         * builds that have been loaded from disk: Jenkins loads builds on its own (and might still have them in
+         * memory). Actions that are shared between several trend charts are obtained only once.
+         */
+        ACTION_LOOKUPS,
+        /** The size of the serialized models (number of bytes of the uncompressed UTF-8 encoded JSON). */
+        PAYLOAD_BYTES,
+        /** The number of models that have been served from the {@link TrendModelCache}. */
+        CACHE_HITS,
+        /** The number of models that needed to be computed since they were not found in the {@link TrendModelCache}. */
+        CACHE_MISSES;
+
+        /**
+         * Returns the ID of this counter that is used in the JSON representation.
+         *
+         * @return the ID
+         */
+        public String getId() {
+            return toCamelCase(name());
+        }
+    }
+
+    private static String toCamelCase(final String name) {
+        var id = new StringBuilder();
+        for (String part : name.toLowerCase(Locale.ENGLISH).split("_")) {
+            if (id.isEmpty()) {
+                id.append(part);
+            }
+            else {
+                id.append(Character.toUpperCase(part.charAt(0))).append(part.substring(1));
+            }
+        }
+        return id.toString();
+    }
+
+    /**
+     * The metrics of a single action class.
+     */
+    public static final class ActionMetrics {
+        private final String action;
+        private final boolean enabled;
+        private final LongSupplier clock;
+
+        private final LongAdder[] counters = createAdders(Counter.values().length);
+        private final LongAdder[] timerCounts = createAdders(Timing.values().length);
+        private final LongAdder[] timerTotals = createAdders(Timing.values().length);
+        private final LongAccumulator[] timerMaximums = new LongAccumulator[Timing.values().length];
+
+        private static LongAdder[] createAdders(final int size) {
+            var adders = new LongAdder[size];
+            for (int i = 0; i < size; i++) {
+                adders[i] = new LongAdder();
+            }
+            return adders;
+        }
+
+        ActionMetrics(final String action, final boolean enabled, final LongSupplier clock) {
+            this.action = action;
+            this.enabled = enabled;
+            this.clock = clock;
+
+            for (int i = 0; i < timerMaximums.length; i++) {
+                timerMaximums[i] = new LongAccumulator(Math::max, 0);
+            }
+        }
+
+        public String getAction() {
+            return action;
+        }
+
+        /**
+         * Increments the specified counter by one.
+         *
+         * @param counter
+         *         the counter to increment
+         */
+        public void increment(final Counter counter) {
+            increment(counter, 1);
+        }
+
+        /**
+         * Increments the specified counter by the given value.
+         *
+         * @param counter
+         *         the counter to increment
+         * @param value
+         *         the value to add
+         */
+        public void increment(final Counter counter, final long value) {
+            if (enabled) {
+                counters[counter.ordinal()].add(value);
+            }
+        }
+
+        /**
+         * Starts a measurement.
+         *
+         * @return the start time of the measurement, use {@link #stop(Timing, long)} to record the elapsed time
+         */
+        public long start() {
+            return enabled ? clock.getAsLong() : 0;
+        }
+
+        /**
+         * Records the time that elapsed since the specified start time.
+         *
+         * @param timing
+         *         the timer to record the elapsed time for
+         * @param start
+         *         the start time of the measurement (see {@link #start()})
+         */
+        public void stop(final Timing timing, final long start) {
+            if (enabled) {
+                record(timing, clock.getAsLong() - start);
+            }
+        }
+
+        /**
+         * Records the specified elapsed time.
+         *
+         * @param timing
+         *         the timer to record the elapsed time for
+         * @param nanos
+         *         the elapsed time in nanoseconds
+         */
+        public void record(final Timing timing, final long nanos) {
+            if (enabled) {
+                int index = timing.ordinal();
+                timerCounts[index].increment();
+                timerTotals[index].add(nanos);
+                timerMaximums[index].accumulate(nanos);
+            }
+        }
+
+        /**
+         * Invokes the specified supplier and records the elapsed time.
+         *
+         * @param timing
+         *         the timer to record the elapsed time for
+         * @param supplier
+         *         the supplier to invoke
+         * @param <V>
+         *         the type of the result
+         *
+         * @return the result of the supplier
+         */
+        public <V> V time(final Timing timing, final Supplier<V> supplier) {
+            long start = start();
+            try {
+                return supplier.get();
+            }
+            finally {
+                stop(timing, start);
+            }
+        }
+
+        /**
+         * Returns the current value of the specified counter.
+         *
+         * @param counter
+         *         the counter
+         *
+         * @return the value of the counter
+         */
+        public long getCount(final Counter counter) {
+            return counters[counter.ordinal()].sum();
+        }
+
+        /**
+         * Returns the number of measurements of the specified timer.
+         *
+         * @param timing
+         *         the timer
+         *
+         * @return the number of measurements
+         */
+        public long getCount(final Timing timing) {
+            return timerCounts[timing.ordinal()].sum();
+        }
+
+        /**
+         * Returns the total time of all measurements of the specified timer.
+         *
+         * @param timing
+         *         the timer
+         *
+         * @return the total time in milliseconds
+         */
+        public double getTotalMillis(final Timing timing) {
+            return toMillis(timerTotals[timing.ordinal()].sum());
+        }
+
+        /**
+         * Returns the maximum time of a single measurement of the specified timer.
+         *
+         * @param timing
+         *         the timer
+         *
+         * @return the maximum time in milliseconds
+         */
+        public double getMaximumMillis(final Timing timing) {
+            return toMillis(timerMaximums[timing.ordinal()].get());
+        }
+
+        /**
+         * Returns the average time of the measurements of the specified timer.
+         *
+         * @param timing
+         *         the timer
+         *
+         * @return the average time in milliseconds
+         */
+        public double getMeanMillis(final Timing timing) {
+            long count = getCount(timing);
+            if (count == 0) {
+                return 0;
+            }
+            return getTotalMillis(timing) / count;
+        }
+
+        private double toMillis(final long nanos) {
+            return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> counterValues = new LinkedHashMap<>();
+            for (Counter counter : Counter.values()) {
+                counterValues.put(counter.getId(), getCount(counter));
+            }
+            Map<String, Object> timerValues = new LinkedHashMap<>();
+            for (Timing timing : Timing.values()) {
+                Map<String, Object> timer = new LinkedHashMap<>();
+                timer.put("count", getCount(timing));
+                timer.put("totalMillis", getTotalMillis(timing));
+                timer.put("meanMillis", getMeanMillis(timing));
+                timer.put("maxMillis", getMaximumMillis(timing));
+                timerValues.put(timing.getId(), timer);
+            }
+
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("action", action);
+            map.put("counters", counterValues);
+            map.put("timers", timerValues);
+            return map;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package io.jenkins.plugins.echarts;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+
+import org.kohsuke.stapler.HttpResponse;
+import org.kohsuke.stapler.HttpResponses;
+import org.kohsuke.stapler.StaplerRequest2;
+import org.kohsuke.stapler.StaplerResponse2;
+import org.kohsuke.stapler.verb.GET;
+import org.kohsuke.stapler.verb.POST;
+import hudson.Extension;
+import hudson.model.ManagementLink;
+import hudson.security.Permission;
+import jenkins.model.Jenkins;
+
+import io.jenkins.plugins.util.JenkinsFacade;
+
+/**
+ * Shows the {@link TrendMetrics} of the trend charts on a management page. The metrics are available in a
+ * machine-readable format from the URL {@code manage/echarts-metrics/json}, so they can be collected by monitoring
+ * tools or test harnesses.
+ */
+@Extension
+public class TrendMetricsLink extends ManagementLink {
+    static final String URL_NAME = "echarts-metrics";
+
+    private final JenkinsFacade jenkins;
+
+    /**
+     * Creates a new instance of {@link TrendMetricsLink}.
+     */
+    public TrendMetricsLink() {
+        this(new JenkinsFacade());
+    }
+
+    TrendMetricsLink(final JenkinsFacade jenkins) {
+        super();
+
+        this.jenkins = jenkins;
+    }
+
+    @CheckForNull
+    @Override
+    public String getIconFileName() {
+        return "symbol-solid/gauge-high plugin-font-awesome-api";
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "Trend Chart Metrics";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Shows the time and the number of builds that are required to render the trend charts.";
+    }
+
+    @CheckForNull
+    @Override
+    public String getUrlName() {
+        return URL_NAME;
+    }
+
+    @NonNull
+    @Override
+    public Category getCategory() {
+        return Category.STATUS;
+    }
+
+    @NonNull
+    @Override
+    public Permission getRequiredPermission() {
+        return Jenkins.SYSTEM_READ;
+    }
+
+    /**
+     * Returns the metrics of all trend actions.
+     *
+     * @return the metrics
+     */
+    public List<TrendMetrics.ActionMetrics> getMetrics() {
+        return TrendMetrics.getInstance().getMetrics();
+    }
+
+    public TrendMetrics.Timing[] getTimings() {
+        return TrendMetrics.Timing.values();
+    }
+
+    public TrendMetrics.Counter[] getCounters() {
+        return TrendMetrics.Counter.values();
+    }
+
+    public boolean isEnabled() {
+        return TrendMetrics.getInstance().isEnabled();
+    }
+
+    /**
+     * Formats the specified time for the management page.
+     *
+     * @param millis
+     *         the time in milliseconds
+     *
+     * @return the formatted time
+     */
+    public String format(final double millis) {
+        return String.format(Locale.ENGLISH, "%.2f", millis);
+    }
+
+    /**
+     * Writes the metrics of all trend actions as JSON object to the response.
+     *
+     * @param request
+     *         the HTTP request
+     * @param response
+     *         the HTTP response
+     *
+     * @throws IOException
+     *         if the response could not be written
+     */
+    @GET
+    public void doJson(final StaplerRequest2 request, final StaplerResponse2 response) throws IOException {
+        if (!jenkins.hasPermission(getRequiredPermission())) {
+            response.sendError(StaplerResponse2.SC_FORBIDDEN);
+            return;
+        }
+
+        response.setContentType(TrendModelResponse.CONTENT_TYPE);
+        response.setHeader("Cache-Control", "no-cache");
+        try (var writer = response.getCompressedWriter(request)) {
+            writer.write(ChartModelWriter.toJson(TrendMetrics.getInstance().toMap()));
+        }
+    }
+
+    /**
+     * Removes all recorded metrics.
+     *
+     * @return a redirect to the management page
+     */
+    @POST
+    public HttpResponse doReset() {
+        if (!jenkins.hasPermission(Jenkins.ADMINISTER)) {
+            return HttpResponses.forbidden();
+        }
+
+        TrendMetrics.getInstance().reset();
+
+        return HttpResponses.redirectToDot();
+    }
+}
@@ -0,0 +1,480 @@
+package io.jenkins.plugins.echarts;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import hudson.Extension;
+import hudson.model.Action;
+import hudson.model.Item;
+import hudson.model.Job;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.model.listeners.ItemListener;
+import hudson.model.listeners.RunListener;
+import jenkins.util.SystemProperties;
+
+/**
+ * Caches the JSON representation of trend chart models. Computing a trend chart requires a walk through the build
+ * history of a job, so the serialized model is stored using a key that consists of the job, the trend action, the
+ * latest completed build and the normalized configuration of the chart. All entries of a job are invalidated as soon
+ * as a build of the job completes or is deleted: the key additionally contains the generation of the job, that is
+ * incremented with each invalidation. So a model that has been computed before the invalidation will not be stored
+ * or served afterward. The entries of a job are removed if the job is deleted or renamed. The cache is bounded: the
+ * least recently used entry will be evicted if the maximum size has been reached, and entries will be evicted after a
+ * fixed time to live.
+ *
+ * <p>
+ * The size of the cache can be configured using the system property {@code
+ * io.jenkins.plugins.echarts.TrendModelCache.maximumSize} (use 0 to disable the cache), the time to live (in
+ * milliseconds) using the system property {@code io.jenkins.plugins.echarts.TrendModelCache.timeToLive}.
+ * </p>
+ */
+public final class TrendModelCache {
+    static final String EMPTY_CONFIGURATION = TrendChartConfiguration.EMPTY_JSON;
+
+    private static final int DEFAULT_MAXIMUM_SIZE = 256;
+    private static final long DEFAULT_TIME_TO_LIVE = TimeUnit.MINUTES.toMillis(30);
+    private static final int NO_BUILD = -1;
+    private static final char VARIANT_SEPARATOR = '\n'; // not part of a normalized JSON configuration
+    /** Distinguishes the entity tags of different Jenkins sessions, since the generations are not persisted. */
+    private static final String SESSION = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+    private static final TrendModelCache INSTANCE = new TrendModelCache(
+            SystemProperties.getInteger(TrendModelCache.class.getName() + ".maximumSize", DEFAULT_MAXIMUM_SIZE),
+            SystemProperties.getLong(TrendModelCache.class.getName() + ".timeToLive", DEFAULT_TIME_TO_LIVE),
+            System::currentTimeMillis, TrendComputation.getInstance());
+
+    /**
+     * Returns the cache that is shared by all trend chart actions.
+     *
+     * @return the shared cache
+     */
+    public static TrendModelCache getInstance() {
+        return INSTANCE;
+    }
+
+    private final int maximumSize;
+    private final long timeToLive;
+    private final LongSupplier clock;
+    private final TrendComputation computation;
+    private final Map<Key, Entry> entries;
+    private final Map<String, Long> generations = new HashMap<>();
+    /** The last generation that has been assigned. */
+    private long sequence;
+    /** The generation of all jobs that have not been invalidated since the last removal of a job. */
+    private long baseGeneration;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    TrendModelCache(final int maximumSize, final long timeToLive, final LongSupplier clock) {
+        this(maximumSize, timeToLive, clock, new TrendComputation(Integer.MAX_VALUE));
+    }
+
+    TrendModelCache(final int maximumSize, final long timeToLive, final LongSupplier clock,
+            final TrendComputation computation) {
+        this.maximumSize = Math.max(0, maximumSize);
+        this.timeToLive = timeToLive;
+        this.clock = clock;
+        this.computation = computation;
+
+        entries = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 2406392427869640377L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Key, Entry> eldest) {
+                if (size() > TrendModelCache.this.maximumSize) {
+                    evictionCount.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the JSON model of the specified trend chart. If the model is not yet cached (or outdated), then the
+     * model will be computed using the given supplier and stored in the cache.
+     *
+     * @param job
+     *         the job that owns the trend chart
+     * @param action
+     *         the action that renders the trend chart
+     * @param configuration
+     *         JSON configuration of the chart
+     * @param modelSupplier
+     *         supplies the JSON model of the chart if the model is not cached yet
+     *
+     * @return the JSON model of the trend chart
+     */
+    public String computeIfAbsent(final Job<?, ?> job, final Action action,
+            @CheckForNull final String configuration, final Supplier<String> modelSupplier) {
+        return computeIfAbsent(job, action, TrendChartConfiguration.parse(configuration), modelSupplier);
+    }
+
+    /**
+     * Returns the JSON model of the specified trend chart. If the model is not yet cached (or outdated), then the
+     * model will be computed using the given supplier and stored in the cache. Concurrent requests for the same model
+     * are coalesced: the model is computed only once by the {@link TrendComputation} and all requests wait for the
+     * result of this computation.
+     *
+     * @param job
+     *         the job that owns the trend chart
+     * @param action
+     *         the action that renders the trend chart
+     * @param configuration
+     *         the parsed configuration of the chart
+     * @param modelSupplier
+     *         supplies the JSON model of the chart if the model is not cached yet
+     *
+     * @return the JSON model of the trend chart
+     */
+    public String computeIfAbsent(final Job<?, ?> job, final Action action,
+            final TrendChartConfiguration configuration, final Supplier<String> modelSupplier) {
+        if (maximumSize == 0) {
+            return modelSupplier.get();
+        }
+
+        var key = createKey(job, action, configuration);
+        var metrics = TrendMetrics.getInstance().forAction(action.getClass());
+        var cached = get(key);
+        if (cached != null) {
+            hitCount.incrementAndGet();
+            metrics.increment(TrendMetrics.Counter.CACHE_HITS);
+
+            return cached;
+        }
+
+        missCount.incrementAndGet();
+        metrics.increment(TrendMetrics.Counter.CACHE_MISSES);
+
+        return computation.compute(key, action, () -> {
+            var model = modelSupplier.get();
+            put(key, model); // store the model before the waiting requests are released (if still current)
+            return model;
+        });
+    }
+
+    /**
+     * Returns a variant of the JSON model of the specified trend chart, e.g. the model with the colors of a specific
+     * theme. Variants are cached separately from the model and are invalidated together with the model. If the
+     * variant is not yet cached (or outdated), then the variant will be computed using the given supplier and stored
+     * in the cache.
+     *
+     * @param job
+     *         the job that owns the trend chart
+     * @param action
+     *         the action that renders the trend chart
+     * @param configuration
+     *         the parsed configuration of the chart
+     * @param variant
+     *         identifies the variant of the model
+     * @param variantSupplier
+     *         supplies the variant of the JSON model if the variant is not cached yet
+     *
+     * @return the variant of the JSON model of the trend chart
+     */
+    public String computeVariantIfAbsent(final Job<?, ?> job, final Action action,
+            final TrendChartConfiguration configuration, final String variant,
+            final Supplier<String> variantSupplier) {
+        if (maximumSize == 0) {
+            return variantSupplier.get();
+        }
+
+        var key = createKey(job, action, getVariantConfiguration(configuration, variant));
+        var cached = get(key);
+        if (cached != null) {
+            hitCount.incrementAndGet();
+            TrendMetrics.getInstance().forAction(action.getClass()).increment(TrendMetrics.Counter.CACHE_HITS);
+
+            return cached;
+        }
+
+        var model = variantSupplier.get();
+        put(key, model);
+        return model;
+    }
+
+    /**
+     * Returns whether the specified variant of the JSON model of the trend chart is cached. The hit and miss
+     * statistics are not affected.
+     *
+     * @param job
+     *         the job that owns the trend chart
+     * @param action
+     *         the action that renders the trend chart
+     * @param configuration
+     *         the parsed configuration of the chart
+     * @param variant
+     *         identifies the variant of the model
+     *
+     * @return {@code true} if the variant is cached, {@code false} otherwise
+     */
+    boolean containsVariant(final Job<?, ?> job, final Action action, final TrendChartConfiguration configuration,
+            final String variant) {
+        return maximumSize > 0 && get(createKey(job, action, getVariantConfiguration(configuration, variant))) != null;
+    }
+
+    private String getVariantConfiguration(final TrendChartConfiguration configuration, final String variant) {
+        return configuration.getNormalized() + VARIANT_SEPARATOR + variant;
+    }
+
+    /**
+     * Returns the cached JSON model of the specified trend chart. In contrast to {@link #computeIfAbsent(Job, Action,
+     * TrendChartConfiguration, Supplier)}, the model will not be computed if it is not cached yet.
+     *
+     * @param job
+     *         the job that owns the trend chart
+     * @param action
+     *         the action that renders the trend chart
+     * @param configuration
+     *         the parsed configuration of the chart
+     *
+     * @return the JSON model of the trend chart, or {@code null} if the model is not cached
+     */
+    @CheckForNull
+    public String getIfPresent(final Job<?, ?> job, final Action action, final TrendChartConfiguration configuration) {
+        if (maximumSize == 0) {
+            return null;
+        }
+
+        var cached = get(createKey(job, action, configuration));
+        if (cached != null) {
+            hitCount.incrementAndGet();
+            TrendMetrics.getInstance().forAction(action.getClass()).increment(TrendMetrics.Counter.CACHE_HITS);
+        }
+        return cached;
+    }
+
+    /**
+     * Returns whether the JSON model of the specified trend chart is cached. The hit and miss statistics are not
+     * affected.
+     *
+     * @param job
+     *         the job that owns the trend chart
+     * @param action
+     *         the action that renders the trend chart
+     * @param configuration
+     *         the parsed configuration of the chart
+     *
+     * @return {@code true} if the model is cached, {@code false} otherwise
+     */
+    boolean contains(final Job<?, ?> job, final Action action, final TrendChartConfiguration configuration) {
+        return maximumSize > 0 && get(createKey(job, action, configuration)) != null;
+    }
+
+    /**
+     * Returns an entity tag for the model of the specified trend chart, that can be used to answer conditional HTTP
+     * requests. The tag is derived from the latest completed build, the action, and the normalized configuration of
+     * the chart. Since the tag changes whenever a build of the job is completed or deleted, it can be computed
+     * without creating the model. This is independent of whether the model is cached or not.
+     *
+     * @param job
+     *         the job that owns the trend chart
+     * @param action
+     *         the action that renders the trend chart
+     * @param configuration
+     *         the parsed configuration of the chart
+     *
+     * @return the (weak) entity tag of the model
+     */
+    public String getEntityTag(final Job<?, ?> job, final Action action, final TrendChartConfiguration configuration) {
+        var key = createKey(job, action, configuration);
+        return String.format("W/\"%s-%d-%d-%x\"", SESSION, key.latestBuild(), key.generation(),
+                Objects.hash(key.job(), key.action(), key.configuration()));
+    }
+
+    private synchronized long getGeneration(final String jobName) {
+        return generations.getOrDefault(jobName, baseGeneration);
+    }
+
+    private Key createKey(final Job<?, ?> job, final Action action, final TrendChartConfiguration configuration) {
+        return createKey(job, action, configuration.getNormalized());
+    }
+
+    private Key createKey(final Job<?, ?> job, final Action action, final String normalizedConfiguration) {
+        var jobName = job.getFullName();
+        return new Key(jobName, getActionId(action), getLatestBuildNumber(job), getGeneration(jobName),
+                normalizedConfiguration);
+    }
+
+    private String getActionId(final Action action) {
+        return action.getClass().getName() + '#' + action.getUrlName();
+    }
+
+    private int getLatestBuildNumber(final Job<?, ?> job) {
+        Run<?, ?> lastCompletedBuild = job.getLastCompletedBuild();
+        if (lastCompletedBuild == null) {
+            return NO_BUILD;
+        }
+        return lastCompletedBuild.getNumber();
+    }
+
+    @CheckForNull
+    private synchronized String get(final Key key) {
+        var entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (clock.getAsLong() - entry.created() > timeToLive) {
+            entries.remove(key);
+            evictionCount.incrementAndGet();
+
+            return null;
+        }
+        return entry.json();
+    }
+
+    private synchronized void put(final Key key, final String json) {
+        if (key.generation() == getGeneration(key.job())) { // otherwise the job has been invalidated meanwhile
+            entries.put(key, new Entry(json, clock.getAsLong()));
+        }
+    }
+
+    /**
+     * Removes all cached models of the specified job.
+     *
+     * @param job
+     *         the job to remove the models for
+     */
+    public void invalidate(final Job<?, ?> job) {
+        invalidate(job.getFullName());
+    }
+
+    synchronized void invalidate(final String jobName) {
+        generations.put(jobName, ++sequence);
+        entries.keySet().removeIf(key -> key.job().equals(jobName));
+    }
+
+    /**
+     * Removes the cached models and the generations of the specified item and all nested items. The generations of
+     * all jobs that have not been invalidated yet are changed as well, so that a new job with the same name will not
+     * get the entity tags of the removed job.
+     *
+     * @param fullName
+     *         the full name of the removed (or renamed) item
+     */
+    synchronized void remove(final String fullName) {
+        var prefix = fullName + '/';
+        Predicate<String> isRemoved = name -> name.equals(fullName) || name.startsWith(prefix);
+
+        baseGeneration = ++sequence;
+        generations.keySet().removeIf(isRemoved);
+        entries.keySet().removeIf(key -> isRemoved.test(key.job()));
+    }
+
+    /**
+     * Returns the number of jobs whose generation is stored.
+     *
+     * @return the number of jobs with a generation
+     */
+    synchronized int getGenerationCount() {
+        return generations.size();
+    }
+
+    /**
+     * Removes all cached models.
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Returns the number of models that are currently cached.
+     *
+     * @return the number of cached models
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the number of requests that have been served from the cache.
+     *
+     * @return the number of cache hits
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Returns the number of requests that required a new computation of the model.
+     *
+     * @return the number of cache misses
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Returns the number of models that have been evicted because the cache was full or the model was too old.
+     *
+     * @return the number of evicted models
+     */
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    /**
+     * Normalizes the specified JSON configuration, so that configurations that differ only in the order of the
+     * properties or in whitespace are mapped to the same string.
+     *
+     * @param configuration
+     *         the configuration to normalize
+     *
+     * @return the normalized configuration
+     */
+    static String normalize(@CheckForNull final String configuration) {
+        return TrendChartConfiguration.parse(configuration).getNormalized();
+    }
+
+    private record Key(String job, String action, int latestBuild, long generation, String configuration) {
+    }
+
+    private record Entry(String json, long created) {
+    }
+
+    /**
+     * Invalidates the cached models of a job if a new build has been completed or an existing build has been
+     * deleted.
+     */
+    @Extension
+    public static class CacheInvalidator extends RunListener<Run<?, ?>> {
+        @Override
+        public void onCompleted(final Run<?, ?> run, final TaskListener listener) {
+            getInstance().invalidate(run.getParent());
+        }
+
+        @Override
+        public void onDeleted(final Run<?, ?> run) {
+            getInstance().invalidate(run.getParent());
+        }
+    }
+
+    /**
+     * Removes the cached models of a job if the job has been deleted or renamed.
+     */
+    @Extension
+    public static class JobRemover extends ItemListener {
+        @Override
+        public void onDeleted(final Item item) {
+            getInstance().remove(item.getFullName());
+        }
+
+        @Override
+        public void onLocationChanged(final Item item, final String oldFullName, final String newFullName) {
+            getInstance().remove(oldFullName);
+            getInstance().remove(newFullName);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package io.jenkins.plugins.echarts;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+import org.apache.commons.lang3.StringUtils;
+import org.kohsuke.stapler.StaplerRequest2;
+import org.kohsuke.stapler.StaplerResponse2;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Writes the JSON model of a chart to the HTTP response. Models that are not cached yet are serialized directly to the
+ * response stream using a Jackson generator, so the (potentially large) JSON representation is never materialized as
+ * a {@link String}. If the client accepts a compressed response, then the response will be compressed with gzip.
+ *
+ * <p>
+ * The responses support conditional requests: each response contains an entity tag ({@code ETag} header). If the
+ * client (or a reverse proxy) sends this tag in the {@code If-None-Match} header of a subsequent request and the
+ * model did not change, then the status {@code 304 Not Modified} is returned without creating the model.
+ * </p>
+ */
+final class TrendModelResponse {
+    static final String CONTENT_TYPE = "application/json;charset=UTF-8";
+    static final String CONFIGURATION_PARAMETER = "configuration";
+
+    private static final String CACHE_CONTROL = "no-cache"; // clients need to revalidate their copy using the ETag
+    private static final String WEAK_PREFIX = "W/";
+
+    /**
+     * Returns the JSON configuration of the chart that is provided as request parameter.
+     *
+     * @param request
+     *         the HTTP request
+     *
+     * @return the JSON configuration, or an empty configuration if the parameter is not set
+     */
+    static String getConfiguration(final StaplerRequest2 request) {
+        return StringUtils.defaultIfBlank(request.getParameter(CONFIGURATION_PARAMETER),
+                TrendChartConfiguration.EMPTY_JSON);
+    }
+
+    /**
+     * Writes the JSON model of a chart to the specified response.
+     *
+     * @param request
+     *         the HTTP request
+     * @param response
+     *         the HTTP response
+     * @param action
+     *         the trend action that provides the model
+     * @param cachedJson
+     *         the JSON representation of the model if already available, {@code null} otherwise
+     * @param modelSupplier
+     *         supplies the model if no JSON representation is available
+     *
+     * @throws IOException
+     *         if the response could not be written
+     */
+    static void write(final StaplerRequest2 request, final StaplerResponse2 response, final Object action,
+            @CheckForNull final String cachedJson, final Supplier<?> modelSupplier) throws IOException {
+        response.setContentType(CONTENT_TYPE);
+        response.setHeader("Cache-Control", CACHE_CONTROL);
+
+        if (cachedJson == null) {
+            var model = TrendMetrics.time(action, TrendMetrics.Timing.MODEL_CREATION,
+                    () -> ParallelBuildActionIterator.closeAfter(modelSupplier));
+
+            var metrics = TrendMetrics.getInstance().forAction(action.getClass());
+            long start = metrics.start();
+            try (var output = new CountingOutputStream(response.getCompressedOutputStream(request))) {
+                ChartModelWriter.write(output, model);
+                metrics.increment(TrendMetrics.Counter.PAYLOAD_BYTES, output.getCount());
+            }
+            finally {
+                metrics.stop(TrendMetrics.Timing.SERIALIZATION, start);
+            }
+        }
+        else {
+            try (var writer = response.getCompressedWriter(request)) {
+                writer.write(cachedJson);
+            }
+        }
+    }
+
+    /**
+     * Writes the specified JSON model to the response unless the client already has a copy of this model. The entity
+     * tag is derived from the content of the model, so this method saves the transfer of the model but not its
+     * creation. Actions that know the job of the chart should use {@link #isNotModified(StaplerRequest2,
+     * StaplerResponse2, String)} with the entity tag of the {@link TrendModelCache} instead.
+     *
+     * @param request
+     *         the HTTP request
+     * @param response
+     *         the HTTP response
+     * @param action
+     *         the trend action that provides the model
+     * @param json
+     *         the JSON representation of the model
+     *
+     * @throws IOException
+     *         if the response could not be written
+     */
+    static void writeIfModified(final StaplerRequest2 request, final StaplerResponse2 response, final Object action,
+            final String json) throws IOException {
+        if (!isNotModified(request, response, createEntityTag(json))) {
+            write(request, response, action, json, () -> null);
+        }
+    }
+
+    static String createEntityTag(final String json) {
+        return String.format("W/\"%x-%x\"", json.length(),
+                Arrays.hashCode(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Sets the specified entity tag in the response and checks whether the client already has a copy of the model
+     * with this tag. In this case, the status {@code 304 Not Modified} is set and the model must not be written.
+     *
+     * @param request
+     *         the HTTP request
+     * @param response
+     *         the HTTP response
+     * @param entityTag
+     *         the entity tag of the current model
+     *
+     * @return {@code true} if the client already has a copy of the model, {@code false} if the model needs to be
+     *         written
+     */
+    static boolean isNotModified(final StaplerRequest2 request, final StaplerResponse2 response,
+            final String entityTag) {
+        response.setHeader("ETag", entityTag);
+        response.setHeader("Cache-Control", CACHE_CONTROL);
+
+        var ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null && matches(ifNoneMatch, entityTag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean matches(final String ifNoneMatch, final String entityTag) {
+        var opaqueTag = StringUtils.removeStart(entityTag, WEAK_PREFIX);
+        for (String candidate : ifNoneMatch.split(",")) {
+            var tag = StringUtils.removeStart(candidate.trim(), WEAK_PREFIX); // GET requests use weak comparison
+            if ("*".equals(tag) || opaqueTag.equals(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Counts the number of bytes that are written to the underlying stream (before compression).
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(final OutputStream output) {
+            super(output);
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+            out.write(bytes, offset, length);
+            count += length;
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+
+    private TrendModelResponse() {
+        // prevents instantiation
+    }
+}
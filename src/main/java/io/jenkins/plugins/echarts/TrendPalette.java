@@ -0,0 +1,122 @@
+package io.jenkins.plugins.echarts;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import tools.jackson.databind.JsonNode;
+
+/**
+ * The colors of the {@link JenkinsPalette} (and other CSS variables) in the theme of a browser. The browser resolves
+ * the CSS variables of the theme once and sends the resulting colors with the request for the trend models. Then the
+ * CSS variables in the models are replaced on the server, so that the browser can parse the models without resolving
+ * each color with {@code getComputedStyle} first. The resolved models are cached per theme using the {@link
+ * #getVariant() variant} of the palette.
+ *
+ * <p>
+ * Only valid CSS variable names and plain color values (e.g., {@code #ff0000} or {@code rgb(255, 0, 0)}) are accepted,
+ * other entries of the palette are ignored. Variables that are not part of the palette are not replaced.
+ * </p>
+ *
+ * @see "JS method resolveJenkinsColors in file echarts-api.js"
+ */
+final class TrendPalette {
+    static final TrendPalette NONE = new TrendPalette(Map.of());
+
+    private static final Pattern VARIABLE = Pattern.compile("--[a-z-]+");
+    private static final Pattern COLOR = Pattern.compile("[#\\w (),.%/+-]{1,64}");
+    private static final String PREFIX = "--";
+    private static final int MAXIMUM_SIZE = 256;
+
+    /**
+     * Creates a palette from the specified JSON object that maps CSS variable names to colors.
+     *
+     * @param palette
+     *         the JSON object with the colors, might be {@code null} if the client did not send a palette
+     *
+     * @return the palette, or {@link #NONE} if no valid colors have been sent
+     */
+    static TrendPalette fromJson(@CheckForNull final JsonNode palette) {
+        if (palette == null || !palette.isObject()) {
+            return NONE;
+        }
+
+        Map<String, String> colors = new TreeMap<>();
+        for (Map.Entry<String, JsonNode> entry : palette.properties()) {
+            var name = entry.getKey();
+            var color = entry.getValue();
+            if (colors.size() < MAXIMUM_SIZE && VARIABLE.matcher(name).matches()
+                    && color.isString() && COLOR.matcher(color.asString()).matches()) {
+                colors.put(name, color.asString().strip());
+            }
+        }
+        if (colors.isEmpty()) {
+            return NONE;
+        }
+        return new TrendPalette(colors);
+    }
+
+    private final Map<String, String> colors;
+    private final String variant;
+
+    private TrendPalette(final Map<String, String> colors) {
+        this.colors = colors;
+        variant = colors.toString();
+    }
+
+    /**
+     * Returns whether this palette contains no colors.
+     *
+     * @return {@code true} if the palette is empty, {@code false} otherwise
+     */
+    boolean isEmpty() {
+        return colors.isEmpty();
+    }
+
+    /**
+     * Returns a string that identifies the colors of this palette. Palettes with the same colors have the same
+     * variant.
+     *
+     * @return the variant of the palette
+     */
+    String getVariant() {
+        return variant;
+    }
+
+    /**
+     * Replaces all CSS variables of this palette in the specified JSON model with the corresponding colors.
+     *
+     * @param json
+     *         the JSON model
+     *
+     * @return the model with the resolved colors
+     */
+    String resolve(final String json) {
+        if (isEmpty() || !json.contains(PREFIX)) {
+            return json;
+        }
+
+        var matcher = VARIABLE.matcher(json);
+        var resolved = new StringBuilder(json.length());
+        while (matcher.find()) {
+            var color = colors.get(matcher.group());
+            matcher.appendReplacement(resolved, Matcher.quoteReplacement(color == null ? matcher.group() : color));
+        }
+        matcher.appendTail(resolved);
+        return resolved.toString();
+    }
+
+    /**
+     * Returns whether the specified model still contains CSS variables that need to be resolved by the browser.
+     *
+     * @param json
+     *         the JSON model
+     *
+     * @return {@code true} if the model might contain CSS variables, {@code false} otherwise
+     */
+    static boolean hasVariables(final String json) {
+        return json.contains(PREFIX);
+    }
+}
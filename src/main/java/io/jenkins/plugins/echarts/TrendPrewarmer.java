@@ -0,0 +1,165 @@
+package io.jenkins.plugins.echarts;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import hudson.Extension;
+import hudson.model.Action;
+import hudson.model.Job;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.model.listeners.RunListener;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import jenkins.util.SystemProperties;
+import jenkins.util.Timer;
+
+/**
+ * Computes the trend models of a job in the background as soon as a build of the job has been completed. So the first
+ * visitor of the job page after a build does not need to wait until the build history has been walked: the models
+ * of all {@link AsyncTrendJobAction} and {@link TrendChartJobAction} instances of the job are already stored in the
+ * {@link TrendModelCache}. Configurable charts are computed with the configuration that {@code echarts-api.js} sends if
+ * the user did not change the configuration of the chart (see {@link TrendColumnarEncoding#CLIENT_CONFIGURATION}).
+ * Configurations that are stored in the browser of a user are not known on the server.
+ *
+ * <p>
+ * The models are computed with a delay after the completion of a build. If another build of the same job completes
+ * during this delay, then the models will be computed only once after the last build (debounce). The number of
+ * jobs whose models are computed concurrently is bounded by a small pool of low priority threads. If too many jobs are
+ * waiting, then the models of further jobs will not be computed in the background.
+ * </p>
+ *
+ * <p>
+ * The pre-warming is disabled by default. It can be enabled using the system property {@code
+ * io.jenkins.plugins.echarts.TrendPrewarmer.enabled}. The delay (in milliseconds) can be configured using the system
+ * property {@code io.jenkins.plugins.echarts.TrendPrewarmer.delay}, the number of concurrent jobs using {@code
+ * io.jenkins.plugins.echarts.TrendPrewarmer.threads}.
+ * </p>
+ */
+public final class TrendPrewarmer {
+    private static final Logger LOGGER = Logger.getLogger(TrendPrewarmer.class.getName());
+
+    private static final boolean ENABLED = SystemProperties.getBoolean(TrendPrewarmer.class.getName() + ".enabled");
+    private static final long DELAY = Math.max(0, SystemProperties.getLong(
+            TrendPrewarmer.class.getName() + ".delay", TimeUnit.SECONDS.toMillis(10)));
+    private static final int THREADS = Math.max(1, SystemProperties.getInteger(
+            TrendPrewarmer.class.getName() + ".threads", 1));
+    private static final int QUEUE_SIZE = 100;
+
+    private final ScheduledExecutorService scheduler;
+    private final Executor executor;
+    private final long delay;
+    private final Consumer<Job<?, ?>> warmer;
+    private final Map<String, Object> pending = new ConcurrentHashMap<>();
+
+    TrendPrewarmer(final ScheduledExecutorService scheduler, final Executor executor, final long delay,
+            final Consumer<Job<?, ?>> warmer) {
+        this.scheduler = scheduler;
+        this.executor = executor;
+        this.delay = delay;
+        this.warmer = warmer;
+    }
+
+    /**
+     * Schedules the computation of the trend models of the specified job. A computation that has been scheduled
+     * before for the same job but that has not been started yet will be replaced.
+     *
+     * @param job
+     *         the job to compute the models for
+     */
+    void schedule(final Job<?, ?> job) {
+        var name = job.getFullName();
+        var token = new Object();
+        pending.put(name, token);
+
+        scheduler.schedule(() -> {
+            if (pending.remove(name, token)) { // otherwise a newer build has been completed in the meantime
+                executor.execute(() -> warmer.accept(job));
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns the number of jobs whose models are waiting for the computation.
+     *
+     * @return the number of scheduled jobs
+     */
+    int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Computes the models with the default client configuration of all trend actions of the specified job.
+     *
+     * @param job
+     *         the job to compute the models for
+     */
+    static void prewarm(final Job<?, ?> job) {
+        try (ACLContext ignored = ACL.as2(ACL.SYSTEM2)) {
+            for (Action action : job.getAllActions()) {
+                prewarm(job, action);
+            }
+        }
+    }
+
+    private static void prewarm(final Job<?, ?> job, final Action action) {
+        try {
+            if (action instanceof AsyncConfigurableTrendJobAction<?> trend && trend.isTrendVisible()) {
+                trend.getConfigurableBuildTrendModel(TrendColumnarEncoding.CLIENT_CONFIGURATION);
+            }
+            else if (action instanceof TrendChartJobAction<?> trend && trend.isTrendVisible()) {
+                trend.getConfigurableBuildTrendModel(TrendColumnarEncoding.CLIENT_CONFIGURATION);
+            }
+            else if (action instanceof AsyncTrendJobAction<?> trend && trend.isTrendVisible()) {
+                trend.getBuildTrendModel(); // not configurable: the page requests the model without configuration
+            }
+        }
+        catch (RuntimeException exception) { // a broken chart should not break the other charts
+            LOGGER.log(Level.WARNING, "Can't pre-warm trend model of " + action.getUrlName() + " in "
+                    + job.getFullName(), exception);
+        }
+    }
+
+    /**
+     * Holds the pre-warmer that is used by the {@link PrewarmingListener}. The pre-warmer is created on first use.
+     */
+    private static final class Holder {
+        private static final TrendPrewarmer INSTANCE = new TrendPrewarmer(Timer.get(), createExecutor(), DELAY,
+                TrendPrewarmer::prewarm);
+
+        private static Executor createExecutor() {
+            var factory = new NamingThreadFactory(new DaemonThreadFactory(), "ECharts trend pre-warming");
+            var executor = new ThreadPoolExecutor(THREADS, THREADS, 1, TimeUnit.MINUTES,
+                    new LinkedBlockingQueue<>(QUEUE_SIZE), runnable -> {
+                        var thread = factory.newThread(runnable);
+                        thread.setPriority(Thread.MIN_PRIORITY);
+                        return thread;
+                    }, new ThreadPoolExecutor.DiscardPolicy());
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+    }
+
+    /**
+     * Schedules the computation of the trend models of a job if a new build has been completed.
+     */
+    @Extension
+    public static class PrewarmingListener extends RunListener<Run<?, ?>> {
+        @Override
+        public void onCompleted(final Run<?, ?> run, final TaskListener listener) {
+            if (ENABLED) {
+                Holder.INSTANCE.schedule(run.getParent());
+            }
+        }
+    }
+}
@@ -0,0 +1,659 @@
+package io.jenkins.plugins.echarts;
+
+import edu.hm.hafner.echarts.BuildResult;
+import edu.hm.hafner.echarts.line.LinesDataSet;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import hudson.Extension;
+import hudson.model.Job;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.model.listeners.RunListener;
+import jenkins.util.Timer;
+
+import io.jenkins.plugins.util.BuildAction;
+
+/**
+ * Precomputed per-day aggregates of the series of trend charts that show the results per day (i.e., charts that use
+ * dates instead of build numbers on the domain axis). For each day the rollups store the number of builds and for each
+ * series the number of values, the sum, the minimum, the maximum, and the last value of that day. The rollups are
+ * stored next to the job in the file {@value #FILE_NAME}. So a chart with dates on the domain axis can be created in
+ * time proportional to the number of days rather than to the number of builds.
+ *
+ * <p>
+ * The rollups of a series are created on the first request using {@link #update(String, Class, Optional, Predicate,
+ * Function)}: this request visits the complete build history once. Afterward, the rollups are updated whenever a build
+ * completes. Builds that have been completed while the series was not registered yet (e.g., after a restart) will be
+ * added by the next update that visits only the builds that are newer than the last recorded build.
+ * </p>
+ *
+ * <p>
+ * If a build is deleted, then the day of this build will be removed if it is the oldest day of the rollups (this is
+ * the typical case when old builds are discarded). The remaining builds of this day are marked as stale and will be
+ * added again by the next update. Otherwise, the rollups of the series will be created from scratch on the next
+ * request, since minimum and maximum values of a day cannot be recomputed without the remaining builds.
+ * </p>
+ */
+public final class TrendRollups {
+    static final String FILE_NAME = "echarts-trend-rollups.bin";
+
+    private static final Logger LOGGER = Logger.getLogger(TrendRollups.class.getName());
+
+    private static final int MAGIC = 0x45435252; // ECRR
+    private static final int VERSION = 2;
+    private static final long SAVE_DELAY = 10;
+    private static final DateTimeFormatter LABEL_FORMAT = DateTimeFormatter.ofPattern("MM-dd", Locale.ENGLISH);
+
+    private static final Map<Job<?, ?>, TrendRollups> ROLLUPS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Returns the rollups of the specified job.
+     *
+     * @param job
+     *         the job to get the rollups for
+     *
+     * @return the rollups of the job
+     */
+    public static TrendRollups forJob(final Job<?, ?> job) {
+        return ROLLUPS.computeIfAbsent(job, TrendRollups::load);
+    }
+
+    /**
+     * Returns the rollups of the specified job if they are already in memory or stored next to the job.
+     *
+     * @param job
+     *         the job to get the rollups for
+     *
+     * @return the rollups of the job, or an empty result if there are no rollups for the job
+     */
+    static Optional<TrendRollups> forJobIfPresent(final Job<?, ?> job) {
+        var rollups = ROLLUPS.get(job);
+        if (rollups != null) {
+            return Optional.of(rollups);
+        }
+        if (Files.exists(job.getRootDir().toPath().resolve(FILE_NAME))) {
+            return Optional.of(forJob(job));
+        }
+        return Optional.empty();
+    }
+
+    private static TrendRollups load(final Job<?, ?> job) {
+        var rollups = new TrendRollups(job.getRootDir().toPath().resolve(FILE_NAME));
+        rollups.read();
+        return rollups;
+    }
+
+    private final Path file;
+    private final Map<String, SeriesRollup> series = new HashMap<>();
+    private final Map<String, Registration<?>> registrations = new HashMap<>();
+    private boolean dirty;
+    private boolean saveScheduled;
+
+    TrendRollups(final Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Creates the ID of a series of the rollups.
+     *
+     * @param actionType
+     *         the type of the build actions that contain the results
+     * @param urlName
+     *         the URL name of the build actions
+     * @param seriesKey
+     *         the key that identifies the values of the series, see {@link #update(String, Class, Optional,
+     *         Predicate, Function)}
+     *
+     * @return the ID of the series
+     */
+    static String createId(final Class<?> actionType, final String urlName, final String seriesKey) {
+        return actionType.getName() + '#' + urlName + '#' + seriesKey;
+    }
+
+    /**
+     * Registers the specified series and adds all builds to the rollups that are newer than the last recorded build.
+     * After the registration, the rollups of the series will be updated automatically whenever a build completes.
+     *
+     * @param id
+     *         the ID of the series, e.g. the type and URL of the build action and a key of the values function: since
+     *         the rollups are persisted, the ID needs to change whenever the values function changes
+     * @param actionType
+     *         the type of the build actions that contain the results
+     * @param latestAction
+     *         the build action of the latest build
+     * @param filter
+     *         a predicate to filter the build actions of a build so that the selected action is unique
+     * @param valuesFunction
+     *         the function that computes the values of the series for a build action
+     * @param <A>
+     *         the type of the build actions
+     */
+    @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+    public <A extends BuildAction<?>> void update(final String id, final Class<A> actionType,
+            final Optional<A> latestAction, final Predicate<? super A> filter,
+            final Function<A, Map<String, Integer>> valuesFunction) {
+        var registration = new Registration<>(actionType, filter, valuesFunction);
+        int lastBuild;
+        BitSet stale;
+        synchronized (this) {
+            registrations.put(id, registration);
+            var rollup = getSeries(id);
+            lastBuild = rollup.lastBuild;
+            stale = (BitSet) rollup.stale.clone();
+        }
+
+        var newerBuilds = new BuildActionIterator<>(actionType, latestAction, filter,
+                HistoryLimits.unlimited().newerThan(lastBuild));
+        List<BuildResult<A>> results = new ArrayList<>();
+        newerBuilds.forEachRemaining(results::add);
+        Collections.reverse(results); // record the oldest build first
+
+        for (BuildResult<A> result : results) {
+            var action = result.getResult();
+            if (!action.getOwner().isBuilding()) {
+                add(id, action.getOwner().getNumber(), toEpochDay(action.getOwner().getTimeInMillis()),
+                        valuesFunction.apply(action));
+            }
+        }
+        latestAction.ifPresent(action -> addStaleBuilds(id, action.getOwner().getParent(), stale, registration));
+    }
+
+    private void addStaleBuilds(final String id, final Job<?, ?> job, final BitSet stale,
+            final Registration<?> registration) {
+        for (int number = stale.nextSetBit(0); number >= 0; number = stale.nextSetBit(number + 1)) {
+            Run<?, ?> run = job.getBuildByNumber(number);
+            var values = run == null || run.isBuilding() ? Optional.<Map<String, Integer>>empty()
+                    : registration.computeValues(run);
+            if (values.isPresent()) {
+                add(id, number, toEpochDay(run.getTimeInMillis()), values.get());
+            }
+            else {
+                discardStale(id, number);
+            }
+        }
+    }
+
+    private synchronized void discardStale(final String id, final int number) {
+        getSeries(id).stale.clear(number);
+        markDirty();
+    }
+
+    /**
+     * Adds the results of all registered series of the specified build to the rollups.
+     *
+     * @param run
+     *         the build to add
+     */
+    public void record(final Run<?, ?> run) {
+        List<Map.Entry<String, Registration<?>>> snapshot;
+        synchronized (this) {
+            snapshot = new ArrayList<>(registrations.entrySet());
+        }
+        for (Map.Entry<String, Registration<?>> registration : snapshot) {
+            registration.getValue().computeValues(run).ifPresent(values -> add(registration.getKey(),
+                    run.getNumber(), toEpochDay(run.getTimeInMillis()), values));
+        }
+    }
+
+    private static int toEpochDay(final long timeInMillis) {
+        return (int) LocalDate.ofInstant(Instant.ofEpochMilli(timeInMillis), ZoneId.systemDefault()).toEpochDay();
+    }
+
+    synchronized void add(final String id, final int number, final int epochDay, final Map<String, Integer> values) {
+        var rollup = getSeries(id);
+        if (rollup.stale.get(number)) {
+            rollup.stale.clear(number);
+            if (epochDay > rollup.staleDay) { // the build is still part of a day that has not been removed
+                rollup.recorded.set(number);
+                markDirty();
+                return;
+            }
+        }
+        if (rollup.recorded.get(number)) {
+            return;
+        }
+        rollup.recorded.set(number);
+        rollup.lastBuild = Math.max(rollup.lastBuild, number);
+        rollup.days.computeIfAbsent(epochDay, day -> new DayRollup()).add(number, values);
+
+        markDirty();
+    }
+
+    private SeriesRollup getSeries(final String id) {
+        return series.computeIfAbsent(id, key -> new SeriesRollup());
+    }
+
+    /**
+     * Removes the specified build from the rollups of all series.
+     *
+     * @param number
+     *         the number of the build to remove
+     * @param epochDay
+     *         the day of the build (as number of days since the epoch)
+     */
+    synchronized void remove(final int number, final int epochDay) {
+        for (SeriesRollup rollup : series.values()) {
+            if (rollup.stale.get(number)) {
+                rollup.stale.clear(number);
+                markDirty();
+            }
+            if (!rollup.recorded.get(number)) {
+                continue;
+            }
+            rollup.recorded.clear(number);
+            var day = rollup.days.get(epochDay);
+            if (day != null) {
+                if (rollup.days.firstKey() == epochDay) {
+                    rollup.days.remove(epochDay);
+                    rollup.markStale(epochDay, day.lastBuild);
+                }
+                else {
+                    rollup.clear();
+                }
+            }
+            markDirty();
+        }
+    }
+
+    /**
+     * Creates the data set of a trend chart that shows the aggregated results of each day.
+     *
+     * @param id
+     *         the ID of the series
+     * @param limits
+     *         the limits of the build history: the maximum number of days is counted from the day of the latest
+     *         build, the maximum number of builds is applied to complete days
+     * @param aggregation
+     *         determines how the values of the builds of a day are aggregated
+     *
+     * @return the data set
+     */
+    public LinesDataSet createDataSet(final String id, final HistoryLimits limits, final Aggregation aggregation) {
+        var dataSet = new LinesDataSet();
+        aggregate(id, limits, aggregation).forEach((day, values) -> dataSet.add(
+                LocalDate.ofEpochDay(day).format(LABEL_FORMAT), values.values, values.lastBuild));
+        return dataSet;
+    }
+
+    synchronized NavigableMap<Integer, DayValues> aggregate(final String id, final HistoryLimits limits,
+            final Aggregation aggregation) {
+        NavigableMap<Integer, DayValues> aggregated = new TreeMap<>();
+
+        var rollup = series.get(id);
+        if (rollup == null || rollup.days.isEmpty()) {
+            return aggregated;
+        }
+
+        int firstDay = limits.getMaximumDays() > 0
+                ? rollup.days.lastKey() - limits.getMaximumDays() + 1 : Integer.MIN_VALUE;
+        int builds = 0;
+        for (Map.Entry<Integer, DayRollup> day : rollup.days.descendingMap().entrySet()) {
+            if (day.getKey() < firstDay
+                    || limits.getMaximumBuilds() > 0 && builds >= limits.getMaximumBuilds()) {
+                break;
+            }
+            builds += day.getValue().count;
+            aggregated.put(day.getKey(), day.getValue().aggregate(aggregation));
+        }
+        return aggregated;
+    }
+
+    private void markDirty() {
+        dirty = true;
+        if (!saveScheduled) {
+            saveScheduled = true;
+            Timer.get().schedule(this::save, SAVE_DELAY, TimeUnit.SECONDS);
+        }
+    }
+
+    void save() {
+        byte[] snapshot;
+        synchronized (this) {
+            saveScheduled = false;
+            if (!dirty) {
+                return;
+            }
+            dirty = false;
+            snapshot = serialize();
+        }
+
+        try {
+            var temporary = file.resolveSibling(FILE_NAME + ".tmp");
+            Files.write(temporary, snapshot);
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (IOException exception) {
+            LOGGER.log(Level.WARNING, "Can't write trend rollups " + file, exception);
+        }
+    }
+
+    private byte[] serialize() {
+        var bytes = new ByteArrayOutputStream();
+        try (var output = new DataOutputStream(new BufferedOutputStream(bytes))) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeInt(series.size());
+            for (Map.Entry<String, SeriesRollup> entry : series.entrySet()) {
+                output.writeUTF(entry.getKey());
+                entry.getValue().write(output);
+            }
+        }
+        catch (IOException exception) {
+            throw new IllegalStateException("Can't serialize trend rollups", exception); // not thrown by memory streams
+        }
+        return bytes.toByteArray();
+    }
+
+    synchronized void read() {
+        if (!Files.exists(file)) {
+            return;
+        }
+
+        try (var input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                LOGGER.log(Level.INFO, "Ignoring trend rollups with unsupported format " + file);
+                return;
+            }
+            int seriesCount = input.readInt();
+            for (int i = 0; i < seriesCount; i++) {
+                var id = input.readUTF();
+                series.put(id, SeriesRollup.read(input));
+            }
+        }
+        catch (IOException | NegativeArraySizeException exception) {
+            LOGGER.log(Level.WARNING, "Ignoring corrupt trend rollups " + file, exception);
+            series.clear();
+        }
+    }
+
+    /**
+     * Determines how the values of the builds of a day are aggregated.
+     */
+    public enum Aggregation {
+        /** The average of all values of the day (this is the aggregation of {@code SeriesBuilder}). */
+        AVERAGE,
+        /** The sum of all values of the day. */
+        SUM,
+        /** The minimum of all values of the day. */
+        MINIMUM,
+        /** The maximum of all values of the day. */
+        MAXIMUM,
+        /** The value of the last build of the day. */
+        LAST;
+
+        /**
+         * Returns the aggregation that is selected by the property {@code aggregation} of the specified chart
+         * configuration.
+         *
+         * @param configuration
+         *         the configuration of the chart
+         *
+         * @return the aggregation, {@link #AVERAGE} if the property is not set or invalid
+         */
+        public static Aggregation fromConfiguration(final TrendChartConfiguration configuration) {
+            var name = configuration.getString("aggregation", AVERAGE.name()).toUpperCase(Locale.ENGLISH);
+            for (Aggregation aggregation : values()) {
+                if (aggregation.name().equals(name)) {
+                    return aggregation;
+                }
+            }
+            return AVERAGE;
+        }
+    }
+
+    /**
+     * The aggregated values of a day.
+     *
+     * @param values
+     *         the aggregated value of each series
+     * @param lastBuild
+     *         the number of the last build of the day
+     */
+    record DayValues(Map<String, Integer> values, int lastBuild) {
+    }
+
+    /**
+     * The rollups of a series: the aggregates per day and the numbers of the builds that have been recorded. Builds
+     * that belonged to a removed day but still exist are stale: they need to be added again.
+     */
+    private static final class SeriesRollup {
+        private final NavigableMap<Integer, DayRollup> days = new TreeMap<>();
+        private final BitSet recorded;
+        private final BitSet stale;
+        private int lastBuild;
+        private int staleDay = Integer.MIN_VALUE;
+
+        SeriesRollup() {
+            this(new BitSet(), new BitSet());
+        }
+
+        SeriesRollup(final BitSet recorded, final BitSet stale) {
+            this.recorded = recorded;
+            this.stale = stale;
+        }
+
+        void clear() {
+            days.clear();
+            recorded.clear();
+            stale.clear();
+            lastBuild = 0;
+            staleDay = Integer.MIN_VALUE;
+        }
+
+        /**
+         * Marks all recorded builds up to the last build of a removed day as stale. Builds of newer days that have
+         * such a number (e.g., if the clock has been changed) are still counted in their day.
+         */
+        void markStale(final int removedDay, final int lastBuildOfDay) {
+            stale.or(recorded.get(0, lastBuildOfDay + 1));
+            recorded.clear(0, lastBuildOfDay + 1);
+            staleDay = Math.max(staleDay, removedDay);
+        }
+
+        void write(final DataOutputStream output) throws IOException {
+            output.writeInt(lastBuild);
+            writeBits(output, recorded);
+            writeBits(output, stale);
+            output.writeInt(staleDay);
+            output.writeInt(days.size());
+            for (Map.Entry<Integer, DayRollup> day : days.entrySet()) {
+                output.writeInt(day.getKey());
+                day.getValue().write(output);
+            }
+        }
+
+        private static void writeBits(final DataOutputStream output, final BitSet bits) throws IOException {
+            var words = bits.toLongArray();
+            output.writeInt(words.length);
+            for (long word : words) {
+                output.writeLong(word);
+            }
+        }
+
+        static SeriesRollup read(final DataInputStream input) throws IOException {
+            int lastBuild = input.readInt();
+            var recorded = readBits(input);
+            var rollup = new SeriesRollup(recorded, readBits(input));
+            rollup.lastBuild = lastBuild;
+            rollup.staleDay = input.readInt();
+            int dayCount = input.readInt();
+            for (int i = 0; i < dayCount; i++) {
+                rollup.days.put(input.readInt(), DayRollup.read(input));
+            }
+            return rollup;
+        }
+
+        private static BitSet readBits(final DataInputStream input) throws IOException {
+            var words = new long[input.readInt()];
+            for (int i = 0; i < words.length; i++) {
+                words[i] = input.readLong();
+            }
+            return BitSet.valueOf(words);
+        }
+    }
+
+    /**
+     * The aggregates of all builds of a single day.
+     */
+    static final class DayRollup {
+        private final Map<String, ValueRollup> values = new LinkedHashMap<>();
+        private int count;
+        private int lastBuild;
+
+        void add(final int number, final Map<String, Integer> buildValues) {
+            count++;
+            lastBuild = Math.max(lastBuild, number);
+            buildValues.forEach((name, value) -> values.computeIfAbsent(name, key -> new ValueRollup())
+                    .add(number, value));
+        }
+
+        DayValues aggregate(final Aggregation aggregation) {
+            Map<String, Integer> aggregated = new LinkedHashMap<>();
+            values.forEach((name, value) -> aggregated.put(name, value.aggregate(aggregation)));
+            return new DayValues(aggregated, lastBuild);
+        }
+
+        void write(final DataOutputStream output) throws IOException {
+            output.writeInt(count);
+            output.writeInt(lastBuild);
+            output.writeInt(values.size());
+            for (Map.Entry<String, ValueRollup> value : values.entrySet()) {
+                output.writeUTF(value.getKey());
+                value.getValue().write(output);
+            }
+        }
+
+        static DayRollup read(final DataInputStream input) throws IOException {
+            var day = new DayRollup();
+            day.count = input.readInt();
+            day.lastBuild = input.readInt();
+            int valueCount = input.readInt();
+            for (int i = 0; i < valueCount; i++) {
+                day.values.put(input.readUTF(), ValueRollup.read(input));
+            }
+            return day;
+        }
+    }
+
+    /**
+     * The aggregates of the values of a single series in a single day.
+     */
+    private static final class ValueRollup {
+        private int count;
+        private long sum;
+        private int minimum = Integer.MAX_VALUE;
+        private int maximum = Integer.MIN_VALUE;
+        private int last;
+        private int lastBuild;
+
+        void add(final int number, final int value) {
+            count++;
+            sum += value;
+            minimum = Math.min(minimum, value);
+            maximum = Math.max(maximum, value);
+            if (number > lastBuild) {
+                last = value;
+                lastBuild = number;
+            }
+        }
+
+        int aggregate(final Aggregation aggregation) {
+            return switch (aggregation) {
+                case AVERAGE -> (int) (sum / count);
+                case SUM -> (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, sum));
+                case MINIMUM -> minimum;
+                case MAXIMUM -> maximum;
+                case LAST -> last;
+            };
+        }
+
+        void write(final DataOutputStream output) throws IOException {
+            output.writeInt(count);
+            output.writeLong(sum);
+            output.writeInt(minimum);
+            output.writeInt(maximum);
+            output.writeInt(last);
+            output.writeInt(lastBuild);
+        }
+
+        static ValueRollup read(final DataInputStream input) throws IOException {
+            var value = new ValueRollup();
+            value.count = input.readInt();
+            value.sum = input.readLong();
+            value.minimum = input.readInt();
+            value.maximum = input.readInt();
+            value.last = input.readInt();
+            value.lastBuild = input.readInt();
+            return value;
+        }
+    }
+
+    /**
+     * A series that is updated whenever a build completes.
+     *
+     * @param actionType
+     *         the type of the build actions that contain the results
+     * @param filter
+     *         a predicate to filter the build actions of a build
+     * @param valuesFunction
+     *         the function that computes the values of the series for a build action
+     * @param <A>
+     *         the type of the build actions
+     */
+    private record Registration<A extends BuildAction<?>>(Class<A> actionType, Predicate<? super A> filter,
+            Function<A, Map<String, Integer>> valuesFunction) {
+        Optional<Map<String, Integer>> computeValues(final Run<?, ?> run) {
+            return run.getActions(actionType).stream().filter(filter).findFirst().map(valuesFunction);
+        }
+    }
+
+    /**
+     * Updates the rollups of a job if a new build has been completed or an existing build has been deleted.
+     */
+    @Extension
+    public static class RollupUpdater extends RunListener<Run<?, ?>> {
+        @Override
+        public void onCompleted(final Run<?, ?> run, final TaskListener listener) {
+            var rollups = ROLLUPS.get(run.getParent()); // unregistered series are updated on the next request
+            if (rollups != null) {
+                rollups.record(run);
+            }
+        }
+
+        @Override
+        public void onDeleted(final Run<?, ?> run) {
+            forJobIfPresent(run.getParent()).ifPresent(
+                    rollups -> rollups.remove(run.getNumber(), toEpochDay(run.getTimeInMillis())));
+        }
+    }
+}
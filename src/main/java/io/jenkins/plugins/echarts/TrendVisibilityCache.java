@@ -0,0 +1,156 @@
+package io.jenkins.plugins.echarts;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+
+import hudson.Extension;
+import hudson.model.Action;
+import hudson.model.Item;
+import hudson.model.Job;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.model.listeners.ItemListener;
+import hudson.model.listeners.RunListener;
+
+/**
+ * Memorizes whether the trend chart of a job action is visible, i.e. whether the job has at least two builds with
+ * results. This flag is evaluated synchronously while a job page is rendered, so the result of the (potentially
+ * expensive) evaluation is stored per job and action. A stored positive result remains valid until a build of the job
+ * is deleted. A stored negative result is discarded as soon as a new build of the job completes. All results of a job
+ * are discarded if the job is deleted or renamed. Each job has a generation that is incremented with each completed
+ * build: a result that has been evaluated while a build completed is not stored, since it might be outdated already.
+ */
+public final class TrendVisibilityCache {
+    private static final TrendVisibilityCache INSTANCE = new TrendVisibilityCache();
+
+    /**
+     * Returns the cache that is shared by all trend chart actions.
+     *
+     * @return the shared cache
+     */
+    public static TrendVisibilityCache getInstance() {
+        return INSTANCE;
+    }
+
+    private final Map<String, JobVisibility> visibilityByJob = new ConcurrentHashMap<>();
+
+    TrendVisibilityCache() {
+        // use getInstance() to obtain the shared instance
+    }
+
+    /**
+     * Returns whether the trend chart of the specified action is visible. If the visibility is not known yet, then
+     * the specified fallback will be evaluated and its result will be stored.
+     *
+     * @param job
+     *         the job that owns the trend chart
+     * @param action
+     *         the action that renders the trend chart
+     * @param fallback
+     *         computes the visibility if it is unknown
+     *
+     * @return {@code true} if the trend should be shown, {@code false} otherwise
+     */
+    public boolean isVisible(final Job<?, ?> job, final Action action, final BooleanSupplier fallback) {
+        var visibility = visibilityByJob.computeIfAbsent(job.getFullName(), name -> new JobVisibility());
+        var actionId = action.getClass().getName() + '#' + action.getUrlName();
+
+        var visible = visibility.get(actionId);
+        if (visible == null) {
+            long generation = visibility.getGeneration();
+            visible = fallback.getAsBoolean();
+            visibility.put(actionId, visible, generation);
+        }
+        return visible;
+    }
+
+    void onCompleted(final Job<?, ?> job) {
+        var visibility = visibilityByJob.get(job.getFullName());
+        if (visibility != null) {
+            visibility.onCompleted();
+        }
+    }
+
+    void onDeleted(final Job<?, ?> job) {
+        visibilityByJob.remove(job.getFullName());
+    }
+
+    /**
+     * Removes the memorized visibility of the specified item and all nested items.
+     *
+     * @param fullName
+     *         the full name of the removed (or renamed) item
+     */
+    void remove(final String fullName) {
+        var prefix = fullName + '/';
+        visibilityByJob.keySet().removeIf(name -> name.equals(fullName) || name.startsWith(prefix));
+    }
+
+    /**
+     * The memorized visibility of the trend charts of a job.
+     */
+    private static final class JobVisibility {
+        private final Map<String, Boolean> visibilityByAction = new HashMap<>();
+        private long generation;
+
+        @CheckForNull
+        synchronized Boolean get(final String actionId) {
+            return visibilityByAction.get(actionId);
+        }
+
+        synchronized long getGeneration() {
+            return generation;
+        }
+
+        /**
+         * Stores the visibility of an action, if no build has been completed since the visibility has been evaluated.
+         */
+        synchronized void put(final String actionId, final boolean visible, final long evaluatedGeneration) {
+            if (generation == evaluatedGeneration) {
+                visibilityByAction.putIfAbsent(actionId, visible);
+            }
+        }
+
+        synchronized void onCompleted() {
+            generation++;
+            visibilityByAction.values().removeIf(visible -> !visible);
+        }
+    }
+
+    /**
+     * Updates the memorized visibility if a new build has been completed or an existing build has been deleted.
+     */
+    @Extension
+    public static class VisibilityUpdater extends RunListener<Run<?, ?>> {
+        @Override
+        public void onCompleted(final Run<?, ?> run, final TaskListener listener) {
+            getInstance().onCompleted(run.getParent());
+        }
+
+        @Override
+        public void onDeleted(final Run<?, ?> run) {
+            getInstance().onDeleted(run.getParent());
+        }
+    }
+
+    /**
+     * Removes the memorized visibility of a job if the job has been deleted or renamed.
+     */
+    @Extension
+    public static class JobRemover extends ItemListener {
+        @Override
+        public void onDeleted(final Item item) {
+            getInstance().remove(item.getFullName());
+        }
+
+        @Override
+        public void onLocationChanged(final Item item, final String oldFullName, final String newFullName) {
+            getInstance().remove(oldFullName);
+            getInstance().remove(newFullName);
+        }
+    }
+}
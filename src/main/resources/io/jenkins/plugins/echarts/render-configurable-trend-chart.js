@@ -6,7 +6,9 @@ window.addEventListener("DOMContentLoaded", () => {
         const enableLinks = dataHolder.getAttribute("data-enable-links");
         const configurationId = dataHolder.getAttribute("data-configuration-id");
         const generatedId = dataHolder.getAttribute("data-generated-id");
+        const batchUrl = dataHolder.getAttribute("data-batch-url");
 
-        echartsJenkinsApi.renderConfigurableTrendChart(chartId, enableLinks, configurationId, window[`trendProxy${generatedId}`]);
+        echartsJenkinsApi.renderConfigurableTrendChart(chartId, enableLinks, configurationId,
+            window[`trendProxy${generatedId}`], batchUrl);
     });
 });
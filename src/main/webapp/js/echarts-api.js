@@ -1,21 +1,52 @@
 /* exported echartsJenkinsApi */
 
 const trendDefaultStorageId = 'jenkins-echarts-trend-configuration-default';
+const pendingTrendRequests = new Map();
+const jenkinsPaletteColors = ['red', 'blue', 'yellow', 'green', 'cyan', 'indigo', 'orange', 'pink', 'purple', 'brown'];
+const jenkinsPalette = {theme: null, colors: null};
+const lazyCharts = {renderer: null, disposer: null, charts: new WeakMap()};
+const trendConfigurationDialogs = new WeakSet();
+const chartRegistry = {observer: null, elements: new Set(), pending: new Set(), frame: 0};
+const echartsApiUrl = typeof document !== 'undefined' && document.currentScript ? document.currentScript.src : null;
+const trendModelWorker = {worker: null, requests: new Map(), nextId: 0};
+const buildIndexes = new WeakMap();
 const echartsJenkinsApi = {
     /**
      * Resolves all Jenkins colors within the specified string model. These colors are specified as CSS variables
      * of the form <code>--color-name</code>. The method replaces all occurrences of these variables with the actual
-     * color value of the current Jenkins theme.
+     * color value of the current Jenkins theme. The colors of the Jenkins palette are resolved only once per theme.
      *
      * @param {String} model - the model to escape the Jenkins colors
      * @returns {String} the escaped string
      */
     resolveJenkinsColors: function (model) {
+        const palette = echartsJenkinsApi.getJenkinsPalette();
         return model.replaceAll(/--([a-z-]+)/g, function (match) {
-            return echartsJenkinsApi.resolveJenkinsColor(match)
+            return palette[match] || echartsJenkinsApi.resolveJenkinsColor(match)
         })
     },
 
+    /**
+     * Returns the colors of the Jenkins palette (see JenkinsPalette.java) in the current Jenkins theme. The colors
+     * are resolved only once per theme, so the palette can be sent to the server that resolves the colors in the
+     * trend models.
+     *
+     * @returns {Object} the mapping of the CSS variables to the colors of the current theme
+     */
+    getJenkinsPalette: function () {
+        const theme = document.documentElement.getAttribute('data-theme') || '';
+        if (jenkinsPalette.colors === null || jenkinsPalette.theme !== theme) {
+            const names = ['--black', '--white', '--light-grey', '--medium-grey', '--dark-grey', '--text-color'];
+            jenkinsPaletteColors.forEach(color => names.push('--light-' + color, '--' + color, '--dark-' + color));
+
+            const colors = {};
+            names.forEach(name => colors[name] = echartsJenkinsApi.resolveJenkinsColor(name).trim());
+            jenkinsPalette.theme = theme;
+            jenkinsPalette.colors = colors;
+        }
+        return jenkinsPalette.colors;
+    },
+
     /**
      * Returns the theme-aware color of all texts.
      *
@@ -34,6 +65,122 @@ const echartsJenkinsApi = {
         return getComputedStyle(document.body).getPropertyValue(colorName) || '#333';
     },
 
+    /**
+     * Registers the specified chart element with the resize observer that is shared by all charts of the page. If the
+     * size of the element changes, then the ECharts instance of the element (property 'echart') will be resized in
+     * the next animation frame. Several changes within the same frame are batched. If the element has been removed
+     * from the document, then the ECharts instance will be disposed and the element will be unregistered. Registering
+     * an element more than once has no effect.
+     *
+     * @param {HTMLElement} element - the element that shows the chart
+     */
+    registerChart: function (element) {
+        if (chartRegistry.elements.has(element)) {
+            return;
+        }
+
+        function resizePendingCharts() {
+            chartRegistry.frame = 0;
+            const elements = new Set(chartRegistry.pending);
+            chartRegistry.pending.clear();
+            chartRegistry.elements.forEach(chartElement => { // removals are not always reported as resize
+                if (!chartElement.isConnected) {
+                    elements.add(chartElement);
+                }
+            });
+            elements.forEach(chartElement => {
+                const chart = chartElement.echart;
+                if (!chartElement.isConnected) {
+                    if (chart && !chart.isDisposed()) {
+                        chart.dispose();
+                    }
+                    delete chartElement.echart;
+                    chartRegistry.elements.delete(chartElement);
+                    if (chartRegistry.observer) {
+                        chartRegistry.observer.unobserve(chartElement);
+                    }
+                }
+                else if (chart && !chart.isDisposed() && chartElement.clientWidth > 0
+                    && (chart.getWidth() !== chartElement.clientWidth
+                        || chart.getHeight() !== chartElement.clientHeight)) {
+                    chart.resize();
+                }
+            });
+        }
+
+        function scheduleResize(elements) {
+            elements.forEach(chartElement => chartRegistry.pending.add(chartElement));
+            if (chartRegistry.frame === 0) {
+                chartRegistry.frame = requestAnimationFrame(resizePendingCharts);
+            }
+        }
+
+        if (chartRegistry.observer === null) {
+            if (typeof ResizeObserver === 'function') {
+                chartRegistry.observer = new ResizeObserver(entries => scheduleResize(entries.map(e => e.target)));
+            }
+            else {
+                chartRegistry.observer = false; // fallback for old browsers
+                window.addEventListener('resize', () => scheduleResize(chartRegistry.elements));
+            }
+        }
+        chartRegistry.elements.add(element);
+        if (chartRegistry.observer) {
+            chartRegistry.observer.observe(element);
+        }
+    },
+
+    /**
+     * Renders the chart in the specified element as soon as the element approaches the viewport. So the models of
+     * charts far below the fold are neither requested nor rendered while the page is loading. If the element has the
+     * attribute data-dispose-hidden="true", then the ECharts instance of the chart will be disposed as soon as the
+     * element moves far away from the viewport; the chart will be rendered again when it approaches the viewport
+     * again. If the browser does not support the IntersectionObserver API or if the element has the attribute
+     * data-lazy="false", then the chart will be rendered immediately. The element is registered with the shared
+     * resize observer (see registerChart).
+     *
+     * @param {HTMLElement} element - the element that shows the chart
+     * @param {Function} render - renders the chart in the element and stores the ECharts instance in the property
+     *     'echart' of the element
+     */
+    renderWhenVisible: function (element, render) {
+        echartsJenkinsApi.registerChart(element);
+        if (typeof IntersectionObserver !== 'function' || element.getAttribute('data-lazy') === 'false') {
+            render();
+            return;
+        }
+
+        if (lazyCharts.renderer === null) {
+            lazyCharts.renderer = new IntersectionObserver(entries => entries.forEach(entry => {
+                const chart = lazyCharts.charts.get(entry.target);
+                if (entry.isIntersecting && chart && !chart.rendered) {
+                    chart.rendered = true;
+                    if (!chart.disposable) {
+                        lazyCharts.renderer.unobserve(entry.target);
+                    }
+                    chart.render();
+                }
+            }), {rootMargin: '200px'});
+            lazyCharts.disposer = new IntersectionObserver(entries => entries.forEach(entry => {
+                const chart = lazyCharts.charts.get(entry.target);
+                if (!entry.isIntersecting && chart && chart.rendered) {
+                    chart.rendered = false;
+                    if (entry.target.echart) {
+                        entry.target.echart.dispose();
+                        delete entry.target.echart;
+                    }
+                }
+            }), {rootMargin: '2000px'});
+        }
+
+        const disposable = element.getAttribute('data-dispose-hidden') === 'true';
+        lazyCharts.charts.set(element, {render, disposable, rendered: false});
+        lazyCharts.renderer.observe(element);
+        if (disposable) {
+            lazyCharts.disposer.observe(element);
+        }
+    },
+
     /**
      * Escapes the meta characters of the specified string so that the string can be used as an ID.
      *
@@ -112,6 +259,7 @@ const echartsJenkinsApi = {
         const zeroBasedYAxisCheckBox = trendConfiguration.find('#zero-based-y-axis-' + suffix);
         const widthSlider = trendConfiguration.find('#width-' + suffix);
         const heightSlider = trendConfiguration.find('#height-' + suffix);
+        const downsamplingSelect = trendConfiguration.find('#downsampling-' + suffix);
         const trendLocalStorageId = 'jenkins-echarts-trend-configuration-' + suffix;
         const saveButton = '#save-trend-configuration-' + suffix;
 
@@ -122,6 +270,7 @@ const echartsJenkinsApi = {
             useDateAsDomainCheckBox.prop('checked', false);
             widthSlider.val(500);
             heightSlider.val(200);
+            downsamplingSelect.val('none');
             if (fillDialog) {
                 fillDialog(trendConfiguration, {});
             }
@@ -143,6 +292,7 @@ const echartsJenkinsApi = {
                     widthSlider.next().html(trendJsonConfiguration.width)
                     heightSlider.val(trendJsonConfiguration.height);
                     heightSlider.next().html(trendJsonConfiguration.height)
+                    downsamplingSelect.val(trendJsonConfiguration.downsampling || 'none');
                     if (fillDialog) {
                         fillDialog(trendConfiguration, trendJsonConfiguration);
                     }
@@ -160,7 +310,8 @@ const echartsJenkinsApi = {
                 buildAsDomain: useBuildAsDomainCheckBox.prop('checked') ? 'true' : 'false',
                 zeroBasedYAxis: zeroBasedYAxisCheckBox.prop('checked') ? 'true' : 'false',
                 width: widthSlider.val(),
-                height: heightSlider.val()
+                height: heightSlider.val(),
+                downsampling: downsamplingSelect.val() || 'none'
             };
             localStorage.setItem(trendDefaultStorageId, JSON.stringify(configurationJson));
             if (saveDialog) {
@@ -386,11 +537,280 @@ const echartsJenkinsApi = {
                 }
             })
         }
-        jQuery3(window).resize(function () {
-            chart.resize();
+        echartsJenkinsApi.registerChart(chartPlaceHolder);
+    },
+
+    /**
+     * Loads the model of a trend chart using the batch endpoint of a job. All models of the same job that are
+     * requested while the current task is running (e.g., while all trend charts of a page are initialized) are
+     * collected and obtained from the server with a single request.
+     *
+     * @param {String} batchUrl - the URL of the batch endpoint of the job
+     * @param {String} urlName - the URL name of the action that provides the trend chart
+     * @param {Object} configuration - the configuration of the trend chart, or null if the chart is not configurable
+     * @param {Function} onSuccess - callback that receives the model of the trend chart (with resolved colors)
+     * @param {Function} onFailure - callback that will be invoked if the model could not be loaded
+     * @param {Number} [lastBuild] - the newest build that is already shown in the chart: if defined, then only the
+     *     results of newer builds will be loaded
+     * @param {Boolean} [useWorker] - determines whether the model should be loaded and parsed by a web worker (if
+     *     supported by the browser)
+     */
+    loadTrendModel: function (batchUrl, urlName, configuration, onSuccess, onFailure, lastBuild = 0, useWorker = false) {
+        function fetchModels(batch) {
+            const headers = crumb.wrap({'Content-Type': 'application/json'});
+            const body = JSON.stringify({
+                palette: echartsJenkinsApi.getJenkinsPalette(),
+                charts: batch.map(request => ({
+                    urlName: request.urlName,
+                    configuration: request.configuration === null ? null : JSON.stringify(request.configuration),
+                    lastBuild: request.lastBuild
+                }))
+            });
+            if (batch.some(request => request.useWorker)) {
+                const models = echartsJenkinsApi.fetchTrendModelsWithWorker(batchUrl, headers, body);
+                if (models) {
+                    return models;
+                }
+            }
+            return fetch(batchUrl, {method: 'POST', headers, body})
+                .then(response => {
+                    if (!response.ok) {
+                        throw new Error('Batch request failed with status ' + response.status);
+                    }
+                    const resolved = response.headers.get('X-ECharts-Colors') === 'resolved';
+                    return response.text().then(text => resolved
+                        ? JSON.parse(text) : JSON.parse(echartsJenkinsApi.resolveJenkinsColors(text)));
+                });
+        }
+
+        function sendBatch(batch) {
+            fetchModels(batch)
+                .then(models => {
+                    batch.forEach((request, index) => {
+                        if (models[index]) {
+                            request.onSuccess(models[index]);
+                        }
+                        else {
+                            request.onFailure();
+                        }
+                    });
+                }, () => {
+                    batch.forEach(request => request.onFailure());
+                });
+        }
+
+        let batch = pendingTrendRequests.get(batchUrl);
+        if (!batch) {
+            batch = [];
+            pendingTrendRequests.set(batchUrl, batch);
+            queueMicrotask(() => {
+                pendingTrendRequests.delete(batchUrl);
+                sendBatch(batch);
+            });
+        }
+        batch.push({urlName, configuration, onSuccess, onFailure, lastBuild, useWorker});
+    },
+
+    /**
+     * Decodes a trend model that has been encoded by the server in the columnar format (see configuration property
+     * 'encoding'). Delta encoded columns and base64 encoded 64-bit floats are converted back to plain arrays, the labels
+     * of the domain axis are restored from the build numbers if the server sent only the common prefix. Models that
+     * are not encoded are returned unchanged.
+     *
+     * @param {Object} model - the parsed trend model
+     * @returns {Object} the model with plain arrays for the domain axis, the build numbers and the series values
+     */
+    decodeTrendModel: function (model) {
+        if (!model || model.encoding !== 'columnar') {
+            return model;
+        }
+
+        function decodeColumn(column) {
+            if (!column || Array.isArray(column)) {
+                return column;
+            }
+            if (Array.isArray(column.delta)) {
+                let value = 0;
+                return column.delta.map(delta => value += delta);
+            }
+            if (typeof column.float64 === 'string') {
+                const binary = atob(column.float64);
+                const view = new DataView(new ArrayBuffer(binary.length));
+                for (let i = 0; i < binary.length; i++) {
+                    view.setUint8(i, binary.charCodeAt(i));
+                }
+                const values = [];
+                for (let offset = 0; offset + 8 <= binary.length; offset += 8) {
+                    values.push(view.getFloat64(offset, true));
+                }
+                return values;
+            }
+            return column;
+        }
+
+        const decoded = Object.assign({}, model);
+        delete decoded.encoding;
+        decoded.buildNumbers = decodeColumn(model.buildNumbers);
+        if (model.domainAxisLabels && typeof model.domainAxisLabels.prefix === 'string') {
+            decoded.domainAxisLabels = decoded.buildNumbers.map(build => model.domainAxisLabels.prefix + build);
+        }
+        if (Array.isArray(model.series)) {
+            decoded.series = model.series.map(series => Object.assign({}, series, {data: decodeColumn(series.data)}));
+        }
+        return decoded;
+    },
+
+    /**
+     * Returns an index that maps the labels of the domain axis of the specified trend model to the corresponding build
+     * numbers. The index is created only once for each model (or by the web worker that loaded the model).
+     *
+     * @param {Object} model - the trend model
+     * @returns {Map} the mapping of labels to build numbers
+     */
+    getBuildIndex: function (model) {
+        let index = buildIndexes.get(model);
+        if (!index) {
+            index = new Map();
+            const labels = model.domainAxisLabels || [];
+            (model.buildNumbers || []).forEach((build, position) => {
+                if (!index.has(labels[position])) { // the first build with a label is selected
+                    index.set(labels[position], build);
+                }
+            });
+            buildIndexes.set(model, index);
+        }
+        return index;
+    },
+
+    /**
+     * Posts a batch request for trend models to the web worker (see trend-model-worker.js) that loads, parses, and
+     * decodes the models off the main thread. The worker returns the build numbers and the values of the series as
+     * typed arrays, which are transferred without copying. Since ECharts interprets typed arrays as interleaved
+     * coordinates, these arrays are converted to plain arrays, which is a simple copy on the main thread. CSS variables
+     * that are not part of the Jenkins palette cannot be resolved by the worker (it has no access to the styles of
+     * the document): these variables are resolved on the main thread in the same way as in resolveJenkinsColors.
+     *
+     * @param {String} url - the URL of the batch endpoint
+     * @param {Object} headers - the HTTP headers of the request (including the crumb)
+     * @param {String} body - the body of the batch request
+     * @returns {Promise|null} a promise for the array of models, or null if web workers are not available
+     */
+    fetchTrendModelsWithWorker: function (url, headers, body) {
+        if (trendModelWorker.worker === null) {
+            trendModelWorker.worker = false;
+            if (typeof Worker === 'function' && echartsApiUrl) {
+                try {
+                    const worker = new Worker(echartsApiUrl.replace(/echarts-api\.js(\?.*)?$/, 'trend-model-worker.js'));
+                    worker.onmessage = event => {
+                        const response = event.data;
+                        const request = trendModelWorker.requests.get(response.id);
+                        trendModelWorker.requests.delete(response.id);
+                        if (request) {
+                            request(response);
+                        }
+                    };
+                    worker.onerror = () => { // e.g., the script could not be loaded: use the main thread from now on
+                        trendModelWorker.worker = false;
+                        trendModelWorker.requests.forEach(request => request({error: 'Trend model worker failed'}));
+                        trendModelWorker.requests.clear();
+                    };
+                    trendModelWorker.worker = worker;
+                }
+                catch (e) {
+                    // use the main thread if workers are blocked
+                }
+            }
+        }
+        if (!trendModelWorker.worker) {
+            return null;
+        }
+
+        const toArray = values => ArrayBuffer.isView(values) ? Array.from(values) : values;
+        const resolveVariables = (value, colors) => {
+            if (typeof value === 'string') {
+                return value.replaceAll(/--([a-z-]+)/g, match => colors[match] || match);
+            }
+            if (value && typeof value === 'object') {
+                Object.keys(value).forEach(key => value[key] = resolveVariables(value[key], colors));
+            }
+            return value;
+        };
+        return new Promise((resolve, reject) => {
+            const id = trendModelWorker.nextId++;
+            trendModelWorker.requests.set(id, response => {
+                if (response.error) {
+                    reject(new Error(response.error));
+                    return;
+                }
+                const colors = {};
+                (response.unresolved || []).forEach(name => colors[name] = echartsJenkinsApi.resolveJenkinsColor(name));
+                resolve(response.models.map(prepared => {
+                    if (!prepared) {
+                        return null;
+                    }
+                    const model = prepared.model;
+                    model.buildNumbers = toArray(model.buildNumbers);
+                    if (Array.isArray(model.series)) {
+                        model.series.forEach(series => series.data = toArray(series.data));
+                    }
+                    if (response.unresolved && response.unresolved.length > 0) {
+                        resolveVariables(model, colors);
+                    }
+                    buildIndexes.set(model, prepared.index);
+                    return model;
+                }));
+            });
+            trendModelWorker.worker.postMessage({
+                id, url, headers, body, palette: echartsJenkinsApi.getJenkinsPalette()
+            });
         });
     },
 
+    /**
+     * Appends the results of an incremental update to the specified trend model. Only builds that are newer than the
+     * specified last build will be appended. If the resulting model contains more builds than the maximum number of
+     * builds, then the oldest builds will be removed.
+     *
+     * @param {Object} model - the trend model that is currently shown
+     * @param {Object} delta - the model that contains the results of the new builds
+     * @param {Number} lastBuild - the newest build of the current model
+     * @param {Number} maximumBuilds - the maximum number of builds to show, or 0 if the number is not limited
+     * @returns {Object} the updated model, or null if the update cannot be applied (e.g., since the series differ)
+     */
+    appendTrendModel: function (model, delta, lastBuild, maximumBuilds) {
+        const buildNumbers = delta.buildNumbers || [];
+        const newBuilds = [];
+        buildNumbers.forEach((build, index) => {
+            if (build > lastBuild) {
+                newBuilds.push(index);
+            }
+        });
+        if (newBuilds.length === 0) {
+            return model;
+        }
+        if (!delta.series || delta.series.length !== model.series.length
+            || delta.series.some((series, index) => series.name !== model.series[index].name)) {
+            return null;
+        }
+
+        const append = (values, additions) => values.concat(newBuilds.map(index => additions[index]));
+        const updated = Object.assign({}, model, {
+            domainAxisLabels: append(model.domainAxisLabels, delta.domainAxisLabels),
+            buildNumbers: append(model.buildNumbers, buildNumbers),
+            series: model.series.map((series, index) => Object.assign({}, series, {
+                data: append(series.data, delta.series[index].data)
+            }))
+        });
+
+        const obsolete = updated.buildNumbers.length - maximumBuilds;
+        if (maximumBuilds > 0 && obsolete > 0) {
+            updated.domainAxisLabels = updated.domainAxisLabels.slice(obsolete);
+            updated.buildNumbers = updated.buildNumbers.slice(obsolete);
+            updated.series.forEach(series => series.data = series.data.slice(obsolete));
+        }
+        return updated;
+    },
+
     /**
      * Renders a trend chart in the specified div using ECharts.
      *
@@ -402,8 +822,10 @@ const echartsJenkinsApi = {
      *     will invoke the specified element. If your trend has no special configuration dialog
      *     then the ID "defaultTrendConfiguration" of the default configuration dialog should be used.
      * @param {Object} ajaxProxy - AJAX proxy of the endpoint in Jenkins Java model object
+     * @param {String} [batchUrl] - optional URL of the batch endpoint of the job: if defined, then the models of all
+     *     trend charts of the job will be loaded with a single request
      */
-    renderConfigurableTrendChart: function (chartDivId, enableLinks, configurationId, ajaxProxy) {
+    renderConfigurableTrendChart: function (chartDivId, enableLinks, configurationId, ajaxProxy, batchUrl) {
         function hasConfigurationDialog() {
             return configurationId != null && configurationId.length > 0;
         }
@@ -484,64 +906,205 @@ const echartsJenkinsApi = {
          * Redraws a trend chart in the specified div using ECharts.
          *
          * @param {Object} chart - the ECharts instance
-         * @param {String} model - the line chart model received from the Ajax call
+         * @param {String|Object} model - the line chart model received from the Ajax call (as JSON string), or the
+         *     already parsed model with resolved colors
          */
         function redraw(chart, model) {
+            if (chart.isDisposed()) {
+                return; // the chart has been moved far away from the viewport in the meantime
+            }
             chart.hideLoading();
-            const themedModel = echartsJenkinsApi.resolveJenkinsColors(model);
-            const chartModel = JSON.parse(themedModel);
+            const chartModel = echartsJenkinsApi.decodeTrendModel(typeof model === 'string'
+                ? JSON.parse(echartsJenkinsApi.resolveJenkinsColors(model)) : model);
             if (hasConfigurationDialog()) {
                 const trendConfig = echartsJenkinsApi.readConfiguration(
                     'jenkins-echarts-trend-configuration-' + configurationId
                 );
                 chartModel.zeroBasedYAxis = trendConfig.zeroBasedYAxis === 'true'; // NOPMD
+                chartPlaceHolder.shownConfiguration = JSON.stringify(trendConfig);
             }
             chart.setOption(createOptions(chartModel), true);
             chart.resize();
+            chartPlaceHolder.shownModel = chartModel;
 
-            if (!!(enableLinks && enableLinks !== "false")) {
+            if (hasLinks()) {
                 chartPlaceHolder.model = chartModel;
+            }
+        }
 
-                const urlName = chartPlaceHolder.getAttribute("tool");
-                if (urlName) {
-                    chart.getZr().on('click', params => {
-                        if (params.offsetY > 30) { // skip the legend
-                            const pointInPixel = [params.offsetX, params.offsetY];
-                            const pointInGrid = chart.convertFromPixel('grid', pointInPixel);
-                            const buildDisplayName = chart.getModel().get('xAxis')[0].data[pointInGrid[0]]
-                            const builds = chartPlaceHolder.model.buildNumbers;
-                            const labels = chartPlaceHolder.model.domainAxisLabels;
-
-                            let selectedBuild = 0;
-                            for (let i = 0; i < builds.length; i++) {
-                                if (buildDisplayName === labels[i]) {
-                                    selectedBuild = builds[i];
-                                    break;
-                                }
-                            }
+        function hasLinks() {
+            return !!(enableLinks && enableLinks !== "false");
+        }
 
-                            if (selectedBuild > 0) {
-                                const buildUrl = selectedBuild + '/' + urlName;
-                                const evt = params.event;
-                                if (evt && (evt.ctrlKey || evt.metaKey)) {
-                                    window.open(buildUrl, '_blank');
-                                } else if (evt && evt.shiftKey) {
-                                    window.open(buildUrl, '_newWindow');
-                                } else {
-                                    window.location.assign(buildUrl)
-                                }
-                            }
+        /**
+         * Registers the click handler that opens the results of the selected build. The handler is registered only
+         * once for each ECharts instance, it uses the model that is currently shown in the chart.
+         *
+         * @param {Object} chart - the ECharts instance
+         */
+        function registerLinks(chart) {
+            const urlName = chartPlaceHolder.getAttribute("tool");
+            if (!hasLinks() || !urlName) {
+                return;
+            }
+
+            chart.getZr().on('click', params => {
+                const model = chartPlaceHolder.model;
+                if (model && params.offsetY > 30) { // skip the legend
+                    const pointInPixel = [params.offsetX, params.offsetY];
+                    const pointInGrid = chart.convertFromPixel('grid', pointInPixel);
+                    const buildDisplayName = chart.getModel().get('xAxis')[0].data[pointInGrid[0]]
+                    const selectedBuild = echartsJenkinsApi.getBuildIndex(model).get(buildDisplayName) || 0;
+
+                    if (selectedBuild > 0) {
+                        const buildUrl = selectedBuild + '/' + urlName;
+                        const evt = params.event;
+                        if (evt && (evt.ctrlKey || evt.metaKey)) {
+                            window.open(buildUrl, '_blank');
+                        } else if (evt && evt.shiftKey) {
+                            window.open(buildUrl, '_newWindow');
+                        } else {
+                            window.location.assign(buildUrl)
                         }
-                    })
+                    }
                 }
+            })
+        }
+
+        function loadModelWithProxy(configuration, onSuccess) {
+            if (configuration === null) {
+                ajaxProxy.getBuildTrendModel(function (trendModel) {
+                    onSuccess(trendModel.responseJSON);
+                });
+            }
+            else {
+                ajaxProxy.getConfigurableBuildTrendModel(JSON.stringify(configuration), function (trendModel) {
+                    onSuccess(trendModel.responseJSON);
+                });
+            }
+        }
+
+        function loadModel(configuration, onSuccess) {
+            const urlName = chartPlaceHolder.getAttribute("tool");
+            const request = configuration === null ? null
+                : Object.assign({}, configuration, {encoding: 'columnar'}); // decoded in redraw
+            const useWorker = chartPlaceHolder.getAttribute('data-worker') === 'true';
+            if (batchUrl && urlName) {
+                echartsJenkinsApi.loadTrendModel(batchUrl, urlName, request, onSuccess,
+                    () => loadModelWithProxy(request, onSuccess), 0, useWorker);
+            }
+            else {
+                loadModelWithProxy(request, onSuccess);
+            }
+        }
+
+        function loadDelta(configuration, lastBuild, onSuccess) {
+            const urlName = chartPlaceHolder.getAttribute("tool");
+            const loadDeltaWithProxy = () => {
+                ajaxProxy.getConfigurableBuildTrendModelDelta(JSON.stringify(configuration), lastBuild,
+                    function (trendModel) {
+                        onSuccess(JSON.parse(echartsJenkinsApi.resolveJenkinsColors(trendModel.responseJSON)));
+                    });
+            };
+            if (batchUrl && urlName) {
+                echartsJenkinsApi.loadTrendModel(batchUrl, urlName, configuration, onSuccess, loadDeltaWithProxy,
+                    lastBuild);
+            }
+            else {
+                loadDeltaWithProxy();
             }
         }
 
-        function renderAsynchronously(chart) {
+        /**
+         * Returns whether the chart can be updated incrementally, i.e. whether the chart already shows a model with
+         * the same configuration where each build is shown as a separate point on the domain axis. Downsampled
+         * models cannot be updated incrementally since the server selects a different subset of builds.
+         */
+        function canLoadDelta(state, configuration, configurationJson) {
+            return state && state.configuration === configurationJson
+                && typeof ajaxProxy.getConfigurableBuildTrendModelDelta === 'function'
+                && Array.isArray(state.model.buildNumbers) && state.model.buildNumbers.length > 0
+                && state.model.buildNumbers[0] < state.model.buildNumbers[state.model.buildNumbers.length - 1]
+                && String(configuration.buildAsDomain) !== 'false'
+                && !(parseInt(configuration.numberOfDays) > 0)
+                && (!configuration.downsampling || configuration.downsampling === 'none');
+        }
+
+        /**
+         * Returns the JSON representation of the properties of the specified configuration that are evaluated on the
+         * server. The other properties (height and zero based y-axis) only affect the presentation of the model. The
+         * width is evaluated on the server only if the model is downsampled.
+         */
+        function getModelConfiguration(configuration) {
+            const modelConfiguration = Object.assign({}, configuration);
+            delete modelConfiguration.height;
+            delete modelConfiguration.zeroBasedYAxis;
+            if (!configuration.downsampling || configuration.downsampling === 'none') {
+                delete modelConfiguration.width;
+            }
+            return JSON.stringify(modelConfiguration);
+        }
+
+        /**
+         * Applies a changed configuration to the chart. If only presentation settings have been changed, then the
+         * chart is redrawn using the model that is already shown. Otherwise, the model is loaded from the server.
+         */
+        function applyConfiguration(chart) {
+            const state = chartPlaceHolder.trendState;
+            const configuration = echartsJenkinsApi.readConfiguration(
+                'jenkins-echarts-trend-configuration-' + configurationId);
+            if (state && state.configuration === getModelConfiguration(configuration)) {
+                redraw(chart, state.model);
+            }
+            else {
+                renderAsynchronously(chart);
+            }
+        }
+
+        /**
+         * Returns whether the chart is affected by the specified change of a configuration dialog. A chart is always
+         * affected by its own dialog (that might be shared with other charts using the same configuration ID). A
+         * dialog of another chart can only change the common settings, so the chart is affected only if the
+         * configuration differs from the configuration of the shown model.
+         *
+         * @param {CustomEvent} event - the event that has been dispatched after a dialog has been closed
+         */
+        function isAffectedBy(event) {
+            const changedId = event.detail && event.detail.configurationId;
+            if (!changedId || changedId === configurationId) {
+                return true;
+            }
+            const configuration = echartsJenkinsApi.readConfiguration(
+                'jenkins-echarts-trend-configuration-' + configurationId);
+            return chartPlaceHolder.shownConfiguration !== JSON.stringify(configuration);
+        }
+
+        function renderAsynchronously(chart, forceReload = false) {
             const configuration = echartsJenkinsApi.readConfiguration('jenkins-echarts-trend-configuration-' + configurationId);
-            ajaxProxy.getConfigurableBuildTrendModel(JSON.stringify(configuration), function (trendModel) {
-                redraw(chart, trendModel.responseJSON);
-            });
+            const configurationJson = getModelConfiguration(configuration);
+            const state = chartPlaceHolder.trendState;
+            const showModel = (trendModel) => {
+                redraw(chart, trendModel);
+                chartPlaceHolder.trendState = {configuration: configurationJson, model: chartPlaceHolder.shownModel};
+            };
+
+            if (!forceReload && canLoadDelta(state, configuration, configurationJson)) {
+                const buildNumbers = state.model.buildNumbers;
+                const lastBuild = buildNumbers[buildNumbers.length - 1];
+                loadDelta(configuration, lastBuild, function (delta) {
+                    const updated = echartsJenkinsApi.appendTrendModel(state.model, delta, lastBuild,
+                        parseInt(configuration.numberOfBuilds) || 0);
+                    if (updated === null) {
+                        loadModel(configuration, showModel);
+                    }
+                    else {
+                        showModel(updated);
+                    }
+                });
+            }
+            else {
+                loadModel(configuration, showModel);
+            }
         }
 
         function setHeight(trend, configuration) {
@@ -568,45 +1131,77 @@ const echartsJenkinsApi = {
 
         const chartPlaceHolder = document.getElementById(chartDivId);
 
-        const chart = echarts.init(chartPlaceHolder);
-        chart.showLoading();
-        chartPlaceHolder.echart = chart;
+        /**
+         * Returns the ECharts instance of this trend chart, or null if the chart has not been rendered yet or has been
+         * disposed since it is far away from the viewport.
+         */
+        function getChart() {
+            const chart = chartPlaceHolder.echart;
+            return chart && !chart.isDisposed() ? chart : null;
+        }
 
-        window.onresize = function () {
-            chart.resize();
-        };
+        /**
+         * Creates the ECharts instance as soon as the chart approaches the viewport. If the chart has been shown
+         * before, then only the results of new builds are loaded (if possible).
+         */
+        function initialize() {
+            const chart = echarts.init(chartPlaceHolder);
+            chart.showLoading();
+            chartPlaceHolder.echart = chart;
+            registerLinks(chart);
+
+            if (hasConfigurationDialog()) {
+                renderAsynchronously(chart);
+            }
+            else if (chartPlaceHolder.shownModel) { // AsyncTrendChart that has been disposed
+                redraw(chart, chartPlaceHolder.shownModel);
+            }
+            else { // AsyncTrendChart
+                loadModel(null, function (trendModel) {
+                    redraw(chart, trendModel);
+                });
+            }
+        }
 
         if (hasConfigurationDialog()) {
             const localStorageId = 'jenkins-echarts-trend-configuration-' + configurationId;
             setSize(chartPlaceHolder, localStorageId);
-            renderAsynchronously(chart);
 
             const redrawChartEvent = "echarts.trend.changed";
-            document.addEventListener(redrawChartEvent, function () {
-                renderAsynchronously(chart);
+            document.addEventListener(redrawChartEvent, function (event) {
+                const chart = getChart();
+                if (chart && isAffectedBy(event)) {
+                    applyConfiguration(chart);
+                }
             });
             if (window.getThemeManagerProperty && window.isSystemRespectingTheme) {
                 window.matchMedia('(prefers-color-scheme: dark)').addEventListener('change', event => {
-                    renderAsynchronously(chart);
+                    jenkinsPalette.colors = null; // the theme attribute does not change if the system theme is used
+                    const chart = getChart();
+                    if (chart) {
+                        renderAsynchronously(chart, true); // colors of the current model need to be resolved again
+                    }
+                    else {
+                        delete chartPlaceHolder.trendState;
+                    }
                 });
             }
 
-            getConfigurationDialog().addEventListener("hidden.bs.modal", function () {
-                const configuration = echartsJenkinsApi.readConfiguration(localStorageId);
-                const trends = document.getElementsByClassName("echarts-trend");
-                for (let i = 0; i < trends.length; i++) {
-                    setSize(trends[i], configuration);
-                }
+            const dialog = getConfigurationDialog();
+            if (dialog && !trendConfigurationDialogs.has(dialog)) { // the dialog might be shared by several charts
+                trendConfigurationDialogs.add(dialog);
+                dialog.addEventListener("hidden.bs.modal", function () {
+                    const trends = document.getElementsByClassName("echarts-trend");
+                    for (let i = 0; i < trends.length; i++) {
+                        setSize(trends[i], trendDefaultStorageId); // the size is part of the common settings
+                    }
 
-                const event = new Event(redrawChartEvent);
-                document.dispatchEvent(event);
-            });
-        }
-        else { // AsyncTrendChart
-            ajaxProxy.getBuildTrendModel(function (trendModel) {
-                redraw(chart, trendModel.responseJSON);
-            });
+                    document.dispatchEvent(new CustomEvent(redrawChartEvent, {detail: {configurationId}}));
+                });
+            }
         }
+
+        echartsJenkinsApi.renderWhenVisible(chartPlaceHolder, initialize);
     },
 
     /**
@@ -722,20 +1317,10 @@ const echartsJenkinsApi = {
             return chart;
         }
 
-        const allPieCharts = jQuery3('div.echarts-pie-chart');
-        const pieChartInstances = [];
-        allPieCharts.each(function () {
-            const chart = jQuery3(this);
-            const id = chart.attr('id');
+        jQuery3('div.echarts-pie-chart').each(function () {
+            const id = jQuery3(this).attr('id');
 
-            pieChartInstances.push(renderPieChart(id));
+            echartsJenkinsApi.renderWhenVisible(this, () => renderPieChart(id));
         });
-        if (pieChartInstances.length > 0) {
-            jQuery3(window).resize(function () {
-                pieChartInstances.forEach(function (chartInstance) {
-                    chartInstance.resize();
-                });
-            });
-        }
     }
 }
@@ -53,22 +53,11 @@ jQuery3(document).ready(function () {
             return chart;
         }
 
-        const allProgressCharts = jQuery3('div.echarts-progress-chart');
-        const progressChartInstances = [];
-        allProgressCharts.each(function () {
-            const chart = jQuery3(this);
-            const id = chart.attr('id');
+        jQuery3('div.echarts-progress-chart').each(function () {
+            const id = jQuery3(this).attr('id');
 
-            progressChartInstances.push(renderProgressChart(id));
+            echartsJenkinsApi.renderWhenVisible(this, () => renderProgressChart(id));
         });
-
-        if (progressChartInstances.length > 0) {
-            jQuery3(window).resize(function () {
-                progressChartInstances.forEach(function (chartInstance) {
-                    chartInstance.resize();
-                });
-            });
-        }
     }
 
     renderProgressChart();
@@ -0,0 +1,82 @@
+/* global echartsJenkinsApi, importScripts */
+/**
+ * Web worker that loads the models of trend charts from the batch endpoint of a job and prepares them for rendering,
+ * so that the main thread of the browser is not blocked by parsing large models. The worker resolves the Jenkins
+ * colors using the palette of the current theme (other CSS variables are returned unchanged and resolved by the main
+ * thread, since the worker has no access to the styles of the document), parses and decodes the models, fixes the
+ * emphasis of the series, and creates an index that maps the labels of the domain axis to the build numbers. The build
+ * numbers and the numeric values of the series are returned as typed arrays that are transferred to the main thread
+ * without copying.
+ *
+ * Request message: {id, url, headers, body, palette}
+ * Response message: {id, models: [{model, index}], unresolved: [variable]} or {id, error}
+ */
+importScripts('echarts-api.js');
+
+function resolveColors(text, palette, unresolved) {
+    return text.replaceAll(/--([a-z-]+)/g, match => {
+        if (palette[match]) {
+            return palette[match];
+        }
+        unresolved.add(match);
+        return match;
+    });
+}
+
+function toTypedArray(values, type) {
+    if (!Array.isArray(values) || values.some(value => typeof value !== 'number')) {
+        return values; // e.g., null values of missing results
+    }
+    return type.from(values);
+}
+
+function prepare(model, transfer) {
+    if (!model) {
+        return null;
+    }
+
+    const decoded = echartsJenkinsApi.decodeTrendModel(model);
+    const index = new Map();
+    if (Array.isArray(decoded.series)) {
+        echartsJenkinsApi.fixEmphasis(decoded);
+        decoded.series.forEach(series => {
+            series.data = toTypedArray(series.data, Float64Array);
+            if (ArrayBuffer.isView(series.data)) {
+                transfer.push(series.data.buffer);
+            }
+        });
+    }
+    if (Array.isArray(decoded.buildNumbers)) {
+        const labels = decoded.domainAxisLabels || [];
+        decoded.buildNumbers.forEach((build, position) => {
+            if (!index.has(labels[position])) { // the first build with a label is selected
+                index.set(labels[position], build);
+            }
+        });
+        decoded.buildNumbers = toTypedArray(decoded.buildNumbers, Int32Array);
+        if (ArrayBuffer.isView(decoded.buildNumbers)) {
+            transfer.push(decoded.buildNumbers.buffer);
+        }
+    }
+    return {model: decoded, index};
+}
+
+self.onmessage = function (event) {
+    const request = event.data;
+    const unresolved = new Set();
+    fetch(request.url, {method: 'POST', headers: request.headers, body: request.body})
+        .then(response => {
+            if (!response.ok) {
+                throw new Error('Batch request failed with status ' + response.status);
+            }
+            const resolved = response.headers.get('X-ECharts-Colors') === 'resolved';
+            return response.text().then(text => JSON.parse(resolved ? text : resolveColors(text, request.palette,
+                unresolved)));
+        })
+        .then(models => {
+            const transfer = [];
+            const prepared = models.map(model => prepare(model, transfer));
+            self.postMessage({id: request.id, models: prepared, unresolved: Array.from(unresolved)}, transfer);
+        })
+        .catch(error => self.postMessage({id: request.id, error: String(error)}));
+};
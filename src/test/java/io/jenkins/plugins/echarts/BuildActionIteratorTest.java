@@ -135,6 +135,116 @@ class BuildActionIteratorTest {
         assertThat(iterator).isExhausted();
     }
 
+    @Test
+    void shouldStopAfterMaximumNumberOfBuilds() {
+        TestAction testAction = mock(TestAction.class);
+        Run<?, ?> baseline = mock(Run.class);
+        when(testAction.getOwner()).thenAnswer(i -> baseline);
+
+        BuildActionIterator<TestAction> iterator = new BuildActionIterator<>(TestAction.class,
+                Optional.of(testAction), a -> true, HistoryLimits.ofBuilds(1));
+
+        assertThat(iterator).hasNext();
+        verifyResult(testAction, iterator);
+        assertThat(iterator).isExhausted();
+
+        verify(baseline, never()).getPreviousBuild();
+    }
+
+    @Test
+    void shouldReturnEveryNthBuild() {
+        TestAction testAction = mock(TestAction.class);
+        Run<?, ?> baseline = mock(Run.class);
+        when(testAction.getOwner()).thenAnswer(i -> baseline);
+
+        TestAction skippedAction = mock(TestAction.class);
+        Run<?, ?> skippedBuild = mock(Run.class);
+        when(skippedAction.getOwner()).thenAnswer(i -> skippedBuild);
+        when(skippedBuild.getActions(TestAction.class)).thenReturn(Collections.singletonList(skippedAction));
+        when(baseline.getPreviousBuild()).thenAnswer(i -> skippedBuild);
+
+        TestAction previousAction = mock(TestAction.class);
+        Run<?, ?> previousBuild = mock(Run.class);
+        when(previousAction.getOwner()).thenAnswer(i -> previousBuild);
+        when(previousBuild.getActions(TestAction.class)).thenReturn(Collections.singletonList(previousAction));
+        when(skippedBuild.getPreviousBuild()).thenAnswer(i -> previousBuild);
+
+        BuildActionIterator<TestAction> iterator = new BuildActionIterator<>(TestAction.class,
+                Optional.of(testAction), a -> true, HistoryLimits.unlimited().everyNthBuild(2));
+
+        assertThat(iterator).hasNext();
+        verifyResult(testAction, iterator);
+
+        assertThat(iterator).hasNext();
+        verifyResult(previousAction, iterator);
+        assertThat(iterator).isExhausted();
+    }
+
+    @Test
+    void shouldStopAtBuildsThatAreTooOld() {
+        long day = 24 * 60 * 60 * 1000L;
+        long now = 100 * day;
+
+        TestAction testAction = mock(TestAction.class);
+        Run<?, ?> baseline = mock(Run.class);
+        when(baseline.getTimeInMillis()).thenReturn(now);
+        when(testAction.getOwner()).thenAnswer(i -> baseline);
+
+        TestAction previousAction = mock(TestAction.class);
+        Run<?, ?> previousBuild = mock(Run.class);
+        when(previousBuild.getTimeInMillis()).thenReturn(now - 10 * day);
+        when(previousAction.getOwner()).thenAnswer(i -> previousBuild);
+        when(previousBuild.getActions(TestAction.class)).thenReturn(Collections.singletonList(previousAction));
+        when(baseline.getPreviousBuild()).thenAnswer(i -> previousBuild);
+
+        BuildActionIterator<TestAction> iterator = new BuildActionIterator<>(TestAction.class,
+                Optional.of(testAction), a -> true, HistoryLimits.createLimits(0, 7));
+
+        assertThat(iterator).hasNext();
+        verifyResult(testAction, iterator);
+        assertThat(iterator).isExhausted();
+
+        verify(previousBuild, never()).getPreviousBuild();
+    }
+
+    @Test
+    void shouldStopAtLastKnownBuild() {
+        TestAction testAction = mock(TestAction.class);
+        Run<?, ?> baseline = mock(Run.class);
+        when(baseline.getNumber()).thenReturn(12);
+        when(testAction.getOwner()).thenAnswer(i -> baseline);
+
+        TestAction previousAction = mock(TestAction.class);
+        Run<?, ?> previousBuild = mock(Run.class);
+        when(previousBuild.getNumber()).thenReturn(10);
+        when(previousAction.getOwner()).thenAnswer(i -> previousBuild);
+        when(previousBuild.getActions(TestAction.class)).thenReturn(Collections.singletonList(previousAction));
+        when(baseline.getPreviousBuild()).thenAnswer(i -> previousBuild);
+
+        BuildActionIterator<TestAction> iterator = new BuildActionIterator<>(TestAction.class,
+                Optional.of(testAction), a -> true, HistoryLimits.unlimited().newerThan(10));
+
+        assertThat(iterator).hasNext();
+        verifyResult(testAction, iterator);
+        assertThat(iterator).isExhausted();
+        verify(previousBuild, never()).getPreviousBuild();
+
+        assertThat(new BuildActionIterator<>(TestAction.class,
+                Optional.of(testAction), a -> true, HistoryLimits.unlimited().newerThan(12))).isExhausted();
+    }
+
+    @Test
+    void shouldCreateLimitsFromJson() {
+        assertThat(HistoryLimits.fromJson("{}").isUnlimited()).isTrue();
+        assertThat(HistoryLimits.fromJson("no JSON").isUnlimited()).isTrue();
+        assertThat(HistoryLimits.fromJson("{\"numberOfBuilds\":1}").isUnlimited()).isTrue();
+
+        var limits = HistoryLimits.fromJson("{\"numberOfBuilds\":\"50\",\"numberOfDays\":7}");
+        assertThat(limits.getMaximumBuilds()).isEqualTo(50);
+        assertThat(limits.getMaximumDays()).isEqualTo(7);
+        assertThat(limits.getStep()).isEqualTo(1);
+    }
+
     @Test
     void shouldReturnResultOfPreviousBuildWithFilter() {
         TestAction first = mock(TestAction.class);
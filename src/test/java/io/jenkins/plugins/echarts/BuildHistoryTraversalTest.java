@@ -0,0 +1,174 @@
+package io.jenkins.plugins.echarts;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import edu.hm.hafner.echarts.BuildResult;
+
+import hudson.model.Run;
+
+import io.jenkins.plugins.util.BuildAction;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests the class {@link BuildHistoryTraversal}.
+ */
+class BuildHistoryTraversalTest {
+    @Test
+    void shouldWalkHistoryOnceForAllConsumersOfSameActionType() {
+        Run<?, ?> third = createRun(3);
+        Run<?, ?> second = createRun(2);
+        Run<?, ?> first = createRun(1);
+        when(third.getPreviousBuild()).thenAnswer(i -> second);
+        when(second.getPreviousBuild()).thenAnswer(i -> first);
+
+        var thirdTest = createAction(TestAction.class, third, "t3");
+        var firstTest = createAction(TestAction.class, first, "t1");
+        var secondOther = createAction(OtherAction.class, second, "o2");
+        var firstOther = createAction(OtherAction.class, first, "o1");
+
+        var traversal = new BuildHistoryTraversal();
+        var tests = traversal.register(TestAction.class, Optional.of(thirdTest), a -> true, TestAction::getResult,
+                HistoryLimits.ofBuilds(10));
+        var sameTests = traversal.register(TestAction.class, Optional.of(thirdTest), a -> true,
+                TestAction::getResult, HistoryLimits.ofBuilds(5));
+        var others = traversal.register(OtherAction.class, Optional.of(secondOther), a -> true,
+                OtherAction::getResult, HistoryLimits.ofBuilds(10));
+        var empty = traversal.register(OtherAction.class, Optional.empty(), a -> true, OtherAction::getResult,
+                HistoryLimits.ofBuilds(10));
+
+        SharedBuildHistory.callWith(() -> {
+            assertThat(getResults(tests)).containsExactly("t3", "t1");
+            assertThat(getResults(sameTests)).containsExactly("t3", "t1");
+            assertThat(getResults(others)).containsExactly("o2", "o1");
+            assertThat(getResults(empty)).isEmpty();
+            return null;
+        });
+
+        verify(third).getPreviousBuild();
+        verify(second, times(2)).getPreviousBuild(); // once for each action type
+        verify(third, never()).getActions(TestAction.class);
+        verify(second).getActions(TestAction.class);
+        verify(first).getActions(TestAction.class);
+        verify(first).getActions(OtherAction.class);
+    }
+
+    @Test
+    void shouldWalkOnlyAsFarAsConsumersIterate() {
+        Run<?, ?> second = createRun(2);
+        Run<?, ?> first = createRun(1);
+        when(second.getPreviousBuild()).thenAnswer(i -> first);
+
+        var secondTest = createAction(TestAction.class, second, "2");
+        createAction(TestAction.class, first, "1");
+
+        var traversal = new BuildHistoryTraversal();
+        var history = traversal.register(TestAction.class, Optional.of(secondTest), a -> true,
+                TestAction::getResult, HistoryLimits.ofBuilds(10));
+
+        assertThat(history.iterator().next().getResult()).isEqualTo("2");
+        verify(second, never()).getPreviousBuild();
+
+        assertThat(getResults(history)).containsExactly("2", "1");
+        verify(second).getPreviousBuild();
+    }
+
+    @Test
+    void shouldNotShareWalkOfUnboundedConsumers() {
+        Run<?, ?> second = createRun(2);
+        Run<?, ?> first = createRun(1);
+        when(second.getPreviousBuild()).thenAnswer(i -> first);
+
+        var secondTest = createAction(TestAction.class, second, "2");
+        createAction(TestAction.class, first, "1");
+
+        var traversal = new BuildHistoryTraversal();
+        var history = traversal.register(TestAction.class, Optional.of(secondTest), a -> true,
+                TestAction::getResult, HistoryLimits.unlimited());
+
+        assertThat(history.iterator()).isInstanceOf(GenericBuildActionIterator.class);
+        assertThat(getResults(history)).containsExactly("2", "1");
+    }
+
+    @Test
+    void shouldRespectLimitsOfEachConsumer() {
+        Run<?, ?> third = createRun(3);
+        Run<?, ?> second = createRun(2);
+        Run<?, ?> first = createRun(1);
+        when(third.getPreviousBuild()).thenAnswer(i -> second);
+        when(second.getPreviousBuild()).thenAnswer(i -> first);
+
+        var thirdTest = createAction(TestAction.class, third, "3");
+        createAction(TestAction.class, second, "2");
+        createAction(TestAction.class, first, "1");
+
+        var traversal = new BuildHistoryTraversal();
+        var limited = traversal.register(TestAction.class, Optional.of(thirdTest), a -> true, TestAction::getResult,
+                HistoryLimits.ofBuilds(1));
+        var everySecond = traversal.register(TestAction.class, Optional.of(thirdTest), a -> true,
+                TestAction::getResult, HistoryLimits.ofBuilds(10).everyNthBuild(2));
+
+        assertThat(getResults(limited)).containsExactly("3");
+        assertThat(getResults(everySecond)).containsExactly("3", "1");
+    }
+
+    @Test
+    void shouldReuseRegistrationOfSameOwner() {
+        Run<?, ?> run = createRun(1);
+        var action = createAction(TestAction.class, run, "1");
+
+        var traversal = new BuildHistoryTraversal();
+        var owner = new Object();
+        var history = traversal.register(owner, TestAction.class, Optional.of(action), a -> true,
+                TestAction::getResult, HistoryLimits.ofBuilds(5));
+
+        assertThat(traversal.register(owner, TestAction.class, Optional.of(action), a -> true,
+                TestAction::getResult, HistoryLimits.ofBuilds(5))).isSameAs(history);
+        assertThat(traversal.register(owner, TestAction.class, Optional.of(action), a -> true,
+                TestAction::getResult, HistoryLimits.ofBuilds(2))).isNotSameAs(history);
+        assertThat(traversal.register(new Object(), TestAction.class, Optional.of(action), a -> true,
+                TestAction::getResult, HistoryLimits.ofBuilds(5))).isNotSameAs(history);
+    }
+
+    private <T> List<T> getResults(final Iterable<BuildResult<T>> history) {
+        List<T> results = new ArrayList<>();
+        history.forEach(result -> results.add(result.getResult()));
+        return results;
+    }
+
+    private Run<?, ?> createRun(final int number) {
+        Run<?, ?> run = mock(Run.class);
+        when(run.getNumber()).thenReturn(number);
+        return run;
+    }
+
+    private <T extends BuildAction<String>> T createAction(final Class<T> type, final Run<?, ?> run,
+            final String result) {
+        T action = mock(type);
+        when(action.getOwner()).thenAnswer(i -> run);
+        when(action.getResult()).thenReturn(result);
+        when(run.getActions(type)).thenReturn(List.of(action));
+        return action;
+    }
+
+    private abstract static class TestAction extends BuildAction<String> {
+        private static final long serialVersionUID = 2913541290465787440L;
+
+        TestAction(final Run<?, ?> owner, final String result) {
+            super(owner, result);
+        }
+    }
+
+    private abstract static class OtherAction extends BuildAction<String> {
+        private static final long serialVersionUID = -1407101306009950307L;
+
+        OtherAction(final Run<?, ?> owner, final String result) {
+            super(owner, result);
+        }
+    }
+}
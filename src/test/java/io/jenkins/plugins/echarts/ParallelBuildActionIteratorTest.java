@@ -0,0 +1,217 @@
+package io.jenkins.plugins.echarts;
+
+import edu.hm.hafner.echarts.BuildResult;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import hudson.model.Run;
+
+import io.jenkins.plugins.util.BuildAction;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests the class {@link ParallelBuildActionIterator}.
+ */
+class ParallelBuildActionIteratorTest {
+    private final ExecutorService executor = Executors.newFixedThreadPool(3);
+
+    @AfterEach
+    void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldReturnResultsInOrderOfBuildHistory() {
+        var latest = createHistory(10);
+
+        var iterator = new ParallelBuildActionIterator<>(TestAction.class, latest, a -> true,
+                action -> {
+                    int number = action.getOwner().getNumber();
+                    sleep(number % 3 * 5L); // extractions complete in a different order
+                    return number;
+                }, HistoryLimits.unlimited(), executor, 4);
+
+        List<Integer> builds = new ArrayList<>();
+        List<Integer> results = new ArrayList<>();
+        iterator.forEachRemaining(result -> {
+            builds.add(result.getBuild().getNumber());
+            results.add(result.getResult());
+        });
+
+        assertThat(builds).containsExactly(10, 9, 8, 7, 6, 5, 4, 3, 2, 1);
+        assertThat(results).containsExactly(10, 9, 8, 7, 6, 5, 4, 3, 2, 1);
+    }
+
+    @Test
+    void shouldRespectHistoryLimits() {
+        var latest = createHistory(10);
+
+        var iterable = new GenericBuildActionIterator.BuildActionIterable<>(TestAction.class, latest, a -> true,
+                action -> action.getOwner().getNumber(), HistoryLimits.ofBuilds(3)).inParallel();
+
+        assertThat(iterable).extracting(BuildResult::getResult).containsExactly(10, 9, 8);
+    }
+
+    @Test
+    void shouldSubmitOnlyWindowOfExtractions() {
+        var latest = createHistory(10);
+        var extractions = new AtomicInteger();
+
+        var iterator = new ParallelBuildActionIterator<>(TestAction.class, latest, a -> true,
+                action -> extractions.incrementAndGet(), HistoryLimits.unlimited(), executor, 2);
+
+        assertThat(iterator.next().getBuild().getNumber()).isEqualTo(10);
+        assertThat(iterator.next().getBuild().getNumber()).isEqualTo(9);
+        assertThat(extractions.get()).isLessThanOrEqualTo(3); // two consumed results and one result ahead
+        assertThat(iterator).hasNext();
+    }
+
+    @Test
+    void shouldCancelPendingExtractionsIfExtractionFails() {
+        var latest = createHistory(5);
+
+        var iterator = new ParallelBuildActionIterator<>(TestAction.class, latest, a -> true,
+                action -> {
+                    if (action.getOwner().getNumber() == 5) {
+                        throw new IllegalArgumentException("Broken result");
+                    }
+                    return 0;
+                }, HistoryLimits.unlimited(), executor, 3);
+
+        assertThatIllegalArgumentException().isThrownBy(iterator::next).withMessage("Broken result");
+        assertThat(iterator).isExhausted();
+    }
+
+    @Test
+    void shouldCancelPendingExtractionsIfInterrupted() {
+        var latest = createHistory(5);
+        var blocked = new CountDownLatch(1);
+
+        var iterator = new ParallelBuildActionIterator<>(TestAction.class, latest, a -> true,
+                action -> {
+                    await(blocked);
+                    return 0;
+                }, HistoryLimits.unlimited(), executor, 3);
+
+        Thread.currentThread().interrupt();
+        try {
+            assertThatExceptionOfType(CancellationException.class).isThrownBy(iterator::next);
+            assertThat(Thread.currentThread().isInterrupted()).isTrue();
+            assertThat(iterator).isExhausted();
+        }
+        finally {
+            Thread.interrupted();
+            blocked.countDown();
+        }
+    }
+
+    @Test
+    void shouldCancelPendingExtractionsIfClosed() {
+        var latest = createHistory(5);
+        var blocked = new CountDownLatch(1);
+
+        var iterator = new ParallelBuildActionIterator<>(TestAction.class, latest, a -> true,
+                action -> {
+                    await(blocked);
+                    return 0;
+                }, HistoryLimits.unlimited(), executor, 3);
+
+        try {
+            assertThat(iterator).hasNext();
+
+            iterator.close();
+
+            assertThat(iterator).isExhausted();
+        }
+        finally {
+            blocked.countDown();
+        }
+    }
+
+    @Test
+    void shouldCloseAbandonedIteratorsAfterComputation() {
+        var latest = createHistory(10);
+        var extractions = new AtomicInteger();
+        List<ParallelBuildActionIterator<TestAction, Integer>> created = new ArrayList<>();
+
+        int first = ParallelBuildActionIterator.closeAfter(() -> {
+            var iterator = new ParallelBuildActionIterator<>(TestAction.class, latest, a -> true,
+                    action -> extractions.incrementAndGet(), HistoryLimits.unlimited(), executor, 2);
+            created.add(iterator);
+            return iterator.next().getBuild().getNumber(); // abandons the iterator after the first result
+        });
+
+        assertThat(first).isEqualTo(10);
+        assertThat(created).singleElement().satisfies(iterator -> assertThat(iterator).isExhausted());
+        assertThat(extractions.get()).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void shouldNotCloseIteratorsCreatedOutsideOfComputation() {
+        var latest = createHistory(3);
+
+        var iterator = new ParallelBuildActionIterator<>(TestAction.class, latest, a -> true,
+                action -> action.getOwner().getNumber(), HistoryLimits.unlimited(), executor, 2);
+        ParallelBuildActionIterator.closeAfter(() -> 0);
+
+        assertThat(iterator).toIterable().extracting(BuildResult::getResult).containsExactly(3, 2, 1);
+    }
+
+    private Optional<TestAction> createHistory(final int size) {
+        Run<?, ?> previous = null;
+        TestAction latest = null;
+        for (int number = 1; number <= size; number++) {
+            Run<?, ?> run = mock(Run.class);
+            when(run.getNumber()).thenReturn(number);
+            Run<?, ?> previousBuild = previous;
+            when(run.getPreviousBuild()).thenAnswer(i -> previousBuild);
+
+            TestAction action = mock(TestAction.class);
+            when(action.getOwner()).thenAnswer(i -> run);
+            when(run.getActions(TestAction.class)).thenReturn(Collections.singletonList(action));
+
+            previous = run;
+            latest = action;
+        }
+        return Optional.ofNullable(latest);
+    }
+
+    private static void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private abstract static class TestAction extends BuildAction<String> {
+        private static final long serialVersionUID = 5446353567196436581L;
+
+        TestAction(final Run<?, ?> owner, final String result) {
+            super(owner, result);
+        }
+    }
+}
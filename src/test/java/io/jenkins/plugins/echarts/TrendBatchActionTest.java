@@ -0,0 +1,118 @@
+package io.jenkins.plugins.echarts;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import hudson.model.Action;
+import hudson.model.Job;
+import hudson.model.Run;
+
+import io.jenkins.plugins.echarts.TrendBatchAction.ChartRequest;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests the class {@link TrendBatchAction}.
+ */
+class TrendBatchActionTest {
+    @Test
+    void shouldParseRequests() {
+        var body = ChartModelWriter.getObjectMapper().readTree(
+                "[{\"urlName\":\"junit\",\"configuration\":\"{\\\"numberOfBuilds\\\":5}\"},"
+                        + "{\"urlName\":\"coverage\",\"configuration\":{\"numberOfDays\":2}},"
+                        + "{\"urlName\":\"simple\"},"
+                        + "{\"configuration\":\"{}\"}]");
+
+        assertThat(TrendBatchAction.parseRequests(body)).containsExactly(
+                new ChartRequest("junit", "{\"numberOfBuilds\":5}"),
+                new ChartRequest("coverage", "{\"numberOfDays\":2}"),
+                new ChartRequest("simple", null));
+        assertThat(TrendBatchAction.parseRequests(null)).isEmpty();
+    }
+
+    @Test
+    void shouldProvideBatchUrlForJobsOnly() {
+        var job = mock(Job.class);
+        when(job.getUrl()).thenReturn("job/pipeline/");
+
+        assertThat(TrendBatchAction.getModelsUrl(job)).isEqualTo("job/pipeline/echarts-trends/models");
+        assertThat(TrendBatchAction.getModelsUrl(mock(Run.class))).isEmpty();
+        assertThat(TrendBatchAction.getModelsUrl(null)).isEmpty();
+    }
+
+    @Test
+    void shouldCreateModelsInRequestOrder() {
+        var configurable = mock(Action.class, withSettings().extraInterfaces(AsyncConfigurableTrendChart.class));
+        when(configurable.getUrlName()).thenReturn("configurable");
+        when(((AsyncConfigurableTrendChart) configurable).getConfigurableBuildTrendModel(anyString()))
+                .thenAnswer(i -> "{\"configuration\":" + i.getArgument(0) + "}");
+
+        var simple = mock(Action.class, withSettings().extraInterfaces(AsyncTrendChart.class));
+        when(simple.getUrlName()).thenReturn("simple");
+        when(((AsyncTrendChart) simple).getBuildTrendModel()).thenReturn("{\"simple\":true}");
+
+        Job<?, ?> job = mock(Job.class);
+        when(job.getAllActions()).thenReturn(List.of(mock(Action.class), configurable, simple));
+
+        var models = new TrendBatchAction(job).createModels(List.of(
+                new ChartRequest("configurable", "{\"b\":1, \"a\":2}"),
+                new ChartRequest("simple", null),
+                new ChartRequest("missing", "{}"),
+                new ChartRequest("configurable", "{\"a\":2,\"b\":1}")));
+
+        assertThat(models).containsExactly(
+                "{\"configuration\":{\"a\":2,\"b\":1}}",
+                "{\"simple\":true}",
+                "null",
+                "{\"configuration\":{\"a\":2,\"b\":1}}");
+        verify((AsyncConfigurableTrendChart) configurable).getConfigurableBuildTrendModel(anyString());
+    }
+
+    @Test
+    void shouldUseConfigurationOfSingleChartEndpoints() {
+        var configuration = "{\"numberOfBuilds\":5}";
+
+        var simple = mock(Action.class, withSettings().extraInterfaces(AsyncTrendChart.class));
+        assertThat(TrendBatchAction.getModelConfiguration(simple, configuration))
+                .isEqualTo(TrendModelCache.EMPTY_CONFIGURATION);
+
+        var configurable = mock(Action.class, withSettings().extraInterfaces(AsyncConfigurableTrendChart.class));
+        assertThat(TrendBatchAction.getModelConfiguration(configurable, configuration)).isEqualTo(configuration);
+        assertThat(TrendBatchAction.getModelConfiguration(configurable, null))
+                .isEqualTo(TrendModelCache.EMPTY_CONFIGURATION);
+
+        var both = mock(Action.class,
+                withSettings().extraInterfaces(AsyncTrendChart.class, AsyncConfigurableTrendChart.class));
+        assertThat(TrendBatchAction.getModelConfiguration(both, configuration)).isEqualTo(configuration);
+        assertThat(TrendBatchAction.getModelConfiguration(both, null)).isEqualTo(TrendModelCache.EMPTY_CONFIGURATION);
+    }
+
+    @Test
+    void shouldResolveColorsOfPalette() {
+        var simple = mock(Action.class, withSettings().extraInterfaces(AsyncTrendChart.class));
+        when(simple.getUrlName()).thenReturn("simple");
+        when(((AsyncTrendChart) simple).getBuildTrendModel()).thenReturn("{\"color\":\"--red\"}");
+
+        Job<?, ?> job = mock(Job.class);
+        when(job.getAllActions()).thenReturn(List.of(simple));
+
+        var palette = TrendPalette.fromJson(ChartModelWriter.getObjectMapper().readTree("{\"--red\":\"#e6001f\"}"));
+        assertThat(new TrendBatchAction(job).createModels(List.of(new ChartRequest("simple", null)), palette))
+                .containsExactly("{\"color\":\"#e6001f\"}");
+    }
+
+    @Test
+    void shouldIgnoreBrokenCharts() {
+        var broken = mock(Action.class, withSettings().extraInterfaces(AsyncTrendChart.class));
+        when(broken.getUrlName()).thenReturn("broken");
+        when(((AsyncTrendChart) broken).getBuildTrendModel()).thenThrow(new IllegalStateException("broken"));
+
+        Job<?, ?> job = mock(Job.class);
+        when(job.getAllActions()).thenReturn(List.of(broken));
+
+        assertThat(new TrendBatchAction(job).createModels(List.of(new ChartRequest("broken", null))))
+                .containsExactly("null");
+    }
+}
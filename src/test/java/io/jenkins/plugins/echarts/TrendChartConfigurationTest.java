@@ -0,0 +1,47 @@
+package io.jenkins.plugins.echarts;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link TrendChartConfiguration}.
+ */
+class TrendChartConfigurationTest {
+    private static final String JSON = "{\"numberOfBuilds\":\"50\",\"numberOfDays\":0,\"buildAsDomain\":\"true\","
+            + "\"chartType\":\"aggregated\",\"width\":600,\"height\":\"400\"}";
+
+    @Test
+    void shouldProvideTypedAccessors() {
+        var configuration = TrendChartConfiguration.parse(JSON);
+
+        assertThat(configuration.getNumberOfBuilds(0)).isEqualTo(50);
+        assertThat(configuration.getNumberOfDays(10)).isEqualTo(0);
+        assertThat(configuration.isBuildAsDomain(false)).isTrue();
+        assertThat(configuration.getChartType("none")).isEqualTo("aggregated");
+        assertThat(configuration.getWidth(0)).isEqualTo(600);
+        assertThat(configuration.getHeight(0)).isEqualTo(400);
+        assertThat(configuration.hasProperty("width")).isTrue();
+        assertThat(configuration.hasProperty("undefined")).isFalse();
+        assertThat(configuration.getString("undefined", "default")).isEqualTo("default");
+    }
+
+    @Test
+    void shouldReturnDefaultsForInvalidConfiguration() {
+        for (String json : new String[] {null, "", " ", "{}", "no JSON", "[1, 2]"}) {
+            var configuration = TrendChartConfiguration.parse(json);
+
+            assertThat(configuration.getNumberOfBuilds(20)).isEqualTo(20);
+            assertThat(configuration.isBuildAsDomain(true)).isTrue();
+            assertThat(configuration.getChartType("none")).isEqualTo("none");
+        }
+    }
+
+    @Test
+    void shouldReuseParsedConfiguration() {
+        assertThat(TrendChartConfiguration.parse(JSON)).isSameAs(TrendChartConfiguration.parse(JSON));
+        assertThat(TrendChartConfiguration.parse("{\"b\":1, \"a\":2}"))
+                .isEqualTo(TrendChartConfiguration.parse("{\"a\":2,\"b\":1}"))
+                .hasToString("{\"a\":2,\"b\":1}");
+    }
+}
@@ -0,0 +1,77 @@
+package io.jenkins.plugins.echarts;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import tools.jackson.databind.JsonNode;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link TrendColumnarEncoding}.
+ */
+class TrendColumnarEncodingTest {
+    private static final TrendChartConfiguration COLUMNAR = TrendChartConfiguration.parse(
+            TrendColumnarEncoding.CLIENT_CONFIGURATION);
+
+    @Test
+    void shouldNotChangeModelWithoutEncoding() {
+        var model = createModel(List.of("#1", "#2", "#4"));
+
+        assertThat(TrendColumnarEncoding.encode(model, TrendChartConfiguration.parse("{}"))).isSameAs(model);
+        assertThat(TrendColumnarEncoding.encode(model,
+                TrendChartConfiguration.parse("{\"encoding\":\"json\"}"))).isSameAs(model);
+    }
+
+    @Test
+    void shouldEncodeColumns() {
+        var tree = encode(createModel(List.of("#1", "#2", "#4")));
+
+        assertThat(tree.get("encoding").asString()).isEqualTo("columnar");
+        assertThat(tree.get("id").asString()).isEqualTo("model");
+        assertThat(tree.get("domainAxisLabels").get("prefix").asString()).isEqualTo("#");
+        assertThat(tree.get("buildNumbers").get("delta").toString()).isEqualTo("[1,1,2]");
+
+        var series = tree.get("series");
+        assertThat(series.get(0).get("name").asString()).isEqualTo("Errors");
+        assertThat(series.get(0).get("data").get("delta").toString()).isEqualTo("[10,-3,5]");
+        assertThat(decode(series.get(1).get("data").get("float64").asString())).containsExactly(0.5, 1.25, -2.0);
+    }
+
+    @Test
+    void shouldKeepLabelsThatAreNotDerivedFromBuildNumbers() {
+        var tree = encode(createModel(List.of("#1", "Release 2", "#4")));
+
+        assertThat(tree.get("domainAxisLabels").isArray()).isTrue();
+        assertThat(tree.get("domainAxisLabels").get(1).asString()).isEqualTo("Release 2");
+        assertThat(tree.get("buildNumbers").get("delta").toString()).isEqualTo("[1,1,2]");
+    }
+
+    private JsonNode encode(final Map<String, Object> model) {
+        return ChartModelWriter.getObjectMapper().readTree(
+                ChartModelWriter.toJson(TrendColumnarEncoding.encode(model, COLUMNAR)));
+    }
+
+    private List<Double> decode(final String base64) {
+        var buffer = ByteBuffer.wrap(Base64.getDecoder().decode(base64)).order(ByteOrder.LITTLE_ENDIAN);
+        var values = new Double[buffer.remaining() / Double.BYTES];
+        Arrays.setAll(values, i -> buffer.getDouble());
+        return List.of(values);
+    }
+
+    private Map<String, Object> createModel(final List<String> labels) {
+        Map<String, Object> model = new LinkedHashMap<>();
+        model.put("id", "model");
+        model.put("domainAxisLabels", labels);
+        model.put("buildNumbers", List.of(1, 2, 4));
+        model.put("series", List.of(Map.of("name", "Errors", "data", List.of(10, 7, 12)),
+                Map.of("name", "Coverage", "data", List.of(0.5, 1.25, -2.0))));
+        return model;
+    }
+}
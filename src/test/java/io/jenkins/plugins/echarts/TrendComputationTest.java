@@ -0,0 +1,196 @@
+package io.jenkins.plugins.echarts;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link TrendComputation}.
+ */
+class TrendComputationTest {
+    private static final int REQUESTS = 8;
+
+    private final ExecutorService requests = Executors.newFixedThreadPool(REQUESTS);
+
+    @AfterEach
+    void shutdownExecutors() {
+        requests.shutdownNow();
+    }
+
+    @Test
+    void shouldCoalesceConcurrentIdenticalRequests() throws Exception {
+        var computation = new TrendComputation(2);
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var computations = new AtomicInteger();
+
+        List<Future<String>> results = new ArrayList<>();
+        results.add(requests.submit(() -> computation.compute("key", this, () -> {
+            computations.incrementAndGet();
+            started.countDown();
+            await(release);
+            return "model";
+        })));
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+
+        var waiting = new CountDownLatch(REQUESTS - 1);
+        for (int i = 1; i < REQUESTS; i++) {
+            results.add(requests.submit(() -> {
+                waiting.countDown();
+                return computation.compute("key", this, () -> {
+                    computations.incrementAndGet();
+                    return "other";
+                });
+            }));
+        }
+        assertThat(waiting.await(10, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(100); // give the requests some time to join the computation in progress
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertThat(result.get(10, TimeUnit.SECONDS)).isEqualTo("model");
+        }
+        assertThat(computations).hasValue(1);
+        assertThat(computation.getInFlightCount()).isZero();
+    }
+
+    @Test
+    void shouldComputeDifferentKeysIndependently() {
+        var computation = new TrendComputation(2);
+
+        assertThat(computation.compute("first", this, () -> "1")).isEqualTo("1");
+        assertThat(computation.compute("second", this, () -> "2")).isEqualTo("2");
+        assertThat(computation.compute("first", this, () -> "3")).isEqualTo("3");
+    }
+
+    @Test
+    void shouldPropagateFailureAndRetryAfterwards() {
+        var computation = new TrendComputation(2);
+
+        assertThatIllegalStateException().isThrownBy(() -> computation.compute("key", this, () -> {
+            throw new IllegalStateException("Broken model");
+        })).withMessage("Broken model");
+        assertThat(computation.getInFlightCount()).isZero();
+
+        assertThat(computation.compute("key", this, () -> "model")).isEqualTo("model");
+    }
+
+    @Test
+    void shouldComputeInRequestThread() {
+        var computation = new TrendComputation(2);
+        var requestThread = Thread.currentThread();
+
+        assertThat(computation.compute("key", this,
+                () -> Thread.currentThread() == requestThread ? "inline" : "worker")).isEqualTo("inline");
+    }
+
+    @Test
+    void shouldBoundConcurrentComputations() throws Exception {
+        var computation = new TrendComputation(1);
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var running = new AtomicInteger();
+        var maximum = new AtomicInteger();
+
+        var first = requests.submit(() -> computation.compute("first", this, () -> {
+            maximum.accumulateAndGet(running.incrementAndGet(), Math::max);
+            started.countDown();
+            await(release);
+            running.decrementAndGet();
+            return "1";
+        }));
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+
+        var second = requests.submit(() -> computation.compute("second", this, () -> {
+            maximum.accumulateAndGet(running.incrementAndGet(), Math::max);
+            running.decrementAndGet();
+            return "2";
+        }));
+        Thread.sleep(100); // give the second request some time to wait for a permit
+        assertThat(second).isNotDone();
+        release.countDown();
+
+        assertThat(first.get(10, TimeUnit.SECONDS)).isEqualTo("1");
+        assertThat(second.get(10, TimeUnit.SECONDS)).isEqualTo("2");
+        assertThat(maximum).hasValue(1);
+    }
+
+    @Test
+    void shouldTakeOverComputationIfLeaderIsInterrupted() throws Exception {
+        var computation = new TrendComputation(1);
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+
+        var busy = requests.submit(() -> computation.compute("busy", this, () -> {
+            started.countDown();
+            await(release);
+            return "busy";
+        }));
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+
+        var leader = requests.submit(() -> computation.compute("key", this, () -> "leader"));
+        Thread.sleep(100); // give the leader some time to wait for a permit
+        var follower = requests.submit(() -> computation.compute("key", this, () -> "follower"));
+        Thread.sleep(100); // give the follower some time to join the computation of the leader
+
+        leader.cancel(true);
+        release.countDown();
+
+        assertThat(busy.get(10, TimeUnit.SECONDS)).isEqualTo("busy");
+        assertThat(follower.get(10, TimeUnit.SECONDS)).isEqualTo("follower");
+        assertThat(computation.getInFlightCount()).isZero();
+    }
+
+    @Test
+    void shouldComputeInOwnThreadIfLeaderIsStuck() throws Exception {
+        var computation = new TrendComputation(2, Duration.ofMillis(100));
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+
+        var leader = requests.submit(() -> computation.compute("key", this, () -> {
+            started.countDown();
+            await(release);
+            return "leader";
+        }));
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+
+        var follower = requests.submit(() -> computation.compute("key", this, () -> "follower"));
+
+        assertThat(follower.get(10, TimeUnit.SECONDS)).isEqualTo("follower");
+        assertThat(leader).isNotDone();
+
+        release.countDown();
+
+        assertThat(leader.get(10, TimeUnit.SECONDS)).isEqualTo("leader");
+        assertThat(computation.getInFlightCount()).isZero();
+    }
+
+    @Test
+    void shouldPropagateHistoryLimits() {
+        var computation = new TrendComputation(2);
+        var limits = HistoryLimits.ofBuilds(5);
+
+        assertThat(HistoryLimits.callWith(limits, () -> computation.compute("key", this,
+                () -> HistoryLimits.current().equals(limits) ? "limited" : "unlimited"))).isEqualTo("limited");
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package io.jenkins.plugins.echarts;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import io.jenkins.plugins.echarts.TrendDownsampler.Strategy;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link TrendDownsampler}.
+ */
+class TrendDownsamplerTest {
+    @Test
+    void shouldSelectStrategyFromConfiguration() {
+        assertThat(Strategy.fromConfiguration(TrendChartConfiguration.parse("{}"))).isEqualTo(Strategy.NONE);
+        assertThat(Strategy.fromConfiguration(TrendChartConfiguration.parse("{\"downsampling\":\"none\"}")))
+                .isEqualTo(Strategy.NONE);
+        assertThat(Strategy.fromConfiguration(TrendChartConfiguration.parse("{\"downsampling\":\"LTTB\"}")))
+                .isEqualTo(Strategy.LTTB);
+        assertThat(Strategy.fromConfiguration(TrendChartConfiguration.parse("{\"downsampling\":\"minmax\"}")))
+                .isEqualTo(Strategy.MIN_MAX);
+        assertThat(Strategy.fromConfiguration(TrendChartConfiguration.parse("{\"downsampling\":\"unknown\"}")))
+                .isEqualTo(Strategy.NONE);
+    }
+
+    @Test
+    void shouldDeriveTargetPointsFromWidth() {
+        assertThat(TrendDownsampler.getTargetPoints(TrendChartConfiguration.parse("{}"))).isEqualTo(250);
+        assertThat(TrendDownsampler.getTargetPoints(TrendChartConfiguration.parse("{\"width\":\"300\"}")))
+                .isEqualTo(150);
+        assertThat(TrendDownsampler.getTargetPoints(TrendChartConfiguration.parse("{\"width\":\"4\"}")))
+                .isEqualTo(10);
+    }
+
+    @Test
+    void shouldKeepFirstAndLastPointAndPeaksWithLttb() {
+        var values = new double[100];
+        values[37] = 1000;
+        values[81] = -1000;
+
+        var selected = TrendDownsampler.lttb(values, 10);
+
+        assertThat(selected).hasSize(10).startsWith(0).endsWith(99).contains(37, 81);
+        assertThat(selected).isSorted();
+    }
+
+    @Test
+    void shouldKeepMinimumAndMaximumOfEachBucket() {
+        var values = new double[100];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i % 10;
+        }
+        values[42] = 1000;
+        values[43] = -1000;
+
+        var selected = TrendDownsampler.minMax(values, 12);
+
+        assertThat(selected).hasSizeLessThanOrEqualTo(12).startsWith(0).endsWith(99).contains(42, 43);
+        assertThat(selected).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    void shouldKeepSpikeOfSeriesThatIsCompensatedByAnotherSeries() {
+        var rising = new double[100];
+        var falling = new double[100];
+        for (int i = 0; i < rising.length; i++) {
+            rising[i] = i % 10;
+            falling[i] = -(i % 10);
+        }
+        rising[42] = 1000;
+        falling[42] = -1000;
+
+        for (Strategy strategy : List.of(Strategy.MIN_MAX, Strategy.LTTB)) {
+            var selected = TrendDownsampler.select(List.of(rising, falling), 100, 20, strategy);
+
+            assertThat(selected).as(strategy.name()).hasSizeLessThanOrEqualTo(20).contains(0, 42, 99);
+            assertThat(selected).as(strategy.name()).isSorted().doesNotHaveDuplicates();
+        }
+    }
+
+    @Test
+    void shouldNotExceedTargetForManySeries() {
+        List<double[]> series = new ArrayList<>();
+        for (int line = 0; line < 30; line++) {
+            var values = new double[100];
+            values[line * 3] = 100;
+            series.add(values);
+        }
+
+        var selected = TrendDownsampler.select(series, 100, 20, Strategy.MIN_MAX);
+
+        assertThat(selected).hasSize(20).startsWith(0).endsWith(99).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    void shouldKeepSingleSpikeOfManySeries() {
+        var random = new Random(42);
+        List<double[]> series = new ArrayList<>();
+        for (int line = 0; line < 40; line++) {
+            var values = new double[500];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = 50 + random.nextInt(10);
+            }
+            series.add(values);
+        }
+        series.get(23)[317] = 1000;
+
+        for (Strategy strategy : List.of(Strategy.MIN_MAX, Strategy.LTTB)) {
+            for (int target : List.of(20, 100)) {
+                var selected = TrendDownsampler.select(series, 500, target, strategy);
+
+                assertThat(selected).as(strategy.name()).hasSizeLessThanOrEqualTo(target)
+                        .startsWith(0).endsWith(499).contains(317);
+                assertThat(selected).as(strategy.name()).isSorted().doesNotHaveDuplicates();
+            }
+        }
+    }
+
+    @Test
+    void shouldUseBudgetThatIsNotUsedByOtherSeries() {
+        var values = new double[500];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i % 7;
+        }
+
+        var selected = TrendDownsampler.select(List.of(values, values.clone()), 500, 100, Strategy.LTTB);
+
+        assertThat(selected).hasSizeGreaterThan(90).hasSizeLessThanOrEqualTo(100);
+    }
+
+    @Test
+    void shouldReturnAllPointsIfBelowThreshold() {
+        var values = new double[] {1, 2, 3};
+
+        assertThat(TrendDownsampler.lttb(values, 10)).containsExactly(0, 1, 2);
+        assertThat(TrendDownsampler.minMax(values, 10)).containsExactly(0, 1, 2);
+    }
+
+    @Test
+    void shouldNotChangeModelWithoutDownsampling() {
+        var model = createModel(1000);
+
+        assertThat(TrendDownsampler.downsample(model, TrendChartConfiguration.parse("{}"))).isSameAs(model);
+        assertThat(TrendDownsampler.downsample(model,
+                TrendChartConfiguration.parse("{\"downsampling\":\"lttb\",\"width\":\"4000\"}"))).isSameAs(model);
+    }
+
+    @Test
+    void shouldReduceAllSeriesToTheSamePoints() {
+        var model = createModel(1000);
+
+        var downsampled = ChartModelWriter.toJson(TrendDownsampler.downsample(model,
+                TrendChartConfiguration.parse("{\"downsampling\":\"minmax\",\"width\":\"100\"}")));
+
+        var tree = ChartModelWriter.getObjectMapper().readTree(downsampled);
+        var buildNumbers = tree.get("buildNumbers");
+        assertThat(buildNumbers.size()).isLessThanOrEqualTo(50).isGreaterThan(2);
+        assertThat(tree.get("domainAxisLabels").size()).isEqualTo(buildNumbers.size());
+        assertThat(tree.get("series").get(0).get("data").size()).isEqualTo(buildNumbers.size());
+        assertThat(tree.get("series").get(1).get("data").size()).isEqualTo(buildNumbers.size());
+        assertThat(tree.get("id").asString()).isEqualTo("model");
+        assertThat(downsampled).contains("\"#500\"");
+    }
+
+    private Map<String, Object> createModel(final int size) {
+        List<Integer> buildNumbers = new ArrayList<>();
+        List<String> labels = new ArrayList<>();
+        List<Integer> errors = new ArrayList<>();
+        List<Integer> warnings = new ArrayList<>();
+        for (int build = 1; build <= size; build++) {
+            buildNumbers.add(build);
+            labels.add("#" + build);
+            errors.add(build == 500 ? 10_000 : build % 7);
+            warnings.add(build % 3);
+        }
+
+        Map<String, Object> model = new LinkedHashMap<>();
+        model.put("id", "model");
+        model.put("domainAxisLabels", labels);
+        model.put("buildNumbers", buildNumbers);
+        model.put("series", List.of(Map.of("name", "Errors", "data", errors),
+                Map.of("name", "Warnings", "data", warnings)));
+        return model;
+    }
+}
@@ -0,0 +1,163 @@
+package io.jenkins.plugins.echarts;
+
+import java.nio.file.Path;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.jenkins.plugins.echarts.TrendIndex.IndexedBuild;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link TrendIndex}.
+ */
+class TrendIndexTest {
+    private static final Set<String> WITH_ACTION = Set.of(String.class.getName());
+    private static final Set<String> WITHOUT_ACTION = Set.of();
+
+    @TempDir
+    Path folder;
+
+    @Test
+    void shouldSkipBuildsWithoutAction() {
+        var index = createIndex();
+
+        assertThat(index.findPreviousCandidate(5, String.class)).isEqualTo(4);
+        assertThat(index.findPreviousCandidate(4, String.class)).isEqualTo(1);
+        assertThat(index.findPreviousCandidate(1, String.class)).isEqualTo(TrendIndex.NO_BUILD);
+        assertThat(index.findPreviousCandidate(4, Integer.class)).isEqualTo(TrendIndex.NO_BUILD);
+        assertThat(index.findPreviousCandidate(6, String.class)).isEqualTo(TrendIndex.UNKNOWN);
+    }
+
+    @Test
+    void shouldReturnBuildsThatAreNotIndexed() {
+        var index = new TrendIndex(folder.resolve(TrendIndex.FILE_NAME));
+        index.add(new IndexedBuild(2, 2000, "#2", 1, WITHOUT_ACTION));
+        index.add(new IndexedBuild(3, 3000, "#3", 2, WITHOUT_ACTION));
+
+        assertThat(index.findPreviousCandidate(3, String.class)).isEqualTo(1);
+    }
+
+    @Test
+    void shouldJumpOverLongSequenceOfBuildsWithoutAction() {
+        var index = new TrendIndex(folder.resolve(TrendIndex.FILE_NAME));
+        index.add(new IndexedBuild(1, 1000, "#1", TrendIndex.NO_BUILD, WITH_ACTION));
+        for (int build = 2; build <= 10_000; build++) {
+            index.add(new IndexedBuild(build, build * 1000L, "#" + build, build - 1,
+                    build % 1000 == 0 ? WITH_ACTION : WITHOUT_ACTION));
+        }
+
+        assertThat(index.findPreviousCandidate(10_000, String.class)).isEqualTo(9000);
+        assertThat(index.findPreviousCandidate(9999, String.class)).isEqualTo(9000);
+        assertThat(index.findPreviousCandidate(1000, String.class)).isEqualTo(1);
+    }
+
+    @Test
+    void shouldUpdateCandidatesIfBuildIsRecordedAgain() {
+        var index = createIndex();
+
+        index.add(new IndexedBuild(4, 4000, "#4", 3, WITHOUT_ACTION));
+        assertThat(index.findPreviousCandidate(5, String.class)).isEqualTo(1);
+
+        index.add(new IndexedBuild(3, 3000, "#3", 2, WITH_ACTION));
+        assertThat(index.findPreviousCandidate(5, String.class)).isEqualTo(3);
+    }
+
+    @Test
+    void shouldFillGapOfBuildThatIsNotIndexed() {
+        var index = new TrendIndex(folder.resolve(TrendIndex.FILE_NAME));
+        index.add(new IndexedBuild(3, 3000, "#3", 2, WITHOUT_ACTION));
+        index.add(new IndexedBuild(1, 1000, "#1", TrendIndex.NO_BUILD, WITH_ACTION));
+
+        assertThat(index.findPreviousCandidate(3, String.class)).isEqualTo(2);
+
+        index.add(new IndexedBuild(2, 2000, "#2", 1, WITHOUT_ACTION));
+        assertThat(index.findPreviousCandidate(3, String.class)).isEqualTo(1);
+
+        index.remove(1);
+        assertThat(index.findPreviousCandidate(3, String.class)).isEqualTo(TrendIndex.NO_BUILD);
+    }
+
+    @Test
+    void shouldLinkSuccessorOfRemovedBuild() {
+        var index = createIndex();
+
+        index.remove(4);
+
+        assertThat(index.size()).isEqualTo(4);
+        assertThat(index.contains(4)).isFalse();
+        assertThat(index.findPreviousCandidate(5, String.class)).isEqualTo(1);
+    }
+
+    @Test
+    void shouldLinkSuccessorOfRemovedBuildThatIsNotIndexed() {
+        var index = new TrendIndex(folder.resolve(TrendIndex.FILE_NAME));
+        index.add(new IndexedBuild(50, 50_000, "#50", 49, WITHOUT_ACTION));
+        index.add(new IndexedBuild(51, 51_000, "#51", 50, WITH_ACTION));
+
+        assertThat(index.findPreviousCandidate(50, String.class)).isEqualTo(49);
+
+        index.remove(49, 48);
+
+        assertThat(index.findPreviousCandidate(50, String.class)).isEqualTo(48);
+        assertThat(index.findPreviousCandidate(51, String.class)).isEqualTo(48);
+    }
+
+    @Test
+    void shouldFallBackToBuildHistoryIfPredecessorOfRemovedBuildIsUnknown() {
+        var index = new TrendIndex(folder.resolve(TrendIndex.FILE_NAME));
+        index.add(new IndexedBuild(50, 50_000, "#50", 49, WITHOUT_ACTION));
+
+        index.remove(49);
+
+        assertThat(index.findPreviousCandidate(50, String.class)).isEqualTo(TrendIndex.UNKNOWN);
+
+        index.add(new IndexedBuild(50, 50_000, "#50", 48, WITHOUT_ACTION));
+
+        assertThat(index.findPreviousCandidate(50, String.class)).isEqualTo(48);
+    }
+
+    @Test
+    void shouldWriteAndReadIndex() {
+        var index = createIndex();
+        index.save();
+
+        var loaded = new TrendIndex(folder.resolve(TrendIndex.FILE_NAME));
+        loaded.read();
+
+        assertThat(loaded.size()).isEqualTo(5);
+        assertThat(loaded.findPreviousCandidate(5, String.class)).isEqualTo(4);
+        assertThat(loaded.findPreviousCandidate(4, String.class)).isEqualTo(1);
+        assertThat(loaded.getBuild(4)).hasValueSatisfying(build -> assertThat(build.getNumber()).isEqualTo(4));
+        assertThat(loaded.getBuild(6)).isEmpty();
+    }
+
+    @Test
+    void shouldNotWriteIndexThatHasBeenDiscarded() {
+        var index = createIndex();
+        index.discard();
+        index.save();
+
+        assertThat(folder.resolve(TrendIndex.FILE_NAME)).doesNotExist();
+    }
+
+    @Test
+    void shouldIgnoreMissingIndex() {
+        var index = new TrendIndex(folder.resolve(TrendIndex.FILE_NAME));
+        index.read();
+
+        assertThat(index.size()).isZero();
+    }
+
+    private TrendIndex createIndex() {
+        var index = new TrendIndex(folder.resolve(TrendIndex.FILE_NAME));
+        index.add(new IndexedBuild(1, 1000, "#1", TrendIndex.NO_BUILD, WITH_ACTION));
+        index.add(new IndexedBuild(2, 2000, "#2", 1, WITHOUT_ACTION));
+        index.add(new IndexedBuild(3, 3000, "#3", 2, WITHOUT_ACTION));
+        index.add(new IndexedBuild(4, 4000, "#4", 3, WITH_ACTION));
+        index.add(new IndexedBuild(5, 5000, "#5", 4, WITHOUT_ACTION));
+        return index;
+    }
+}
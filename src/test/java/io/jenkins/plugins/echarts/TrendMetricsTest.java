@@ -0,0 +1,131 @@
+package io.jenkins.plugins.echarts;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import io.jenkins.plugins.echarts.TrendMetrics.Counter;
+import io.jenkins.plugins.echarts.TrendMetrics.Timing;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link TrendMetrics}.
+ */
+class TrendMetricsTest {
+    @Test
+    void shouldRecordTimersAndCounters() {
+        var clock = new AtomicLong();
+        var metrics = new TrendMetrics(true, clock::get);
+
+        var actionMetrics = metrics.forAction(String.class);
+        actionMetrics.increment(Counter.RUNS_VISITED);
+        actionMetrics.increment(Counter.RUNS_VISITED, 4);
+
+        assertThat(actionMetrics.time(Timing.HISTORY_WALK, () -> clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(3))))
+                .isEqualTo(TimeUnit.MILLISECONDS.toNanos(3));
+        actionMetrics.record(Timing.HISTORY_WALK, TimeUnit.MILLISECONDS.toNanos(1));
+
+        assertThat(actionMetrics.getCount(Counter.RUNS_VISITED)).isEqualTo(5);
+        assertThat(actionMetrics.getCount(Counter.ACTION_LOOKUPS)).isZero();
+        assertThat(actionMetrics.getCount(Timing.HISTORY_WALK)).isEqualTo(2);
+        assertThat(actionMetrics.getTotalMillis(Timing.HISTORY_WALK)).isEqualTo(4.0);
+        assertThat(actionMetrics.getMeanMillis(Timing.HISTORY_WALK)).isEqualTo(2.0);
+        assertThat(actionMetrics.getMaximumMillis(Timing.HISTORY_WALK)).isEqualTo(3.0);
+        assertThat(actionMetrics.getMeanMillis(Timing.SERIALIZATION)).isZero();
+
+        assertThat(metrics.getMetrics()).containsExactly(actionMetrics);
+        assertThat(metrics.forAction(String.class)).isSameAs(actionMetrics);
+
+        metrics.reset();
+        assertThat(metrics.getMetrics()).isEmpty();
+    }
+
+    @Test
+    void shouldTagMetricsWithActiveAction() {
+        var metrics = TrendMetrics.getInstance();
+
+        assertThat(metrics.current(Integer.class)).isSameAs(metrics.forAction(Integer.class));
+
+        var action = new TaggedAction();
+        TrendMetrics.callWith(action, () -> {
+            assertThat(metrics.current(Integer.class)).isSameAs(metrics.forAction(TaggedAction.class));
+            return TrendMetrics.callWith("nested", () ->
+                    assertThat(metrics.current(Integer.class)).isSameAs(metrics.forAction(String.class)));
+        });
+
+        assertThat(metrics.current(Integer.class)).isSameAs(metrics.forAction(Integer.class));
+    }
+
+    @Test
+    void shouldMeasureModelCreationAndSerialization() {
+        var actionMetrics = TrendMetrics.getInstance().forAction(SerializingAction.class);
+        long creations = actionMetrics.getCount(Timing.MODEL_CREATION);
+        long serializations = actionMetrics.getCount(Timing.SERIALIZATION);
+        long payload = actionMetrics.getCount(Counter.PAYLOAD_BYTES);
+
+        var json = TrendMetrics.callWith(new SerializingAction(),
+                () -> TrendMetrics.toJson(() -> Map.of("buildNumbers", List.of(2, 1))));
+
+        assertThat(json).isEqualTo("{\"buildNumbers\":[2,1]}");
+        assertThat(actionMetrics.getCount(Timing.MODEL_CREATION)).isEqualTo(creations + 1);
+        assertThat(actionMetrics.getCount(Timing.SERIALIZATION)).isEqualTo(serializations + 1);
+        assertThat(actionMetrics.getCount(Counter.PAYLOAD_BYTES)).isEqualTo(payload + json.length());
+    }
+
+    @Test
+    void shouldCountPayloadInUtf8Bytes() {
+        var actionMetrics = TrendMetrics.getInstance().forAction(SerializingAction.class);
+        long payload = actionMetrics.getCount(Counter.PAYLOAD_BYTES);
+
+        var json = TrendMetrics.callWith(new SerializingAction(),
+                () -> TrendMetrics.toJson(() -> Map.of("domainAxisLabels", List.of("Größe", "日本"))));
+
+        assertThat(actionMetrics.getCount(Counter.PAYLOAD_BYTES))
+                .isEqualTo(payload + json.getBytes(StandardCharsets.UTF_8).length)
+                .isGreaterThan(payload + json.length());
+    }
+
+    @Test
+    void shouldComputeUtf8LengthWithoutEncoding() {
+        for (String text : List.of("", "ascii", "Größe", "日本", "\uD83D\uDE00 smiley", "broken \uD83D")) {
+            assertThat(TrendMetrics.getUtf8Length(text)).as(text)
+                    .isEqualTo(text.getBytes(StandardCharsets.UTF_8).length);
+        }
+    }
+
+    @Test
+    void shouldNotRecordIfDisabled() {
+        var metrics = new TrendMetrics(false, System::nanoTime);
+
+        var actionMetrics = metrics.forAction(String.class);
+        actionMetrics.increment(Counter.CACHE_HITS);
+        actionMetrics.stop(Timing.SERIALIZATION, actionMetrics.start());
+
+        assertThat(metrics.isEnabled()).isFalse();
+        assertThat(metrics.getMetrics()).isEmpty();
+        assertThat(actionMetrics.getCount(Counter.CACHE_HITS)).isZero();
+        assertThat(actionMetrics.getCount(Timing.SERIALIZATION)).isZero();
+    }
+
+    @Test
+    void shouldConvertMetricsToJson() {
+        var metrics = new TrendMetrics(true, System::nanoTime);
+        metrics.forAction(String.class).increment(Counter.CACHE_MISSES, 2);
+
+        assertThat(ChartModelWriter.toJson(metrics.toMap()))
+                .startsWith("{\"enabled\":true,\"actions\":[{\"action\":\"java.lang.String\",\"counters\":"
+                        + "{\"runsVisited\":0,\"actionLookups\":0,\"payloadBytes\":0,\"cacheHits\":0,\"cacheMisses\":2},"
+                        + "\"timers\":{\"historyWalk\":{\"count\":0,");
+    }
+
+    private static class TaggedAction {
+    }
+
+    private static class SerializingAction {
+    }
+}
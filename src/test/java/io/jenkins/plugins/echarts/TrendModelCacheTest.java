@@ -0,0 +1,231 @@
+package io.jenkins.plugins.echarts;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import hudson.model.Action;
+import hudson.model.Job;
+import hudson.model.Run;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests the class {@link TrendModelCache}.
+ */
+class TrendModelCacheTest {
+    private static final String MODEL = "{\"series\":[]}";
+    private static final String OTHER_MODEL = "{\"series\":[1]}";
+
+    @Test
+    void shouldReturnCachedModel() {
+        var cache = new TrendModelCache(10, 1000, () -> 0);
+        var job = createJob("job", 1);
+        var action = mock(Action.class);
+
+        assertThat(cache.computeIfAbsent(job, action, "{}", () -> MODEL)).isEqualTo(MODEL);
+        assertThat(cache.computeIfAbsent(job, action, "{}", () -> OTHER_MODEL)).isEqualTo(MODEL);
+        assertThat(cache.computeIfAbsent(job, action, " { } ", () -> OTHER_MODEL)).isEqualTo(MODEL);
+        assertThat(cache.getHitCount()).isEqualTo(2);
+        assertThat(cache.getMissCount()).isEqualTo(1);
+
+        assertThat(cache.computeIfAbsent(job, action, "{\"numberOfBuilds\":5}", () -> OTHER_MODEL))
+                .isEqualTo(OTHER_MODEL);
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldReturnCachedModelIfPresent() {
+        var cache = new TrendModelCache(10, 1000, () -> 0);
+        var job = createJob("job", 1);
+        var action = mock(Action.class);
+        var configuration = TrendChartConfiguration.parse("{\"numberOfBuilds\":5}");
+
+        assertThat(cache.getIfPresent(job, action, configuration)).isNull();
+
+        cache.computeIfAbsent(job, action, configuration, () -> MODEL);
+        assertThat(cache.getIfPresent(job, action, configuration)).isEqualTo(MODEL);
+        assertThat(cache.getIfPresent(job, action, TrendChartConfiguration.parse("{}"))).isNull();
+    }
+
+    @Test
+    void shouldRecomputeModelForNewBuild() {
+        var cache = new TrendModelCache(10, 1000, () -> 0);
+        var job = createJob("job", 1);
+        var action = mock(Action.class);
+
+        assertThat(cache.computeIfAbsent(job, action, "{}", () -> MODEL)).isEqualTo(MODEL);
+
+        Run<?, ?> build = mock(Run.class);
+        when(build.getNumber()).thenReturn(2);
+        when(job.getLastCompletedBuild()).thenAnswer(i -> build);
+
+        assertThat(cache.computeIfAbsent(job, action, "{}", () -> OTHER_MODEL)).isEqualTo(OTHER_MODEL);
+    }
+
+    @Test
+    void shouldInvalidateModelsOfJob() {
+        var cache = new TrendModelCache(10, 1000, () -> 0);
+        var job = createJob("job", 1);
+        var otherJob = createJob("other", 1);
+        var action = mock(Action.class);
+
+        cache.computeIfAbsent(job, action, "{}", () -> MODEL);
+        cache.computeIfAbsent(otherJob, action, "{}", () -> MODEL);
+        assertThat(cache.size()).isEqualTo(2);
+
+        cache.invalidate(job);
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.computeIfAbsent(job, action, "{}", () -> OTHER_MODEL)).isEqualTo(OTHER_MODEL);
+        assertThat(cache.computeIfAbsent(otherJob, action, "{}", () -> OTHER_MODEL)).isEqualTo(MODEL);
+    }
+
+    @Test
+    void shouldNotStoreModelThatHasBeenComputedBeforeInvalidation() {
+        var cache = new TrendModelCache(10, 1000, () -> 0);
+        var job = createJob("job", 1);
+        var action = mock(Action.class);
+
+        assertThat(cache.computeIfAbsent(job, action, "{}", () -> {
+            cache.invalidate(job); // e.g., a build has been deleted during the computation
+            return MODEL;
+        })).isEqualTo(MODEL);
+
+        assertThat(cache.size()).isZero();
+        assertThat(cache.computeIfAbsent(job, action, "{}", () -> OTHER_MODEL)).isEqualTo(OTHER_MODEL);
+    }
+
+    @Test
+    void shouldRemoveModelsAndGenerationsOfDeletedJobs() {
+        var cache = new TrendModelCache(10, 1000, () -> 0);
+        var action = mock(Action.class);
+        var configuration = TrendChartConfiguration.parse("{}");
+        var job = createJob("folder/job", 1);
+        var other = createJob("other", 1);
+
+        cache.invalidate(job);
+        cache.invalidate(other);
+        cache.computeIfAbsent(job, action, configuration, () -> MODEL);
+        cache.computeIfAbsent(other, action, configuration, () -> MODEL);
+        var tag = cache.getEntityTag(job, action, configuration);
+
+        cache.remove("folder");
+
+        assertThat(cache.getGenerationCount()).isEqualTo(1);
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.getIfPresent(other, action, configuration)).isEqualTo(MODEL);
+        assertThat(cache.getEntityTag(createJob("folder/job", 1), action, configuration)).isNotEqualTo(tag);
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedModel() {
+        var cache = new TrendModelCache(2, 1000, () -> 0);
+        var action = mock(Action.class);
+        var first = createJob("first", 1);
+        var second = createJob("second", 1);
+        var third = createJob("third", 1);
+
+        cache.computeIfAbsent(first, action, "{}", () -> MODEL);
+        cache.computeIfAbsent(second, action, "{}", () -> MODEL);
+        cache.computeIfAbsent(first, action, "{}", () -> MODEL);
+        cache.computeIfAbsent(third, action, "{}", () -> MODEL);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.getEvictionCount()).isEqualTo(1);
+        assertThat(cache.computeIfAbsent(first, action, "{}", () -> OTHER_MODEL)).isEqualTo(MODEL);
+        assertThat(cache.computeIfAbsent(second, action, "{}", () -> OTHER_MODEL)).isEqualTo(OTHER_MODEL);
+    }
+
+    @Test
+    void shouldEvictExpiredModel() {
+        var time = new AtomicLong();
+        var cache = new TrendModelCache(10, 1000, time::get);
+        var job = createJob("job", 1);
+        var action = mock(Action.class);
+
+        cache.computeIfAbsent(job, action, "{}", () -> MODEL);
+        time.set(1000);
+        assertThat(cache.computeIfAbsent(job, action, "{}", () -> OTHER_MODEL)).isEqualTo(MODEL);
+
+        time.set(2001);
+        assertThat(cache.computeIfAbsent(job, action, "{}", () -> OTHER_MODEL)).isEqualTo(OTHER_MODEL);
+        assertThat(cache.getEvictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotCacheIfDisabled() {
+        var cache = new TrendModelCache(0, 1000, () -> 0);
+        var job = createJob("job", 1);
+        var action = mock(Action.class);
+
+        cache.computeIfAbsent(job, action, "{}", () -> MODEL);
+
+        assertThat(cache.computeIfAbsent(job, action, "{}", () -> OTHER_MODEL)).isEqualTo(OTHER_MODEL);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void shouldCacheVariantsSeparately() {
+        var cache = new TrendModelCache(10, 1000, () -> 0);
+        var job = createJob("job", 1);
+        var action = mock(Action.class);
+        var configuration = TrendChartConfiguration.parse("{}");
+
+        cache.computeIfAbsent(job, action, configuration, () -> MODEL);
+        assertThat(cache.containsVariant(job, action, configuration, "dark")).isFalse();
+        assertThat(cache.computeVariantIfAbsent(job, action, configuration, "dark", () -> OTHER_MODEL))
+                .isEqualTo(OTHER_MODEL);
+        assertThat(cache.computeVariantIfAbsent(job, action, configuration, "dark", () -> MODEL))
+                .isEqualTo(OTHER_MODEL);
+        assertThat(cache.containsVariant(job, action, configuration, "light")).isFalse();
+        assertThat(cache.getIfPresent(job, action, configuration)).isEqualTo(MODEL);
+
+        cache.invalidate(job);
+        assertThat(cache.containsVariant(job, action, configuration, "dark")).isFalse();
+    }
+
+    @Test
+    void shouldChangeEntityTagIfModelChanges() {
+        var cache = new TrendModelCache(0, 1000, () -> 0);
+        var job = createJob("job", 1);
+        var action = mock(Action.class);
+        var configuration = TrendChartConfiguration.parse("{\"numberOfBuilds\":5}");
+
+        var tag = cache.getEntityTag(job, action, configuration);
+        assertThat(tag).startsWith("W/\"").endsWith("\"");
+        assertThat(cache.getEntityTag(job, action, TrendChartConfiguration.parse("{ \"numberOfBuilds\" : 5 }")))
+                .isEqualTo(tag);
+        assertThat(cache.getEntityTag(job, action, TrendChartConfiguration.parse("{}"))).isNotEqualTo(tag);
+        assertThat(cache.getEntityTag(createJob("other", 1), action, configuration)).isNotEqualTo(tag);
+
+        cache.invalidate(job);
+        var invalidated = cache.getEntityTag(job, action, configuration);
+        assertThat(invalidated).isNotEqualTo(tag);
+
+        Run<?, ?> build = mock(Run.class);
+        when(build.getNumber()).thenReturn(2);
+        when(job.getLastCompletedBuild()).thenAnswer(i -> build);
+        assertThat(cache.getEntityTag(job, action, configuration)).isNotEqualTo(tag).isNotEqualTo(invalidated);
+    }
+
+    @Test
+    void shouldNormalizeConfiguration() {
+        assertThat(TrendModelCache.normalize(null)).isEqualTo("{}");
+        assertThat(TrendModelCache.normalize(" ")).isEqualTo("{}");
+        assertThat(TrendModelCache.normalize("{\"b\":1, \"a\":\"2\"}")).isEqualTo("{\"a\":\"2\",\"b\":1}");
+        assertThat(TrendModelCache.normalize(" no JSON ")).isEqualTo("no JSON");
+    }
+
+    private Job<?, ?> createJob(final String name, final int latestBuild) {
+        Job<?, ?> job = mock(Job.class);
+        when(job.getFullName()).thenReturn(name);
+
+        Run<?, ?> build = mock(Run.class);
+        when(build.getNumber()).thenReturn(latestBuild);
+        when(job.getLastCompletedBuild()).thenAnswer(i -> build);
+
+        return job;
+    }
+}
@@ -0,0 +1,104 @@
+package io.jenkins.plugins.echarts;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.kohsuke.stapler.StaplerRequest2;
+import org.kohsuke.stapler.StaplerResponse2;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests the class {@link TrendModelResponse}.
+ */
+class TrendModelResponseTest {
+    @Test
+    void shouldStreamModelIfNotCached() throws IOException {
+        var request = mock(StaplerRequest2.class);
+        var response = mock(StaplerResponse2.class);
+        var output = new ByteArrayOutputStream();
+        when(response.getCompressedOutputStream(request)).thenReturn(output);
+
+        var metrics = TrendMetrics.getInstance().forAction(StreamingAction.class);
+        long payload = metrics.getCount(TrendMetrics.Counter.PAYLOAD_BYTES);
+        long serializations = metrics.getCount(TrendMetrics.Timing.SERIALIZATION);
+
+        TrendModelResponse.write(request, response, new StreamingAction(), null,
+                () -> Map.of("buildNumbers", List.of(2, 1)));
+
+        assertThat(output.toString(StandardCharsets.UTF_8)).isEqualTo("{\"buildNumbers\":[2,1]}");
+        verify(response).setContentType(TrendModelResponse.CONTENT_TYPE);
+        verify(response, never()).getCompressedWriter(request);
+
+        assertThat(metrics.getCount(TrendMetrics.Counter.PAYLOAD_BYTES)).isEqualTo(payload + output.size());
+        assertThat(metrics.getCount(TrendMetrics.Timing.SERIALIZATION)).isEqualTo(serializations + 1);
+    }
+
+    @Test
+    void shouldWriteCachedModel() throws IOException {
+        var request = mock(StaplerRequest2.class);
+        var response = mock(StaplerResponse2.class);
+        var writer = new StringWriter();
+        when(response.getCompressedWriter(request)).thenReturn(writer);
+
+        TrendModelResponse.write(request, response, new StreamingAction(), "{\"cached\":true}", () -> {
+            throw new AssertionError("Model should not be created");
+        });
+
+        assertThat(writer).hasToString("{\"cached\":true}");
+        verify(response, never()).getCompressedOutputStream(request);
+    }
+
+    @Test
+    void shouldReturnNotModifiedIfEntityTagMatches() {
+        var request = mock(StaplerRequest2.class);
+        var response = mock(StaplerResponse2.class);
+        when(request.getHeader("If-None-Match")).thenReturn("\"other\", W/\"1-2\"");
+
+        assertThat(TrendModelResponse.isNotModified(request, response, "W/\"1-2\"")).isTrue();
+        verify(response).setHeader("ETag", "W/\"1-2\"");
+        verify(response).setStatus(304);
+
+        when(request.getHeader("If-None-Match")).thenReturn("\"1-2\"");
+        assertThat(TrendModelResponse.isNotModified(request, response, "W/\"1-2\"")).isTrue();
+
+        when(request.getHeader("If-None-Match")).thenReturn("*");
+        assertThat(TrendModelResponse.isNotModified(request, response, "W/\"1-2\"")).isTrue();
+    }
+
+    @Test
+    void shouldWriteModelIfEntityTagDoesNotMatch() throws IOException {
+        var request = mock(StaplerRequest2.class);
+        var response = mock(StaplerResponse2.class);
+        var writer = new StringWriter();
+        when(response.getCompressedWriter(request)).thenReturn(writer);
+
+        assertThat(TrendModelResponse.isNotModified(request, response, "W/\"1-2\"")).isFalse();
+
+        when(request.getHeader("If-None-Match")).thenReturn("W/\"1-3\"");
+        TrendModelResponse.writeIfModified(request, response, new StreamingAction(), "{\"cached\":true}");
+
+        assertThat(writer).hasToString("{\"cached\":true}");
+        verify(response, never()).setStatus(anyInt());
+        verify(response).setHeader("ETag", TrendModelResponse.createEntityTag("{\"cached\":true}"));
+    }
+
+    @Test
+    void shouldReadConfigurationParameter() {
+        var request = mock(StaplerRequest2.class);
+
+        assertThat(TrendModelResponse.getConfiguration(request)).isEqualTo("{}");
+
+        when(request.getParameter("configuration")).thenReturn("{\"numberOfBuilds\":5}");
+        assertThat(TrendModelResponse.getConfiguration(request)).isEqualTo("{\"numberOfBuilds\":5}");
+    }
+
+    private static class StreamingAction {
+    }
+}
@@ -0,0 +1,43 @@
+package io.jenkins.plugins.echarts;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link TrendPalette}.
+ */
+class TrendPaletteTest {
+    @Test
+    void shouldResolveColorsOfPalette() {
+        var palette = createPalette("{\"--red\":\" #e6001f\",\"--light-green\":\"rgb(0, 255, 0)\"}");
+
+        assertThat(palette.isEmpty()).isFalse();
+        assertThat(palette.resolve("{\"color\":\"--red\",\"other\":[\"--light-green\",\"--blue\"]}"))
+                .isEqualTo("{\"color\":\"#e6001f\",\"other\":[\"rgb(0, 255, 0)\",\"--blue\"]}");
+        assertThat(TrendPalette.hasVariables("{\"color\":\"#e6001f\"}")).isFalse();
+        assertThat(TrendPalette.hasVariables("{\"color\":\"--blue\"}")).isTrue();
+    }
+
+    @Test
+    void shouldIgnoreInvalidColors() {
+        var palette = createPalette("{\"--red\":\"\\\"}\",\"red\":\"#fff\",\"--blue\":1,\"--green\":\"#0f0\"}");
+
+        assertThat(palette.resolve("[\"--red\",\"--blue\",\"--green\"]")).isEqualTo("[\"--red\",\"--blue\",\"#0f0\"]");
+        assertThat(createPalette("{\"--red\":\"a\\nb\"}")).isSameAs(TrendPalette.NONE);
+        assertThat(createPalette("[]")).isSameAs(TrendPalette.NONE);
+        assertThat(TrendPalette.fromJson(null)).isSameAs(TrendPalette.NONE);
+        assertThat(TrendPalette.NONE.resolve("\"--red\"")).isEqualTo("\"--red\"");
+    }
+
+    @Test
+    void shouldUseSameVariantForSameColors() {
+        assertThat(createPalette("{\"--red\":\"#f00\",\"--blue\":\"#00f\"}").getVariant())
+                .isEqualTo(createPalette("{\"--blue\":\"#00f\",\"--red\":\"#f00\"}").getVariant())
+                .isNotEqualTo(createPalette("{\"--blue\":\"#00f\",\"--red\":\"#e00\"}").getVariant());
+    }
+
+    private TrendPalette createPalette(final String json) {
+        return TrendPalette.fromJson(ChartModelWriter.getObjectMapper().readTree(json));
+    }
+}
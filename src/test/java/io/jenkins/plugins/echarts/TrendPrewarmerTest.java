@@ -0,0 +1,129 @@
+package io.jenkins.plugins.echarts;
+
+import edu.hm.hafner.echarts.line.LinesChartModel;
+import edu.hm.hafner.echarts.line.LinesDataSet;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import hudson.model.Job;
+
+import io.jenkins.plugins.util.BuildAction;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests the class {@link TrendPrewarmer}.
+ */
+class TrendPrewarmerTest {
+    /** The configuration that is sent by {@code renderConfigurableTrendChart} if the user did not configure it. */
+    private static final String PAGE_CONFIGURATION = "{\"encoding\":\"columnar\"}";
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    @AfterEach
+    void shutdownScheduler() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void shouldComputeModelsOnlyOnceForBuildsInQuickSuccession() throws InterruptedException {
+        List<Job<?, ?>> warmed = new CopyOnWriteArrayList<>();
+        var prewarmer = new TrendPrewarmer(scheduler, Runnable::run, 200, warmed::add);
+
+        var job = createJob("job");
+        var other = createJob("other");
+        for (int build = 0; build < 5; build++) {
+            prewarmer.schedule(job);
+        }
+        prewarmer.schedule(other);
+
+        assertThat(prewarmer.getPendingCount()).isEqualTo(2);
+        assertThat(warmed).isEmpty();
+
+        scheduler.shutdown();
+        assertThat(scheduler.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(warmed).containsExactlyInAnyOrder(job, other);
+        assertThat(prewarmer.getPendingCount()).isZero();
+    }
+
+    @Test
+    void shouldIgnoreBrokenActions() {
+        Job<?, ?> job = createJob("broken-job");
+        AsyncTrendJobAction<?> broken = mock(AsyncTrendJobAction.class);
+        when(broken.isTrendVisible()).thenReturn(true);
+        when(broken.getBuildTrendModel()).thenThrow(new IllegalStateException("Broken model"));
+        TrendChartJobAction<?> hidden = mock(TrendChartJobAction.class);
+        var visible = new CountingTrendChartJobAction(job);
+        when(job.getAllActions()).thenReturn(List.of(broken, hidden, visible));
+
+        TrendPrewarmer.prewarm(job);
+
+        verify(hidden, never()).getConfigurableBuildTrendModel(anyString());
+        assertThat(visible.computations).hasValue(1);
+
+        visible.getConfigurableBuildTrendModel(PAGE_CONFIGURATION);
+        assertThat(visible.computations).as("request of the job page is served from the cache").hasValue(1);
+    }
+
+    @Test
+    void shouldWarmConfigurationOfConfigurableAsyncTrendJobAction() {
+        Job<?, ?> job = createJob("configurable-job");
+        AsyncConfigurableTrendJobAction<?> configurable = mock(AsyncConfigurableTrendJobAction.class);
+        when(configurable.isTrendVisible()).thenReturn(true);
+        when(job.getAllActions()).thenReturn(List.of(configurable));
+
+        TrendPrewarmer.prewarm(job);
+
+        verify(configurable).getConfigurableBuildTrendModel(PAGE_CONFIGURATION);
+    }
+
+    private Job<?, ?> createJob(final String name) {
+        Job<?, ?> job = mock(Job.class);
+        when(job.getFullName()).thenReturn(name);
+        return job;
+    }
+
+    private static final class CountingTrendChartJobAction extends TrendChartJobAction<BuildAction<?>> {
+        private final AtomicInteger computations = new AtomicInteger();
+
+        @SuppressWarnings("unchecked")
+        CountingTrendChartJobAction(final Job<?, ?> owner) {
+            super(owner, (Class<BuildAction<?>>) (Class<?>) BuildAction.class);
+        }
+
+        @Override
+        public String getUrlName() {
+            return "counting";
+        }
+
+        @Override
+        public String getDisplayName() {
+            return "Counting";
+        }
+
+        @Override
+        public String getIconFileName() {
+            return null;
+        }
+
+        @Override
+        public boolean isTrendVisible() {
+            return true;
+        }
+
+        @Override
+        protected LinesChartModel createChartModel(final String configuration) {
+            computations.incrementAndGet();
+            return new LinesChartModel(new LinesDataSet());
+        }
+    }
+}
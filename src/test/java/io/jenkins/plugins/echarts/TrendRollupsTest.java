@@ -0,0 +1,179 @@
+package io.jenkins.plugins.echarts;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.jenkins.plugins.echarts.TrendRollups.Aggregation;
+import io.jenkins.plugins.echarts.TrendRollups.DayValues;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link TrendRollups}.
+ */
+class TrendRollupsTest {
+    private static final String ID = "warnings";
+
+    @TempDir
+    Path folder;
+
+    @Test
+    void shouldAggregateValuesOfEachDay() {
+        var rollups = createRollups();
+
+        assertThat(rollups.aggregate(ID, HistoryLimits.unlimited(), Aggregation.AVERAGE)).containsExactly(
+                entry(10, new DayValues(Map.of("errors", 2, "warnings", 10), 2)),
+                entry(11, new DayValues(Map.of("errors", 5, "warnings", 30), 5)),
+                entry(13, new DayValues(Map.of("errors", 6, "warnings", 40), 6)));
+        assertThat(rollups.aggregate(ID, HistoryLimits.unlimited(), Aggregation.SUM).get(11).values())
+                .containsEntry("errors", 15).containsEntry("warnings", 90);
+        assertThat(rollups.aggregate(ID, HistoryLimits.unlimited(), Aggregation.MINIMUM).get(11).values())
+                .containsEntry("errors", 3).containsEntry("warnings", 20);
+        assertThat(rollups.aggregate(ID, HistoryLimits.unlimited(), Aggregation.MAXIMUM).get(11).values())
+                .containsEntry("errors", 7).containsEntry("warnings", 40);
+        assertThat(rollups.aggregate(ID, HistoryLimits.unlimited(), Aggregation.LAST).get(11).values())
+                .containsEntry("errors", 7).containsEntry("warnings", 40);
+        assertThat(rollups.aggregate("other", HistoryLimits.unlimited(), Aggregation.AVERAGE)).isEmpty();
+    }
+
+    @Test
+    void shouldIgnoreBuildsThatHaveBeenRecordedAlready() {
+        var rollups = createRollups();
+
+        rollups.add(ID, 6, 13, Map.of("errors", 100, "warnings", 100));
+
+        assertThat(rollups.aggregate(ID, HistoryLimits.unlimited(), Aggregation.AVERAGE).get(13).values())
+                .containsEntry("errors", 6);
+    }
+
+    @Test
+    void shouldUseValueOfNewestBuildAsLastValueIfBuildsCompleteOutOfOrder() {
+        var rollups = new TrendRollups(folder.resolve(TrendRollups.FILE_NAME));
+        rollups.add(ID, 2, 10, Map.of("errors", 2));
+        rollups.add(ID, 1, 10, Map.of("errors", 1));
+
+        assertThat(rollups.aggregate(ID, HistoryLimits.unlimited(), Aggregation.LAST).get(10))
+                .isEqualTo(new DayValues(Map.of("errors", 2), 2));
+    }
+
+    @Test
+    void shouldApplyLimitsToDays() {
+        var rollups = createRollups();
+
+        assertThat(rollups.aggregate(ID, HistoryLimits.createLimits(0, 3), Aggregation.AVERAGE))
+                .containsOnlyKeys(11, 13);
+        assertThat(rollups.aggregate(ID, HistoryLimits.createLimits(1, 0), Aggregation.AVERAGE))
+                .containsOnlyKeys(13);
+        assertThat(rollups.aggregate(ID, HistoryLimits.createLimits(2, 0), Aggregation.AVERAGE))
+                .containsOnlyKeys(11, 13);
+    }
+
+    @Test
+    void shouldRemoveOldestDayIfBuildIsDeleted() {
+        var rollups = createRollups();
+
+        rollups.remove(1, 10);
+
+        assertThat(rollups.aggregate(ID, HistoryLimits.unlimited(), Aggregation.AVERAGE)).containsOnlyKeys(11, 13);
+
+        rollups.remove(2, 10);
+
+        assertThat(rollups.aggregate(ID, HistoryLimits.unlimited(), Aggregation.AVERAGE)).containsOnlyKeys(11, 13);
+    }
+
+    @Test
+    void shouldAddRemainingBuildsOfRemovedOldestDayAgain() {
+        var rollups = createRollups();
+
+        rollups.remove(1, 10);
+        rollups.add(ID, 2, 10, Map.of("errors", 3, "warnings", 10));
+
+        assertThat(rollups.aggregate(ID, HistoryLimits.unlimited(), Aggregation.AVERAGE)).containsExactly(
+                entry(10, new DayValues(Map.of("errors", 3, "warnings", 10), 2)),
+                entry(11, new DayValues(Map.of("errors", 5, "warnings", 30), 5)),
+                entry(13, new DayValues(Map.of("errors", 6, "warnings", 40), 6)));
+    }
+
+    @Test
+    void shouldNotCountBuildsOfNewerDaysTwiceIfOldestDayIsRemoved() {
+        var rollups = new TrendRollups(folder.resolve(TrendRollups.FILE_NAME));
+        rollups.add(ID, 1, 10, Map.of("errors", 1));
+        rollups.add(ID, 2, 11, Map.of("errors", 2));
+        rollups.add(ID, 3, 10, Map.of("errors", 3));
+
+        rollups.remove(1, 10);
+        rollups.add(ID, 2, 11, Map.of("errors", 2));
+        rollups.add(ID, 3, 10, Map.of("errors", 3));
+
+        assertThat(rollups.aggregate(ID, HistoryLimits.unlimited(), Aggregation.SUM)).containsExactly(
+                entry(10, new DayValues(Map.of("errors", 3), 3)),
+                entry(11, new DayValues(Map.of("errors", 2), 2)));
+    }
+
+    @Test
+    void shouldResetSeriesIfBuildOfIntermediateDayIsDeleted() {
+        var rollups = createRollups();
+
+        rollups.remove(4, 11);
+
+        assertThat(rollups.aggregate(ID, HistoryLimits.unlimited(), Aggregation.AVERAGE)).isEmpty();
+
+        rollups.add(ID, 6, 13, Map.of("errors", 1));
+        assertThat(rollups.aggregate(ID, HistoryLimits.unlimited(), Aggregation.AVERAGE)).containsOnlyKeys(13);
+    }
+
+    @Test
+    void shouldWriteAndReadRollups() {
+        var rollups = createRollups();
+        rollups.save();
+
+        var loaded = new TrendRollups(folder.resolve(TrendRollups.FILE_NAME));
+        loaded.read();
+
+        assertThat(loaded.aggregate(ID, HistoryLimits.unlimited(), Aggregation.LAST))
+                .isEqualTo(rollups.aggregate(ID, HistoryLimits.unlimited(), Aggregation.LAST));
+        assertThat(loaded.aggregate(ID, HistoryLimits.unlimited(), Aggregation.AVERAGE))
+                .isEqualTo(rollups.aggregate(ID, HistoryLimits.unlimited(), Aggregation.AVERAGE));
+
+        loaded.add(ID, 6, 13, Map.of("errors", 100));
+        assertThat(loaded.aggregate(ID, HistoryLimits.unlimited(), Aggregation.AVERAGE).get(13).values())
+                .containsEntry("errors", 6);
+    }
+
+    @Test
+    void shouldWriteAndReadStaleBuilds() {
+        var rollups = createRollups();
+        rollups.remove(1, 10);
+        rollups.save();
+
+        var loaded = new TrendRollups(folder.resolve(TrendRollups.FILE_NAME));
+        loaded.read();
+        loaded.add(ID, 2, 10, Map.of("errors", 3, "warnings", 10));
+
+        assertThat(loaded.aggregate(ID, HistoryLimits.unlimited(), Aggregation.AVERAGE).get(10))
+                .isEqualTo(new DayValues(Map.of("errors", 3, "warnings", 10), 2));
+    }
+
+    @Test
+    void shouldSelectAggregationFromConfiguration() {
+        assertThat(Aggregation.fromConfiguration(TrendChartConfiguration.parse("{}"))).isEqualTo(Aggregation.AVERAGE);
+        assertThat(Aggregation.fromConfiguration(TrendChartConfiguration.parse("{\"aggregation\":\"maximum\"}")))
+                .isEqualTo(Aggregation.MAXIMUM);
+        assertThat(Aggregation.fromConfiguration(TrendChartConfiguration.parse("{\"aggregation\":\"median\"}")))
+                .isEqualTo(Aggregation.AVERAGE);
+    }
+
+    private TrendRollups createRollups() {
+        var rollups = new TrendRollups(folder.resolve(TrendRollups.FILE_NAME));
+        rollups.add(ID, 1, 10, Map.of("errors", 1, "warnings", 10));
+        rollups.add(ID, 2, 10, Map.of("errors", 3, "warnings", 10));
+        rollups.add(ID, 3, 11, Map.of("errors", 5, "warnings", 30));
+        rollups.add(ID, 4, 11, Map.of("errors", 3, "warnings", 20));
+        rollups.add(ID, 5, 11, Map.of("errors", 7, "warnings", 40));
+        rollups.add(ID, 6, 13, Map.of("errors", 6, "warnings", 40));
+        return rollups;
+    }
+}
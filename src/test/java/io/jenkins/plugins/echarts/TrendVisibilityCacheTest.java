@@ -0,0 +1,98 @@
+package io.jenkins.plugins.echarts;
+
+import org.junit.jupiter.api.Test;
+
+import hudson.model.Action;
+import hudson.model.Item;
+import hudson.model.Job;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests the class {@link TrendVisibilityCache}.
+ */
+class TrendVisibilityCacheTest {
+    @Test
+    void shouldMemorizeVisibility() {
+        var cache = new TrendVisibilityCache();
+        var job = createJob();
+        var action = mock(Action.class);
+
+        assertThat(cache.isVisible(job, action, () -> true)).isTrue();
+        assertThat(cache.isVisible(job, action, () -> false)).isTrue();
+
+        cache.onCompleted(job);
+        assertThat(cache.isVisible(job, action, () -> false)).isTrue();
+
+        cache.onDeleted(job);
+        assertThat(cache.isVisible(job, action, () -> false)).isFalse();
+    }
+
+    @Test
+    void shouldReevaluateInvisibleTrendAfterNewBuild() {
+        var cache = new TrendVisibilityCache();
+        var job = createJob();
+        var action = mock(Action.class);
+
+        assertThat(cache.isVisible(job, action, () -> false)).isFalse();
+        assertThat(cache.isVisible(job, action, () -> true)).isFalse();
+
+        cache.onCompleted(job);
+        assertThat(cache.isVisible(job, action, () -> true)).isTrue();
+    }
+
+    @Test
+    void shouldNotStoreVisibilityThatHasBeenEvaluatedBeforeBuildCompleted() {
+        var cache = new TrendVisibilityCache();
+        var job = createJob();
+        var action = mock(Action.class);
+
+        assertThat(cache.isVisible(job, action, () -> {
+            cache.onCompleted(job); // the second build completes while the first build is evaluated
+            return false;
+        })).isFalse();
+
+        assertThat(cache.isVisible(job, action, () -> true)).isTrue();
+    }
+
+    @Test
+    void shouldForgetVisibilityOfDeletedOrRenamedJobs() {
+        var cache = new TrendVisibilityCache();
+        var job = createJob("folder/job");
+        var other = createJob("other");
+        var action = mock(Action.class);
+
+        assertThat(cache.isVisible(job, action, () -> true)).isTrue();
+        assertThat(cache.isVisible(other, action, () -> true)).isTrue();
+
+        cache.remove("folder");
+
+        assertThat(cache.isVisible(createJob("folder/job"), action, () -> false)).isFalse();
+        assertThat(cache.isVisible(other, action, () -> false)).isTrue();
+    }
+
+    @Test
+    void shouldRemoveVisibilityWhenJobIsRenamed() {
+        var shared = TrendVisibilityCache.getInstance();
+        var job = createJob("visibility-of-renamed-job");
+        var action = mock(Action.class);
+
+        assertThat(shared.isVisible(job, action, () -> true)).isTrue();
+
+        new TrendVisibilityCache.JobRemover().onLocationChanged(mock(Item.class), "visibility-of-renamed-job",
+                "visibility-of-new-name");
+
+        assertThat(shared.isVisible(job, action, () -> false)).isFalse();
+    }
+
+    private Job<?, ?> createJob() {
+        return createJob("job");
+    }
+
+    private Job<?, ?> createJob(final String name) {
+        Job<?, ?> job = mock(Job.class);
+        when(job.getFullName()).thenReturn(name);
+        return job;
+    }
+}